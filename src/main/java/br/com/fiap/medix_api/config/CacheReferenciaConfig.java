@@ -0,0 +1,31 @@
+package br.com.fiap.medix_api.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * CacheManager do cache de segundo nível (regiões em cache-referencia.conf). Criado aqui em vez de pelo
+ * hibernate.javax.cache.uri: o Hibernate transforma o nome do recurso em URL, que dentro do jar empacotado
+ * (jar:nested:) o Caffeine não lê, e as regiões cairiam silenciosamente na configuração padrão.
+ */
+@Configuration
+public class CacheReferenciaConfig {
+
+    @Bean
+    public CacheManager cacheReferenciaManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("classpath:cache-referencia.conf"), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheReferenciaHibernate(CacheManager cacheReferenciaManager) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheReferenciaManager);
+    }
+}
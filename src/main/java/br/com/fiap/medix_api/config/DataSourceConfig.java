@@ -0,0 +1,49 @@
+package br.com.fiap.medix_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Pools do primário (spring.datasource) e da réplica de leitura (medix.datasource.replica), atrás de um
+ * {@link RoteamentoDataSource}. Sem a réplica habilitada, tudo vai para o primário, como antes.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "medix.datasource.replica.habilitada", havingValue = "true")
+    @ConfigurationProperties("medix.datasource.replica.hikari")
+    public HikariDataSource replica() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(@Qualifier("primario") HikariDataSource primario,
+                                                     @Qualifier("replica") ObjectProvider<HikariDataSource> replica,
+                                                     LeituraPropria leituraPropria) {
+        return new RoteamentoDataSource(primario, replica.getIfAvailable(), leituraPropria);
+    }
+
+    // A conexão real só é pedida ao roteamento no primeiro comando, quando a transação já se declarou readOnly
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+}
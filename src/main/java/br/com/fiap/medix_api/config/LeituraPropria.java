@@ -0,0 +1,84 @@
+package br.com.fiap.medix_api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Leitura das próprias escritas com a réplica atrasada. Depois do commit de uma transação de escrita, o resto
+ * da requisição lê do primário (ex: o agendamento recém-criado devolvido pelo POST) e o usuário autenticado
+ * também, nas requisições seguintes, durante a janela configurada (ex: o GET logo depois do agendamento).
+ * Registrado como filtro (depois do Spring Security, para conhecer o usuário) e como ouvinte das transações.
+ */
+@Component
+public class LeituraPropria extends OncePerRequestFilter implements TransactionExecutionListener {
+
+    private final ThreadLocal<Requisicao> requisicao = new ThreadLocal<>();
+    private final Cache<String, Boolean> escritasRecentes;
+
+    public LeituraPropria(@Value("${medix.datasource.replica.janela-leitura-propria-ms:5000}") long janelaMs) {
+        this.escritasRecentes = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(janelaMs))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String usuario = usuarioAutenticado();
+        requisicao.set(new Requisicao(usuario, usuario != null && escritasRecentes.getIfPresent(usuario) != null));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            requisicao.remove();
+        }
+    }
+
+    // Jobs e eventos fora de uma requisição não têm escrita própria a esperar
+    public boolean isNoPrimario() {
+        Requisicao atual = requisicao.get();
+        return atual != null && atual.noPrimario;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transacao, Throwable falha) {
+        Requisicao atual = requisicao.get();
+        if (falha != null || transacao.isReadOnly() || atual == null) {
+            return;
+        }
+        atual.noPrimario = true;
+        if (atual.usuario != null) {
+            escritasRecentes.put(atual.usuario, Boolean.TRUE);
+        }
+    }
+
+    private static String usuarioAutenticado() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken ? null : auth.getName();
+    }
+
+    private static final class Requisicao {
+        private final String usuario;
+        private boolean noPrimario;
+
+        private Requisicao(String usuario, boolean noPrimario) {
+            this.usuario = usuario;
+            this.noPrimario = noPrimario;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.fiap.medix_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Perfil local: faz o papel da replicação entre os dois H2 em memória. Na subida copia o banco inteiro do
+ * primário para a réplica (tabelas criadas pelo Hibernate e data-h2.sql); depois recopia os dados a cada
+ * intervalo, numa transação só, então a réplica fica atrasada como uma réplica assíncrona de verdade.
+ */
+@Slf4j
+@Component
+@Profile("local")
+public class ReplicacaoLocal {
+
+    private final HikariDataSource primario;
+    private final HikariDataSource replica;
+    private volatile boolean copiada;
+
+    public ReplicacaoLocal(@Qualifier("primario") HikariDataSource primario, @Qualifier("replica") HikariDataSource replica) {
+        this.primario = primario;
+        this.replica = replica;
+    }
+
+    // Antes do ApplicationReadyEvent, quando os carregamentos em memória já podem ler da réplica
+    @EventListener(ContextRefreshedEvent.class)
+    public void copiarEsquema() throws SQLException {
+        try (Connection origem = primario.getConnection(); Connection destino = replica.getConnection();
+             Statement st = destino.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            for (String comando : script(origem)) {
+                st.execute(comando);
+            }
+            // A integridade já foi garantida no primário; sem ela, a recópia não depende da ordem das tabelas
+            st.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+        copiada = true;
+        log.info("Réplica local criada a partir do primário.");
+    }
+
+    @Scheduled(fixedDelayString = "${medix.datasource.replica.local.intervalo-ms:5000}")
+    public void replicar() throws SQLException {
+        if (!copiada) {
+            return;
+        }
+        try (Connection origem = primario.getConnection(); Connection destino = replica.getConnection();
+             Statement st = destino.createStatement()) {
+            List<String> insercoes = script(origem).stream().filter(c -> c.startsWith("INSERT INTO")).toList();
+            destino.setAutoCommit(false);
+            try {
+                for (String tabela : tabelas(destino)) {
+                    st.execute("DELETE FROM \"" + tabela + "\"");
+                }
+                for (String insercao : insercoes) {
+                    st.execute(insercao);
+                }
+                destino.commit();
+            } catch (SQLException e) {
+                destino.rollback();
+                throw e;
+            } finally {
+                destino.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static List<String> script(Connection origem) throws SQLException {
+        List<String> comandos = new ArrayList<>();
+        try (Statement st = origem.createStatement(); ResultSet rs = st.executeQuery("SCRIPT")) {
+            while (rs.next()) {
+                comandos.add(rs.getString(1));
+            }
+        }
+        return comandos;
+    }
+
+    private static List<String> tabelas(Connection destino) throws SQLException {
+        List<String> tabelas = new ArrayList<>();
+        try (Statement st = destino.createStatement(); ResultSet rs = st.executeQuery(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (rs.next()) {
+                tabelas.add(rs.getString(1));
+            }
+        }
+        return tabelas;
+    }
+}
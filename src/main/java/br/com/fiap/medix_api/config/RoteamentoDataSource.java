@@ -0,0 +1,78 @@
+package br.com.fiap.medix_api.config;
+
+import br.com.fiap.medix_api.dto.response.RespostaConexoesDto;
+import br.com.fiap.medix_api.dto.response.RespostaPoolConexoesDto;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escolhe o pool de cada conexão: transações somente leitura (@Transactional(readOnly = true)) vão para a
+ * réplica e todo o resto (escritas e acessos fora de transação) para o primário. Fica atrás de um
+ * LazyConnectionDataSourceProxy (ver {@link DataSourceConfig}), então a escolha acontece no primeiro comando
+ * da transação, quando o readOnly já está registrado. Requisições que acabaram de escrever leem do primário
+ * ({@link LeituraPropria}), porque a réplica pode ainda não ter recebido a escrita.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    public enum Rota { PRIMARIO, REPLICA }
+
+    private final Map<Rota, HikariDataSource> pools;
+    private final LeituraPropria leituraPropria;
+    private final Map<Rota, LongAdder> conexoes = new EnumMap<>(Rota.class);
+
+    public RoteamentoDataSource(HikariDataSource primario, HikariDataSource replica, LeituraPropria leituraPropria) {
+        this.pools = new EnumMap<>(Rota.class);
+        this.pools.put(Rota.PRIMARIO, primario);
+        if (replica != null) {
+            this.pools.put(Rota.REPLICA, replica);
+        }
+        this.leituraPropria = leituraPropria;
+        pools.keySet().forEach(rota -> conexoes.put(rota, new LongAdder()));
+        setTargetDataSources(new LinkedHashMap<>(pools));
+        setDefaultTargetDataSource(primario);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Rota rota = rota();
+        conexoes.get(rota).increment();
+        return rota;
+    }
+
+    Rota rota() {
+        boolean leitura = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return leitura && pools.containsKey(Rota.REPLICA) && !leituraPropria.isNoPrimario() ? Rota.REPLICA : Rota.PRIMARIO;
+    }
+
+    public RespostaConexoesDto estatisticas() {
+        RespostaConexoesDto dto = new RespostaConexoesDto();
+        dto.setReplicaHabilitada(pools.containsKey(Rota.REPLICA));
+        dto.setPools(pools.entrySet().stream().map(e -> pool(e.getKey(), e.getValue())).toList());
+        return dto;
+    }
+
+    private RespostaPoolConexoesDto pool(Rota rota, HikariDataSource dataSource) {
+        RespostaPoolConexoesDto dto = new RespostaPoolConexoesDto();
+        dto.setRota(rota.name());
+        dto.setNomePool(dataSource.getPoolName());
+        dto.setMaximo(dataSource.getMaximumPoolSize());
+        dto.setConexoesRoteadas(conexoes.get(rota).sum());
+        // O pool só existe depois da primeira conexão pedida; até lá, tudo zerado
+        HikariPoolMXBean mx = dataSource.getHikariPoolMXBean();
+        if (mx != null) {
+            dto.setAtivas(mx.getActiveConnections());
+            dto.setOciosas(mx.getIdleConnections());
+            dto.setTotal(mx.getTotalConnections());
+            dto.setAguardando(mx.getThreadsAwaitingConnection());
+        }
+        return dto;
+    }
+}
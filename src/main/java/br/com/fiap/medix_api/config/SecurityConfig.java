@@ -47,12 +47,19 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/unidades/{id}").authenticated()
 
                         // Rotas de Agendamento (Todos os autenticados podem usar o fluxo)
+                        .requestMatchers("/agendamentos/disponibilidade/cache/**").hasRole("COLABORADOR")
                         .requestMatchers("/agendamentos/disponibilidade/**").authenticated()
                         .requestMatchers(HttpMethod.POST, "/agendamentos").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/agendamentos/reservas/**").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/agendamentos/lote").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/agendamentos/series").authenticated()
                         .requestMatchers(HttpMethod.GET, "/agendamentos/**").authenticated()
                         .requestMatchers(HttpMethod.PATCH, "/agendamentos/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/agendamentos/**").authenticated()
 
+                        // Lista de espera (pacientes e colaboradores)
+                        .requestMatchers("/lista-espera/**").authenticated()
+
                         // Rotas de GESTÃO (Apenas Colaborador)
                         // CRUD de Colaboradores (Total)
                         .requestMatchers("/colaboradores/**").hasRole("COLABORADOR")
@@ -70,6 +77,12 @@ public class SecurityConfig {
                         // CRUD de Salas (Total)
                         .requestMatchers("/salas/**").hasRole("COLABORADOR")
 
+                        // Pools de conexão do primário e da réplica
+                        .requestMatchers("/conexoes/**").hasRole("COLABORADOR")
+
+                        // Jornadas de trabalho e exceções (Total)
+                        .requestMatchers("/jornadas/**").hasRole("COLABORADOR")
+
                         // Todas as outras rotas exigem autenticação
                         .anyRequest().authenticated()
                 )
@@ -1,16 +1,42 @@
 package br.com.fiap.medix_api.controller;
 
+import br.com.fiap.medix_api.dto.projection.AgendamentoResumoDto;
 import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
+import br.com.fiap.medix_api.dto.request.CadastrarLoteAgendamentoDto;
+import br.com.fiap.medix_api.dto.request.CadastrarSerieAgendamentoDto;
 import br.com.fiap.medix_api.dto.response.RespostaAgendamentoDto;
+import br.com.fiap.medix_api.dto.response.RespostaCancelamentoSerieDto;
 import br.com.fiap.medix_api.dto.response.RespostaColaboradorDto;
+import br.com.fiap.medix_api.dto.response.RespostaDiaDisponibilidadeDto;
+import br.com.fiap.medix_api.dto.response.RespostaEstatisticasCacheDto;
+import br.com.fiap.medix_api.dto.response.RespostaEstatisticasCacheReferenciaDto;
+import br.com.fiap.medix_api.dto.response.RespostaHorarioLivreDto;
+import br.com.fiap.medix_api.dto.response.RespostaItemLoteDto;
+import br.com.fiap.medix_api.dto.response.RespostaLoteAgendamentoDto;
+import br.com.fiap.medix_api.dto.response.RespostaPaginaDto;
+import br.com.fiap.medix_api.dto.response.RespostaReservaDto;
+import br.com.fiap.medix_api.dto.response.RespostaSerieAgendamentoDto;
 import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import br.com.fiap.medix_api.exception.RequisicaoInvalidaException;
 import br.com.fiap.medix_api.model.Agendamento;
 import br.com.fiap.medix_api.model.Colaborador;
 import br.com.fiap.medix_api.model.Especialidade;
 import br.com.fiap.medix_api.model.UnidadeSaude;
+import br.com.fiap.medix_api.service.AgendamentoLoteService;
+import br.com.fiap.medix_api.service.AgendamentoRegistrado;
+import br.com.fiap.medix_api.service.AgendamentoSerieService;
 import br.com.fiap.medix_api.service.AgendamentoService;
+import br.com.fiap.medix_api.service.CacheDisponibilidade;
+import br.com.fiap.medix_api.service.CacheReferencia;
 import br.com.fiap.medix_api.service.DisponibilidadeService;
+import br.com.fiap.medix_api.service.IdempotenciaAgendamento;
 import br.com.fiap.medix_api.service.ModelMapper;
+import br.com.fiap.medix_api.service.Pagina;
+import br.com.fiap.medix_api.service.Reserva;
+import br.com.fiap.medix_api.service.RespostaIdempotente;
+import br.com.fiap.medix_api.service.ResultadoItemLote;
+import br.com.fiap.medix_api.service.SerieRegistrada;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -19,6 +45,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -27,7 +54,10 @@ import java.net.URI;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -39,7 +69,12 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class AgendamentoController {
 
     private final AgendamentoService agendamentoService;
+    private final AgendamentoLoteService agendamentoLoteService;
+    private final AgendamentoSerieService agendamentoSerieService;
     private final DisponibilidadeService disponibilidadeService;
+    private final CacheDisponibilidade cacheDisponibilidade;
+    private final CacheReferencia cacheReferencia;
+    private final IdempotenciaAgendamento idempotencia;
     private final ModelMapper modelMapper;
 
     // Rotas de consulta de disponibilidade (5 passos)
@@ -68,7 +103,7 @@ public class AgendamentoController {
         List<UnidadeSaude> unidades = disponibilidadeService.listarUnidades(especialidadeId);
         unidades.forEach(u -> {
             u.add(linkTo(methodOn(UnidadeSaudeController.class).buscar(u.getId())).withSelfRel());
-            u.add(linkTo(methodOn(AgendamentoController.class).listarDias(u.getId(), especialidadeId)).withRel("dias_disponiveis"));
+            u.add(linkTo(methodOn(AgendamentoController.class).listarDias(u.getId(), especialidadeId, null, null)).withRel("dias_disponiveis"));
         });
         return ResponseEntity.ok(unidades);
     }
@@ -76,96 +111,338 @@ public class AgendamentoController {
     @GetMapping("/disponibilidade/dias")
     @Operation(
             summary = "Passo 3: Listar dias disponíveis",
-            description = "Retorna uma lista de datas futuras com base na unidade e especialidade, excluindo fins de semana (exemplo).",
+            description = "Retorna os dias dos próximos 30 dias, dentro da jornada de algum colaborador (modelos semanais, inclusive fins de semana, e exceções), que ainda possuem ao menos um horário livre na unidade e especialidade para o tipo de agendamento (padrão: CONSULTA).",
             responses = @ApiResponse(responseCode = "200")
     )
-    public ResponseEntity<List<LocalDate>> listarDias(@RequestParam Long unidadeId, @RequestParam Long especialidadeId) {
-        return ResponseEntity.ok(disponibilidadeService.listarDiasDisponiveis(unidadeId, especialidadeId));
+    public ResponseEntity<List<LocalDate>> listarDias(
+            @RequestParam Long unidadeId,
+            @RequestParam Long especialidadeId,
+            @RequestParam(defaultValue = "CONSULTA") TipoAgendamento tipo,
+            @RequestParam(required = false) String tipoSala) {
+        return ResponseEntity.ok(disponibilidadeService.listarDiasDisponiveis(unidadeId, especialidadeId, tipo, tipoSala));
+    }
+
+    @GetMapping("/disponibilidade/mes")
+    @Operation(
+            summary = "Visão mensal da disponibilidade",
+            description = "Retorna, para cada dia do mês (formato yyyy-MM), a quantidade de horários livres na unidade e especialidade para o tipo de agendamento (padrão: CONSULTA). Calculado com uma única consulta ao banco.",
+            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaDiaDisponibilidadeDto.class)))
+    )
+    public ResponseEntity<List<RespostaDiaDisponibilidadeDto>> listarMes(
+            @RequestParam Long unidadeId,
+            @RequestParam Long especialidadeId,
+            @RequestParam(defaultValue = "CONSULTA") TipoAgendamento tipo,
+            @RequestParam(required = false) String tipoSala,
+            @RequestParam YearMonth mes) {
+        List<RespostaDiaDisponibilidadeDto> dias = disponibilidadeService.listarOcupacaoDoMes(unidadeId, especialidadeId, tipo, tipoSala, mes)
+                .entrySet().stream()
+                .map(dia -> {
+                    RespostaDiaDisponibilidadeDto dto = new RespostaDiaDisponibilidadeDto();
+                    dto.setData(dia.getKey());
+                    dto.setHorariosLivres(dia.getValue());
+                    if (dia.getValue() > 0) {
+                        dto.add(linkTo(methodOn(AgendamentoController.class).listarHorarios(unidadeId, especialidadeId, tipo, tipoSala, dia.getKey())).withRel("horarios"));
+                    }
+                    return dto;
+                })
+                .toList();
+        return ResponseEntity.ok(dias);
     }
 
     @GetMapping("/disponibilidade/horarios")
     @Operation(
             summary = "Passo 4: Listar horários disponíveis no dia",
-            description = "Retorna uma lista de horários de 30 em 30 minutos onde pelo menos um colaborador está livre.",
+            description = "Retorna os horários (de 30 em 30 minutos, ou de 15 em 15 para RETORNO) em que pelo menos um colaborador está livre durante toda a duração do tipo de agendamento (padrão: CONSULTA) e o atendimento termina antes do fechamento. Com tipoSala, exige também uma sala desse tipo livre na unidade.",
             responses = @ApiResponse(responseCode = "200")
     )
     public ResponseEntity<List<LocalTime>> listarHorarios(
             @RequestParam Long unidadeId,
             @RequestParam Long especialidadeId,
+            @RequestParam(defaultValue = "CONSULTA") TipoAgendamento tipo,
+            @RequestParam(required = false) String tipoSala,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
-        return ResponseEntity.ok(disponibilidadeService.listarHorariosDisponiveis(unidadeId, especialidadeId, data));
+        return ResponseEntity.ok(disponibilidadeService.listarHorariosDisponiveis(unidadeId, especialidadeId, tipo, tipoSala, data));
     }
 
     @GetMapping("/disponibilidade/profissionais")
     @Operation(
             summary = "Passo 5: Listar profissionais disponíveis no horário",
-            description = "Retorna a lista exata de colaboradores que estão livres no horário e local especificados.",
+            description = "Retorna a lista exata de colaboradores que estão livres no local especificado, do horário informado até o fim da duração do tipo de agendamento (padrão: CONSULTA). Com tipoSala, retorna vazio se nenhuma sala desse tipo estiver livre na unidade.",
             responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaColaboradorDto.class)))
     )
     public ResponseEntity<List<RespostaColaboradorDto>> listarProfissionais(
             @RequestParam Long unidadeId,
             @RequestParam Long especialidadeId,
+            @RequestParam(defaultValue = "CONSULTA") TipoAgendamento tipo,
+            @RequestParam(required = false) String tipoSala,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horario) {
 
         LocalDateTime dataHora = LocalDateTime.of(data, horario);
-        List<Colaborador> disponiveis = disponibilidadeService.listarProfissionaisDisponiveis(unidadeId, especialidadeId, dataHora);
+        List<Colaborador> disponiveis = disponibilidadeService.listarProfissionaisDisponiveis(unidadeId, especialidadeId, tipo, tipoSala, dataHora);
         List<RespostaColaboradorDto> dtos = disponiveis.stream().map(modelMapper::mapColaboradorToDto).toList();
         dtos.forEach(colab -> colab.add(linkTo(methodOn(ColaboradorController.class).buscar(colab.getId())).withSelfRel()));
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/disponibilidade/proxima")
+    @Operation(
+            summary = "Buscar os próximos horários livres em qualquer unidade",
+            description = "Retorna os primeiros horários livres (unidade, colaborador e início) da especialidade para o tipo de agendamento (padrão: CONSULTA), em ordem cronológica, considerando todas as unidades. A quantidade é limitada a 50.",
+            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaHorarioLivreDto.class)))
+    )
+    public ResponseEntity<List<RespostaHorarioLivreDto>> buscarProximosHorarios(
+            @RequestParam Long especialidadeId,
+            @RequestParam(defaultValue = "CONSULTA") TipoAgendamento tipo,
+            @RequestParam(defaultValue = "5") int quantidade) {
+        List<RespostaHorarioLivreDto> horarios = disponibilidadeService.buscarProximosHorarios(especialidadeId, tipo, quantidade).stream()
+                .map(horario -> {
+                    RespostaHorarioLivreDto dto = new RespostaHorarioLivreDto();
+                    dto.setIdUnidadeSaude(horario.getIdUnidadeSaude());
+                    dto.setIdColaborador(horario.getIdColaborador());
+                    dto.setDataHoraInicio(horario.getDataHoraInicio());
+                    dto.setDataHoraFim(horario.getDataHoraFim());
+                    dto.add(linkTo(methodOn(UnidadeSaudeController.class).buscar(horario.getIdUnidadeSaude())).withRel("unidade"));
+                    dto.add(linkTo(methodOn(ColaboradorController.class).buscar(horario.getIdColaborador())).withRel("colaborador"));
+                    return dto;
+                })
+                .toList();
+        return ResponseEntity.ok(horarios);
+    }
+
+    @GetMapping("/disponibilidade/cache")
+    @Operation(
+            summary = "Estatísticas do cache de disponibilidade",
+            description = "Retorna acertos, falhas, despejos (por tamanho ou tempo de vida) e invalidações causadas por alterações de agenda. Apenas para Colaboradores.",
+            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaEstatisticasCacheDto.class)))
+    )
+    public ResponseEntity<RespostaEstatisticasCacheDto> estatisticasCache() {
+        return ResponseEntity.ok(cacheDisponibilidade.estatisticas());
+    }
+
+    @GetMapping("/disponibilidade/cache/referencia")
+    @Operation(
+            summary = "Estatísticas do cache de dados de referência",
+            description = "Retorna acertos, falhas e gravações do cache de segundo nível por região (especialidade, unidade-saude, sala e consultas de referência). Apenas para Colaboradores.",
+            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaEstatisticasCacheReferenciaDto.class)))
+    )
+    public ResponseEntity<RespostaEstatisticasCacheReferenciaDto> estatisticasCacheReferencia() {
+        return ResponseEntity.ok(cacheReferencia.estatisticas());
+    }
+
     // Rotas de Agendamento (Criação e Leitura)
 
     @PostMapping
     @Operation(
             summary = "Passo 6: Criar agendamento (Finalizar)",
-            description = "Registra um novo agendamento. Realiza validações de conflito (médico, paciente e sala).",
+            description = "Registra um novo agendamento. Realiza validações de conflito (médico, paciente e sala). " +
+                    "Com o cabeçalho Idempotency-Key, repetições da mesma requisição devolvem a primeira resposta " +
+                    "(com Idempotent-Replayed: true) sem agendar de novo. Sem idColaborador, informe idEspecialidade " +
+                    "e o servidor atribui um profissional livre no horário.",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Agendamento criado.", content = @Content(schema = @Schema(implementation = RespostaAgendamentoDto.class))),
                     @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos."),
-                    @ApiResponse(responseCode = "409", description = "Conflito de horário/regra de negócio.")
+                    @ApiResponse(responseCode = "409", description = "Conflito de horário/regra de negócio ou Idempotency-Key usada com outra requisição.")
             }
     )
     public ResponseEntity<RespostaAgendamentoDto> agendar(@RequestBody @Valid CadastrarAgendamentoDto dto,
+                                                          @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia,
                                                           UriComponentsBuilder uriBuilder) {
-        Agendamento agendamento = agendamentoService.agendar(dto);
-        URI uri = uriBuilder.path("/agendamentos/{id}").buildAndExpand(agendamento.getId()).toUri();
+        if (chaveIdempotencia == null) {
+            RespostaAgendamentoDto dtoResponse = agendarComLink(dto);
+            URI uri = uriBuilder.path("/agendamentos/{id}").buildAndExpand(dtoResponse.getId()).toUri();
+            return ResponseEntity.created(uri).eTag(String.valueOf(dtoResponse.getVersao())).body(dtoResponse);
+        }
+
+        RespostaIdempotente resposta = idempotencia.executar(chaveIdempotencia, dto, () -> agendarComLink(dto), id -> {
+            RespostaAgendamentoDto existente = modelMapper.mapAgendamentoResumoToDto(agendamentoService.buscarResumoPorId(id));
+            existente.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(id)).withSelfRel());
+            return existente;
+        });
+        URI uri = uriBuilder.path("/agendamentos/{id}").buildAndExpand(resposta.getCorpo().getId()).toUri();
+        return ResponseEntity.created(uri)
+                .eTag(String.valueOf(resposta.getCorpo().getVersao()))
+                .header("Idempotent-Replayed", String.valueOf(resposta.isRepetida()))
+                .body(resposta.getCorpo());
+    }
 
-        RespostaAgendamentoDto dtoResponse = modelMapper.mapAgendamentoToDto(agendamento);
+    private RespostaAgendamentoDto agendarComLink(CadastrarAgendamentoDto dto) {
+        AgendamentoRegistrado registrado = agendamentoService.agendar(dto);
+        RespostaAgendamentoDto dtoResponse = modelMapper.mapAgendamentoRegistradoToDto(registrado);
         dtoResponse.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dtoResponse.getId())).withSelfRel());
+        return dtoResponse;
+    }
+
+    @PostMapping("/lote")
+    @Operation(
+            summary = "Criar vários agendamentos",
+            description = "Recebe até 100 agendamentos (ex: consulta e exames do mesmo paciente, ou a lista do dia de um colaborador) " +
+                    "e valida o lote inteiro com poucas consultas ao banco, incluindo conflitos entre os próprios itens. " +
+                    "Por padrão grava os itens válidos e informa o erro de cada item rejeitado; com tudoOuNada=true, " +
+                    "um item rejeitado impede a gravação de todos.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resultado de cada item do lote.", content = @Content(schema = @Schema(implementation = RespostaLoteAgendamentoDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos.")
+            }
+    )
+    public ResponseEntity<RespostaLoteAgendamentoDto> agendarLote(@RequestBody @Valid CadastrarLoteAgendamentoDto dto,
+                                                                  @RequestParam(defaultValue = "false") boolean tudoOuNada) {
+        List<ResultadoItemLote> resultados = agendamentoLoteService.agendarLote(dto.getItens(), tudoOuNada);
+
+        RespostaLoteAgendamentoDto dtoResponse = new RespostaLoteAgendamentoDto();
+        dtoResponse.setCriados((int) resultados.stream().filter(ResultadoItemLote::isCriado).count());
+        dtoResponse.setRejeitados(resultados.size() - dtoResponse.getCriados());
+        dtoResponse.setItens(mapearItensLote(resultados));
+        return ResponseEntity.ok(dtoResponse);
+    }
+
+    @PostMapping("/series")
+    @Operation(
+            summary = "Criar série recorrente",
+            description = "Repete o agendamento informado com a frequência escolhida (DIARIA, SEMANAL, QUINZENAL ou MENSAL), " +
+                    "por uma quantidade de ocorrências ou até uma data final. Todas as ocorrências são validadas de uma vez; " +
+                    "as datas fora da jornada ou em conflito são devolvidas com o motivo e as demais são gravadas.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resultado de cada ocorrência.", content = @Content(schema = @Schema(implementation = RespostaSerieAgendamentoDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos."),
+                    @ApiResponse(responseCode = "409", description = "Quantidade e data final ausentes ou informadas juntas.")
+            }
+    )
+    public ResponseEntity<RespostaSerieAgendamentoDto> agendarSerie(@RequestBody @Valid CadastrarSerieAgendamentoDto dto) {
+        SerieRegistrada serie = agendamentoSerieService.agendarSerie(dto);
+
+        RespostaSerieAgendamentoDto dtoResponse = new RespostaSerieAgendamentoDto();
+        dtoResponse.setCodigoSerie(serie.getCodigoSerie());
+        dtoResponse.setCriados((int) serie.getResultados().stream().filter(ResultadoItemLote::isCriado).count());
+        dtoResponse.setRejeitados(serie.getResultados().size() - dtoResponse.getCriados());
+        dtoResponse.setItens(mapearItensLote(serie.getResultados()));
+        return ResponseEntity.ok(dtoResponse);
+    }
+
+    @DeleteMapping("/series/{codigoSerie}/cancelar/paciente")
+    @Operation(
+            summary = "Cancelar série pelo paciente",
+            description = "Marca como CANCELADO_PACIENTE todas as ocorrências futuras ainda ativas da série.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Quantidade de ocorrências canceladas."),
+                    @ApiResponse(responseCode = "404", description = "Série não encontrada ou sem ocorrências futuras ativas.")
+            }
+    )
+    public ResponseEntity<RespostaCancelamentoSerieDto> cancelarSeriePeloPaciente(@PathVariable String codigoSerie) {
+        int cancelados = agendamentoSerieService.cancelarSerie(codigoSerie, StatusAgendamento.CANCELADO_PACIENTE);
+        return ResponseEntity.ok(new RespostaCancelamentoSerieDto(codigoSerie, cancelados));
+    }
+
+    @DeleteMapping("/series/{codigoSerie}/cancelar/colaborador")
+    @Operation(
+            summary = "Cancelar série pelo colaborador",
+            description = "Marca como CANCELADO_COLABORADOR todas as ocorrências futuras ainda ativas da série.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Quantidade de ocorrências canceladas."),
+                    @ApiResponse(responseCode = "404", description = "Série não encontrada ou sem ocorrências futuras ativas.")
+            }
+    )
+    public ResponseEntity<RespostaCancelamentoSerieDto> cancelarSeriePeloColaborador(@PathVariable String codigoSerie) {
+        int cancelados = agendamentoSerieService.cancelarSerie(codigoSerie, StatusAgendamento.CANCELADO_COLABORADOR);
+        return ResponseEntity.ok(new RespostaCancelamentoSerieDto(codigoSerie, cancelados));
+    }
+
+    @PostMapping("/reservas")
+    @Operation(
+            summary = "Reservar horário temporariamente",
+            description = "Entre o passo 5 e o passo 6: segura o horário escolhido por alguns minutos (medix.agenda.reserva.ttl-segundos) " +
+                    "e devolve um token para confirmar. O horário reservado deixa de aparecer na disponibilidade e agendamentos concorrentes " +
+                    "para ele falham sem ir ao banco. Aceita o mesmo corpo do agendamento.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Horário reservado.", content = @Content(schema = @Schema(implementation = RespostaReservaDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos."),
+                    @ApiResponse(responseCode = "404", description = "Paciente, colaborador, unidade ou sala não encontrado."),
+                    @ApiResponse(responseCode = "409", description = "Horário já agendado ou reservado.")
+            }
+    )
+    public ResponseEntity<RespostaReservaDto> reservar(@RequestBody @Valid CadastrarAgendamentoDto dto, UriComponentsBuilder uriBuilder) {
+        Reserva reserva = agendamentoService.reservar(dto);
+        URI uri = uriBuilder.path("/agendamentos/reservas/{token}").buildAndExpand(reserva.getToken()).toUri();
+
+        RespostaReservaDto dtoResponse = modelMapper.mapReservaToDto(reserva);
+        dtoResponse.add(linkTo(methodOn(AgendamentoController.class).confirmarReserva(reserva.getToken(), null)).withRel("confirmar"));
+        dtoResponse.add(linkTo(methodOn(AgendamentoController.class).cancelarReserva(reserva.getToken())).withRel("cancelar"));
 
         return ResponseEntity.created(uri).body(dtoResponse);
     }
 
+    @PostMapping("/reservas/{token}/confirmar")
+    @Operation(
+            summary = "Passo 6: Confirmar reserva (Finalizar)",
+            description = "Cria o agendamento do horário reservado e libera a reserva.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Agendamento criado.", content = @Content(schema = @Schema(implementation = RespostaAgendamentoDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Reserva não encontrada ou expirada."),
+                    @ApiResponse(responseCode = "409", description = "Conflito de horário/regra de negócio.")
+            }
+    )
+    public ResponseEntity<RespostaAgendamentoDto> confirmarReserva(@PathVariable String token, UriComponentsBuilder uriBuilder) {
+        AgendamentoRegistrado registrado = agendamentoService.confirmarReserva(token);
+        URI uri = uriBuilder.path("/agendamentos/{id}").buildAndExpand(registrado.getAgendamento().getId()).toUri();
+
+        RespostaAgendamentoDto dtoResponse = modelMapper.mapAgendamentoRegistradoToDto(registrado);
+        dtoResponse.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dtoResponse.getId())).withSelfRel());
+
+        return ResponseEntity.created(uri).eTag(String.valueOf(dtoResponse.getVersao())).body(dtoResponse);
+    }
+
+    @DeleteMapping("/reservas/{token}")
+    @Operation(
+            summary = "Cancelar reserva",
+            description = "Libera o horário reservado antes de expirar.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Reserva cancelada."),
+                    @ApiResponse(responseCode = "404", description = "Reserva não encontrada ou expirada.")
+            }
+    )
+    public ResponseEntity<Void> cancelarReserva(@PathVariable String token) {
+        agendamentoService.cancelarReserva(token);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Buscar agendamento por ID",
-            description = "Retorna os detalhes de um agendamento específico.",
+            description = "Retorna os detalhes de um agendamento específico. O ETag traz a versão, para usar no If-Match das mudanças de status.",
             responses = {
                     @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaAgendamentoDto.class))),
                     @ApiResponse(responseCode = "404", description = "Agendamento não encontrado.")
             }
     )
     public ResponseEntity<RespostaAgendamentoDto> buscarPorId(@PathVariable Long id) {
-        RespostaAgendamentoDto dto = modelMapper.mapAgendamentoToDto(agendamentoService.buscarPorId(id));
+        RespostaAgendamentoDto dto = modelMapper.mapAgendamentoResumoToDto(agendamentoService.buscarResumoPorId(id));
         dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(id)).withSelfRel());
         dto.add(linkTo(methodOn(PacienteController.class).buscar(dto.getIdPaciente())).withRel("paciente"));
         dto.add(linkTo(methodOn(ColaboradorController.class).buscar(dto.getIdColaborador())).withRel("colaborador"));
         dto.add(linkTo(methodOn(UnidadeSaudeController.class).buscar(dto.getIdUnidadeSaude())).withRel("unidade_saude"));
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(String.valueOf(dto.getVersao())).body(dto);
     }
 
     @GetMapping("/paciente/{pacienteId}")
     @Operation(
             summary = "Histórico do paciente",
-            description = "Lista todos os agendamentos já realizados e futuros de um paciente.",
-            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaAgendamentoDto.class)))
+            description = "Lista os agendamentos já realizados e futuros de um paciente, em ordem de início. Paginado por cursor: `tamanho` (padrão 20, máximo 100) e o `cursor` do link `next` da página anterior.",
+            responses = {
+                    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaAgendamentoDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
+            }
     )
-    public ResponseEntity<List<RespostaAgendamentoDto>> listarPorPaciente(@PathVariable Long pacienteId) {
-        List<RespostaAgendamentoDto> dtos = agendamentoService.listarPorPaciente(pacienteId).stream().map(modelMapper::mapAgendamentoToDto).toList();
-        dtos.forEach(dto -> dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dto.getId())).withSelfRel()));
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<RespostaPaginaDto<RespostaAgendamentoDto>> listarPorPaciente(@PathVariable Long pacienteId,
+                                                                                       @RequestParam(required = false) String cursor,
+                                                                                       @RequestParam(required = false) Integer tamanho) {
+        Pagina<AgendamentoResumoDto> pagina = agendamentoService.listarPorPaciente(pacienteId, cursor, tamanho);
+        RespostaPaginaDto<RespostaAgendamentoDto> resposta = modelMapper.mapPaginaToDto(pagina, modelMapper::mapAgendamentoResumoToDto);
+        resposta.getItens().forEach(dto -> dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dto.getId())).withSelfRel()));
+        resposta.add(linkTo(methodOn(AgendamentoController.class).listarPorPaciente(pacienteId, cursor, tamanho)).withSelfRel());
+        if (pagina.getProximoCursor() != null) {
+            resposta.add(linkTo(methodOn(AgendamentoController.class).listarPorPaciente(pacienteId, pagina.getProximoCursor(), tamanho)).withRel("next"));
+        }
+        return ResponseEntity.ok(resposta);
     }
 
     @GetMapping("/paciente/{pacienteId}/proxima")
@@ -179,8 +456,8 @@ public class AgendamentoController {
     )
     public ResponseEntity<RespostaAgendamentoDto> buscarProximaConsulta(@PathVariable Long pacienteId) {
         return agendamentoService.buscarProximaConsultaPaciente(pacienteId)
-                .map(agendamento -> {
-                    RespostaAgendamentoDto dto = modelMapper.mapAgendamentoToDto(agendamento);
+                .map(resumo -> {
+                    RespostaAgendamentoDto dto = modelMapper.mapAgendamentoResumoToDto(resumo);
                     dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dto.getId())).withSelfRel());
                     return ResponseEntity.ok(dto);
                 })
@@ -190,60 +467,128 @@ public class AgendamentoController {
     @GetMapping("/colaborador/{colaboradorId}")
     @Operation(
             summary = "Agenda do colaborador",
-            description = "Lista todos os agendamentos, passados e futuros, de um colaborador específico.",
-            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaAgendamentoDto.class)))
+            description = "Lista os agendamentos, passados e futuros, de um colaborador específico, em ordem de início. Paginado por cursor: `tamanho` (padrão 20, máximo 100) e o `cursor` do link `next` da página anterior.",
+            responses = {
+                    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaAgendamentoDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
+            }
     )
-    public ResponseEntity<List<RespostaAgendamentoDto>> listarPorColaborador(@PathVariable Long colaboradorId) {
-        List<RespostaAgendamentoDto> dtos = agendamentoService.listarPorColaborador(colaboradorId).stream().map(modelMapper::mapAgendamentoToDto).toList();
-        dtos.forEach(dto -> dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dto.getId())).withSelfRel()));
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<RespostaPaginaDto<RespostaAgendamentoDto>> listarPorColaborador(@PathVariable Long colaboradorId,
+                                                                                          @RequestParam(required = false) String cursor,
+                                                                                          @RequestParam(required = false) Integer tamanho) {
+        Pagina<AgendamentoResumoDto> pagina = agendamentoService.listarPorColaborador(colaboradorId, cursor, tamanho);
+        RespostaPaginaDto<RespostaAgendamentoDto> resposta = modelMapper.mapPaginaToDto(pagina, modelMapper::mapAgendamentoResumoToDto);
+        resposta.getItens().forEach(dto -> dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dto.getId())).withSelfRel()));
+        resposta.add(linkTo(methodOn(AgendamentoController.class).listarPorColaborador(colaboradorId, cursor, tamanho)).withSelfRel());
+        if (pagina.getProximoCursor() != null) {
+            resposta.add(linkTo(methodOn(AgendamentoController.class).listarPorColaborador(colaboradorId, pagina.getProximoCursor(), tamanho)).withRel("next"));
+        }
+        return ResponseEntity.ok(resposta);
     }
 
     // Operações de modificação de status
     @PatchMapping("/{id}/confirmar")
     @Operation(
             summary = "Confirmar presença",
-            description = "Atualiza o status do agendamento para CONFIRMADO.",
+            description = "Atualiza o status do agendamento para CONFIRMADO. Com If-Match (ETag do agendamento), só altera se a versão ainda for a informada.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Status atualizado.", content = @Content(schema = @Schema(implementation = RespostaAgendamentoDto.class))),
                     @ApiResponse(responseCode = "404", description = "Agendamento não encontrado."),
-                    @ApiResponse(responseCode = "409", description = "Não é possível alterar status já cancelado/finalizado.")
+                    @ApiResponse(responseCode = "409", description = "Não é possível alterar status já cancelado/finalizado."),
+                    @ApiResponse(responseCode = "400", description = "If-Match malformado."),
+                    @ApiResponse(responseCode = "412", description = "O agendamento foi alterado depois da versão informada no If-Match.")
             }
     )
-    public ResponseEntity<RespostaAgendamentoDto> confirmar(@PathVariable Long id) {
-        RespostaAgendamentoDto dto = modelMapper.mapAgendamentoToDto(agendamentoService.atualizarStatus(id, StatusAgendamento.CONFIRMADO));
-        dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(id)).withSelfRel());
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<RespostaAgendamentoDto> confirmar(@PathVariable Long id,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return respostaDeStatus(agendamentoService.atualizarStatus(id, StatusAgendamento.CONFIRMADO, versaoDoIfMatch(ifMatch)));
     }
 
     @DeleteMapping("/{id}/cancelar/paciente")
     @Operation(
             summary = "Cancelar pelo paciente",
-            description = "Marca o agendamento como CANCELADO_PACIENTE, liberando a agenda para outros.",
+            description = "Marca o agendamento como CANCELADO_PACIENTE, liberando a agenda para outros. Aceita If-Match (ETag do agendamento).",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Status CANCELADO_PACIENTE."),
-                    @ApiResponse(responseCode = "404", description = "Agendamento não encontrado.")
+                    @ApiResponse(responseCode = "404", description = "Agendamento não encontrado."),
+                    @ApiResponse(responseCode = "409", description = "Agendamento já finalizado ou cancelado."),
+                    @ApiResponse(responseCode = "400", description = "If-Match malformado."),
+                    @ApiResponse(responseCode = "412", description = "O agendamento foi alterado depois da versão informada no If-Match.")
             }
     )
-    public ResponseEntity<RespostaAgendamentoDto> cancelarPeloPaciente(@PathVariable Long id) {
-        RespostaAgendamentoDto dto = modelMapper.mapAgendamentoToDto(agendamentoService.cancelarPorPaciente(id));
-        dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(id)).withSelfRel());
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<RespostaAgendamentoDto> cancelarPeloPaciente(@PathVariable Long id,
+                                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return respostaDeStatus(agendamentoService.cancelarPorPaciente(id, versaoDoIfMatch(ifMatch)));
     }
 
     @DeleteMapping("/{id}/cancelar/colaborador")
     @Operation(
             summary = "Cancelar pelo colaborador",
-            description = "Marca o agendamento como CANCELADO_COLABORADOR (uso interno), liberando a agenda.",
+            description = "Marca o agendamento como CANCELADO_COLABORADOR (uso interno), liberando a agenda. Aceita If-Match (ETag do agendamento).",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Status CANCELADO_COLABORADOR."),
-                    @ApiResponse(responseCode = "404", description = "Agendamento não encontrado.")
+                    @ApiResponse(responseCode = "404", description = "Agendamento não encontrado."),
+                    @ApiResponse(responseCode = "409", description = "Agendamento já finalizado ou cancelado."),
+                    @ApiResponse(responseCode = "400", description = "If-Match malformado."),
+                    @ApiResponse(responseCode = "412", description = "O agendamento foi alterado depois da versão informada no If-Match.")
             }
     )
-    public ResponseEntity<RespostaAgendamentoDto> cancelarPeloColaborador(@PathVariable Long id) {
-        RespostaAgendamentoDto dto = modelMapper.mapAgendamentoToDto(agendamentoService.cancelarPorColaborador(id));
-        dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(id)).withSelfRel());
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<RespostaAgendamentoDto> cancelarPeloColaborador(@PathVariable Long id,
+                                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return respostaDeStatus(agendamentoService.cancelarPorColaborador(id, versaoDoIfMatch(ifMatch)));
+    }
+
+    private ResponseEntity<RespostaAgendamentoDto> respostaDeStatus(Agendamento agendamento) {
+        RespostaAgendamentoDto dto = modelMapper.mapAgendamentoToDto(agendamento);
+        dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dto.getId())).withSelfRel());
+        return ResponseEntity.ok().eTag(String.valueOf(dto.getVersao())).body(dto);
+    }
+
+    // If-Match: *, "3" ou uma lista ("3", "4"); sem cabeçalho (ou *) a mudança não confere a versão.
+    // A comparação é forte: uma ETag fraca (W/"3") nunca coincide, então um If-Match só com ETags fracas resulta em 412
+    private static Set<Long> versaoDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versoes = new HashSet<>();
+        int etags = 0;
+        int i = 0;
+        while (i < ifMatch.length()) {
+            char c = ifMatch.charAt(i);
+            if (c == ' ' || c == '\t' || c == ',') {
+                i++;
+                continue;
+            }
+            boolean fraca = ifMatch.startsWith("W/", i);
+            int abre = fraca ? i + 2 : i;
+            int fecha = abre < ifMatch.length() && ifMatch.charAt(abre) == '"' ? ifMatch.indexOf('"', abre + 1) : -1;
+            if (fecha < 0) {
+                throw new RequisicaoInvalidaException("If-Match inválido: use o ETag retornado pelo agendamento.");
+            }
+            if (!fraca) {
+                try {
+                    versoes.add(Long.valueOf(ifMatch.substring(abre + 1, fecha)));
+                } catch (NumberFormatException e) {
+                    throw new RequisicaoInvalidaException("If-Match inválido: use o ETag retornado pelo agendamento.");
+                }
+            }
+            etags++;
+            i = fecha + 1;
+        }
+        if (etags == 0) {
+            throw new RequisicaoInvalidaException("If-Match inválido: use o ETag retornado pelo agendamento.");
+        }
+        return versoes;
     }
 
-}
\ No newline at end of file
+    // Itens do lote ou da série, com link para os agendamentos criados
+    private List<RespostaItemLoteDto> mapearItensLote(List<ResultadoItemLote> resultados) {
+        return resultados.stream().map(resultado -> {
+            RespostaItemLoteDto item = modelMapper.mapResultadoItemLoteToDto(resultado);
+            if (resultado.isCriado()) {
+                item.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(item.getIdAgendamento())).withSelfRel());
+            }
+            return item;
+        }).toList();
+    }
+}
@@ -2,7 +2,10 @@ package br.com.fiap.medix_api.controller;
 
 import br.com.fiap.medix_api.dto.request.AtualizarAvaliacaoDto;
 import br.com.fiap.medix_api.dto.request.CadastrarAvaliacaoDto;
+import br.com.fiap.medix_api.dto.response.RespostaPaginaDto;
 import br.com.fiap.medix_api.model.Avaliacao;
+import br.com.fiap.medix_api.service.ModelMapper;
+import br.com.fiap.medix_api.service.Pagina;
 import br.com.fiap.medix_api.service.AvaliacaoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,7 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
+import java.util.function.Function;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -31,6 +34,7 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class AvaliacaoController {
 
     private final AvaliacaoService avaliacaoService;
+    private final ModelMapper modelMapper;
 
     // Registrar nova avaliação (uso: IoT/Totem)
     @Operation(
@@ -67,7 +71,7 @@ public class AvaliacaoController {
     // Listar avaliações
     @Operation(
             summary = "Listar avaliações",
-            description = "Retorna todas as avaliações registradas. É possível filtrar por status (ativo ou deletado).",
+            description = "Retorna as avaliações registradas. É possível filtrar por status (ativo ou deletado). Paginado por cursor: `tamanho` (padrão 20, máximo 100) e o `cursor` do link `next` da página anterior.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -76,14 +80,22 @@ public class AvaliacaoController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = Avaliacao.class)
                             )
-                    )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
             }
     )
     @GetMapping
-    public ResponseEntity<List<Avaliacao>> listar(@RequestParam(required = false) String status) {
-        List<Avaliacao> avaliacoes = avaliacaoService.listar(status);
-        avaliacoes.forEach(av -> av.add(linkTo(methodOn(AvaliacaoController.class).buscar(av.getId())).withSelfRel()));
-        return ResponseEntity.ok(avaliacoes);
+    public ResponseEntity<RespostaPaginaDto<Avaliacao>> listar(@RequestParam(required = false) String status,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer tamanho) {
+        Pagina<Avaliacao> pagina = avaliacaoService.listar(status, cursor, tamanho);
+        RespostaPaginaDto<Avaliacao> resposta = modelMapper.mapPaginaToDto(pagina, Function.identity());
+        resposta.getItens().forEach(av -> av.add(linkTo(methodOn(AvaliacaoController.class).buscar(av.getId())).withSelfRel()));
+        resposta.add(linkTo(methodOn(AvaliacaoController.class).listar(status, cursor, tamanho)).withSelfRel());
+        if (pagina.getProximoCursor() != null) {
+            resposta.add(linkTo(methodOn(AvaliacaoController.class).listar(status, pagina.getProximoCursor(), tamanho)).withRel("next"));
+        }
+        return ResponseEntity.ok(resposta);
     }
 
     // Buscar avaliação por ID
@@ -111,7 +123,7 @@ public class AvaliacaoController {
         Avaliacao avaliacao = avaliacaoService.buscarPorId(id);
         avaliacao.add(linkTo(methodOn(AvaliacaoController.class).buscar(id)).withSelfRel());
         avaliacao.add(linkTo(methodOn(AvaliacaoController.class).excluir(id)).withRel("excluir"));
-        avaliacao.add(linkTo(methodOn(AvaliacaoController.class).listar(null)).withRel("todas"));
+        avaliacao.add(linkTo(methodOn(AvaliacaoController.class).listar(null, null, null)).withRel("todas"));
         return ResponseEntity.ok(avaliacao);
     }
 
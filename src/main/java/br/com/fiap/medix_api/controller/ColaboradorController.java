@@ -4,11 +4,13 @@ import br.com.fiap.medix_api.dto.request.AtualizarColaboradorDto;
 import br.com.fiap.medix_api.dto.request.CadastrarColaboradorDto;
 import br.com.fiap.medix_api.dto.request.CadastrarPacienteDto;
 import br.com.fiap.medix_api.dto.response.RespostaColaboradorDto;
+import br.com.fiap.medix_api.dto.response.RespostaPaginaDto;
 import br.com.fiap.medix_api.dto.response.RespostaPacienteDto;
 import br.com.fiap.medix_api.model.Colaborador;
 import br.com.fiap.medix_api.model.Paciente;
 import br.com.fiap.medix_api.service.ColaboradorService;
 import br.com.fiap.medix_api.service.ModelMapper;
+import br.com.fiap.medix_api.service.Pagina;
 import br.com.fiap.medix_api.service.PacienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -23,8 +25,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -67,19 +67,26 @@ public class ColaboradorController {
     // Listar colaboradores
     @Operation(
             summary = "Listar colaboradores",
-            description = "Retorna uma lista de colaboradores ativos. Use `?status=deletado` para listar inativos.",
-            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaColaboradorDto.class)))
+            description = "Retorna os colaboradores ativos. Use `?status=deletado` para listar inativos. Paginado por cursor: `tamanho` (padrão 20, máximo 100) e o `cursor` do link `next` da página anterior.",
+            responses = {
+                    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaColaboradorDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
+            }
     )
     @GetMapping
-    public ResponseEntity<List<RespostaColaboradorDto>> listar(@RequestParam(required = false) String status) {
-        List<Colaborador> colaboradores = colaboradorService.listar(status);
-        List<RespostaColaboradorDto> responseDtos = colaboradores.stream()
-                .map(modelMapper::mapColaboradorToDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<RespostaPaginaDto<RespostaColaboradorDto>> listar(@RequestParam(required = false) String status,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer tamanho) {
+        Pagina<Colaborador> pagina = colaboradorService.listar(status, cursor, tamanho);
+        RespostaPaginaDto<RespostaColaboradorDto> responseDto = modelMapper.mapPaginaToDto(pagina, modelMapper::mapColaboradorToDto);
 
-        responseDtos.forEach(dto -> dto.add(linkTo(methodOn(ColaboradorController.class).buscar(dto.getId())).withSelfRel()));
+        responseDto.getItens().forEach(dto -> dto.add(linkTo(methodOn(ColaboradorController.class).buscar(dto.getId())).withSelfRel()));
+        responseDto.add(linkTo(methodOn(ColaboradorController.class).listar(status, cursor, tamanho)).withSelfRel());
+        if (pagina.getProximoCursor() != null) {
+            responseDto.add(linkTo(methodOn(ColaboradorController.class).listar(status, pagina.getProximoCursor(), tamanho)).withRel("next"));
+        }
 
-        return ResponseEntity.ok(responseDtos);
+        return ResponseEntity.ok(responseDto);
     }
 
     // Buscar colaborador por ID
@@ -0,0 +1,39 @@
+package br.com.fiap.medix_api.controller;
+
+import br.com.fiap.medix_api.config.RoteamentoDataSource;
+import br.com.fiap.medix_api.dto.response.RespostaConexoesDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("/conexoes")
+@RequiredArgsConstructor
+@Tag(name = "Conexões", description = "Pools de conexão do banco primário e da réplica de leitura.")
+public class ConexaoController {
+
+    private final RoteamentoDataSource roteamentoDataSource;
+
+    // Estatísticas dos pools por rota
+    @GetMapping
+    @Operation(
+            summary = "Estatísticas dos pools de conexão",
+            description = "Retorna, para o primário e a réplica, as conexões ativas, ociosas e em espera e quantas conexões foram roteadas para cada um. Apenas para Colaboradores.",
+            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaConexoesDto.class)))
+    )
+    public ResponseEntity<RespostaConexoesDto> estatisticas() {
+        RespostaConexoesDto dto = roteamentoDataSource.estatisticas();
+        dto.add(linkTo(methodOn(ConexaoController.class).estatisticas()).withSelfRel());
+        return ResponseEntity.ok(dto);
+    }
+}
@@ -0,0 +1,161 @@
+package br.com.fiap.medix_api.controller;
+
+import br.com.fiap.medix_api.dto.request.CadastrarExcecaoJornadaDto;
+import br.com.fiap.medix_api.dto.request.CadastrarJornadaDto;
+import br.com.fiap.medix_api.dto.response.RespostaExcecaoJornadaDto;
+import br.com.fiap.medix_api.dto.response.RespostaJornadaDto;
+import br.com.fiap.medix_api.dto.response.RespostaPaginaDto;
+import br.com.fiap.medix_api.model.ExcecaoJornada;
+import br.com.fiap.medix_api.model.JornadaTrabalho;
+import br.com.fiap.medix_api.service.JornadaService;
+import br.com.fiap.medix_api.service.ModelMapper;
+import br.com.fiap.medix_api.service.Pagina;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("/jornadas")
+@RequiredArgsConstructor
+@Tag(name = "Jornadas", description = "Jornadas de trabalho semanais e exceções (férias, feriados, bloqueios) usadas na disponibilidade.")
+public class JornadaController {
+
+    private final JornadaService jornadaService;
+    private final ModelMapper modelMapper;
+
+    // Cadastrar faixa de jornada
+    @PostMapping
+    @Operation(
+            summary = "Cadastrar faixa de jornada",
+            description = "Adiciona uma faixa de trabalho em um dia da semana, para um colaborador ou como padrão de uma unidade. " +
+                    "Um colaborador com faixas próprias usa somente elas; sem faixas, vale o padrão da unidade e, depois, o padrão da configuração.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Faixa cadastrada com sucesso.", content = @Content(schema = @Schema(implementation = RespostaJornadaDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos enviados na requisição."),
+                    @ApiResponse(responseCode = "404", description = "Colaborador ou Unidade de Saúde não encontrado."),
+                    @ApiResponse(responseCode = "409", description = "Horários inválidos ou sem colaborador/unidade.")
+            }
+    )
+    public ResponseEntity<RespostaJornadaDto> criar(@RequestBody @Valid CadastrarJornadaDto dto, UriComponentsBuilder uriBuilder) {
+        JornadaTrabalho jornada = jornadaService.criarJornada(dto);
+        URI uri = uriBuilder.path("/jornadas/{id}").buildAndExpand(jornada.getId()).toUri();
+
+        RespostaJornadaDto dtoResponse = modelMapper.mapJornadaToDto(jornada);
+        dtoResponse.add(linkTo(methodOn(JornadaController.class).listar(dtoResponse.getIdColaborador(), dtoResponse.getIdUnidadeSaude())).withRel("jornada_completa"));
+        dtoResponse.add(linkTo(methodOn(JornadaController.class).excluir(dtoResponse.getId())).withRel("excluir"));
+
+        return ResponseEntity.created(uri).body(dtoResponse);
+    }
+
+    // Listar faixas de jornada
+    @GetMapping
+    @Operation(
+            summary = "Listar jornada",
+            description = "Retorna as faixas semanais de um colaborador (idColaborador) ou o padrão de uma unidade (idUnidadeSaude).",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Faixas retornadas com sucesso.", content = @Content(schema = @Schema(implementation = RespostaJornadaDto.class))),
+                    @ApiResponse(responseCode = "409", description = "Nenhum filtro informado.")
+            }
+    )
+    public ResponseEntity<List<RespostaJornadaDto>> listar(@RequestParam(required = false) Long idColaborador,
+                                                           @RequestParam(required = false) Long idUnidadeSaude) {
+        List<RespostaJornadaDto> dtos = jornadaService.listarJornadas(idColaborador, idUnidadeSaude).stream()
+                .map(modelMapper::mapJornadaToDto)
+                .toList();
+
+        dtos.forEach(dto -> dto.add(linkTo(methodOn(JornadaController.class).excluir(dto.getId())).withRel("excluir")));
+
+        return ResponseEntity.ok(dtos);
+    }
+
+    // Excluir faixa de jornada
+    @DeleteMapping("/{id}")
+    @Operation(
+            summary = "Excluir faixa de jornada",
+            description = "Remove a faixa. A disponibilidade passa a refletir a alteração imediatamente.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Faixa excluída com sucesso."),
+                    @ApiResponse(responseCode = "404", description = "Faixa não encontrada.")
+            }
+    )
+    public ResponseEntity<Void> excluir(@PathVariable Long id) {
+        jornadaService.excluirJornada(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Cadastrar exceção
+    @PostMapping("/excecoes")
+    @Operation(
+            summary = "Cadastrar exceção de jornada",
+            description = "Bloqueia um período (férias, feriado, manutenção) para um colaborador, uma unidade ou, sem nenhum dos dois, para todas as unidades. " +
+                    "Sem horários, o bloqueio vale para os dias inteiros.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Exceção cadastrada com sucesso.", content = @Content(schema = @Schema(implementation = RespostaExcecaoJornadaDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos enviados na requisição."),
+                    @ApiResponse(responseCode = "404", description = "Colaborador ou Unidade de Saúde não encontrado."),
+                    @ApiResponse(responseCode = "409", description = "Período ou horários inválidos.")
+            }
+    )
+    public ResponseEntity<RespostaExcecaoJornadaDto> criarExcecao(@RequestBody @Valid CadastrarExcecaoJornadaDto dto, UriComponentsBuilder uriBuilder) {
+        ExcecaoJornada excecao = jornadaService.criarExcecao(dto);
+        URI uri = uriBuilder.path("/jornadas/excecoes/{id}").buildAndExpand(excecao.getId()).toUri();
+
+        RespostaExcecaoJornadaDto dtoResponse = modelMapper.mapExcecaoJornadaToDto(excecao);
+        dtoResponse.add(linkTo(methodOn(JornadaController.class).listarExcecoes(null, null)).withRel("excecoes"));
+        dtoResponse.add(linkTo(methodOn(JornadaController.class).excluirExcecao(dtoResponse.getId())).withRel("excluir"));
+
+        return ResponseEntity.created(uri).body(dtoResponse);
+    }
+
+    // Listar exceções vigentes
+    @GetMapping("/excecoes")
+    @Operation(
+            summary = "Listar exceções de jornada",
+            description = "Retorna as exceções que ainda não terminaram, em ordem de cadastro. Paginado por cursor: `tamanho` (padrão 20, máximo 100) e o `cursor` do link `next` da página anterior.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Exceções retornadas com sucesso.", content = @Content(schema = @Schema(implementation = RespostaExcecaoJornadaDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
+            }
+    )
+    public ResponseEntity<RespostaPaginaDto<RespostaExcecaoJornadaDto>> listarExcecoes(@RequestParam(required = false) String cursor,
+                                                                                        @RequestParam(required = false) Integer tamanho) {
+        Pagina<ExcecaoJornada> pagina = jornadaService.listarExcecoes(cursor, tamanho);
+        RespostaPaginaDto<RespostaExcecaoJornadaDto> responseDto = modelMapper.mapPaginaToDto(pagina, modelMapper::mapExcecaoJornadaToDto);
+
+        responseDto.getItens().forEach(dto -> dto.add(linkTo(methodOn(JornadaController.class).excluirExcecao(dto.getId())).withRel("excluir")));
+        responseDto.add(linkTo(methodOn(JornadaController.class).listarExcecoes(cursor, tamanho)).withSelfRel());
+        if (pagina.getProximoCursor() != null) {
+            responseDto.add(linkTo(methodOn(JornadaController.class).listarExcecoes(pagina.getProximoCursor(), tamanho)).withRel("next"));
+        }
+
+        return ResponseEntity.ok(responseDto);
+    }
+
+    // Excluir exceção
+    @DeleteMapping("/excecoes/{id}")
+    @Operation(
+            summary = "Excluir exceção de jornada",
+            description = "Remove a exceção, liberando novamente o período.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Exceção excluída com sucesso."),
+                    @ApiResponse(responseCode = "404", description = "Exceção não encontrada.")
+            }
+    )
+    public ResponseEntity<Void> excluirExcecao(@PathVariable Long id) {
+        jornadaService.excluirExcecao(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.fiap.medix_api.controller;
+
+import br.com.fiap.medix_api.dto.request.CadastrarInscricaoEsperaDto;
+import br.com.fiap.medix_api.dto.response.RespostaInscricaoEsperaDto;
+import br.com.fiap.medix_api.dto.response.RespostaPaginaDto;
+import br.com.fiap.medix_api.enums.StatusListaEspera;
+import br.com.fiap.medix_api.model.InscricaoEspera;
+import br.com.fiap.medix_api.service.ListaEsperaService;
+import br.com.fiap.medix_api.service.ModelMapper;
+import br.com.fiap.medix_api.service.Pagina;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("/lista-espera")
+@RequiredArgsConstructor
+@Tag(name = "Lista de Espera", description = "Inscrição de pacientes para receber vagas liberadas por cancelamentos.")
+public class ListaEsperaController {
+
+    private final ListaEsperaService listaEsperaService;
+    private final ModelMapper modelMapper;
+
+    @PostMapping
+    @Operation(
+            summary = "Entrar na lista de espera",
+            description = "Registra o interesse do paciente por uma vaga da especialidade (em uma unidade ou em qualquer uma) no período. " +
+                    "Quando um cancelamento libera um horário compatível, a vaga vai para o primeiro inscrito: é agendada direto " +
+                    "(agendamentoAutomatico) ou reservada para o paciente confirmar, sem precisar consultar a disponibilidade.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Inscrição criada.", content = @Content(schema = @Schema(implementation = RespostaInscricaoEsperaDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos enviados na requisição."),
+                    @ApiResponse(responseCode = "404", description = "Paciente, especialidade ou unidade não encontrado."),
+                    @ApiResponse(responseCode = "409", description = "Período inválido ou paciente já inscrito na especialidade.")
+            }
+    )
+    public ResponseEntity<RespostaInscricaoEsperaDto> inscrever(@RequestBody @Valid CadastrarInscricaoEsperaDto dto, UriComponentsBuilder uriBuilder) {
+        InscricaoEspera inscricao = listaEsperaService.inscrever(dto);
+        URI uri = uriBuilder.path("/lista-espera/{id}").buildAndExpand(inscricao.getId()).toUri();
+        return ResponseEntity.created(uri).body(comLinks(modelMapper.mapInscricaoEsperaToDto(inscricao)));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Buscar inscrição",
+            description = "Retorna a inscrição e, quando houver, a vaga ofertada (token da reserva) ou o agendamento criado.",
+            responses = {
+                    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaInscricaoEsperaDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Inscrição não encontrada.")
+            }
+    )
+    public ResponseEntity<RespostaInscricaoEsperaDto> buscarPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(comLinks(modelMapper.mapInscricaoEsperaToDto(listaEsperaService.buscarPorId(id))));
+    }
+
+    @GetMapping("/paciente/{idPaciente}")
+    @Operation(
+            summary = "Listar inscrições do paciente",
+            description = "Retorna as inscrições do paciente, de todos os status, em ordem de cadastro. Paginado por cursor: `tamanho` (padrão 20, máximo 100) e o `cursor` do link `next` da página anterior.",
+            responses = {
+                    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaInscricaoEsperaDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
+            }
+    )
+    public ResponseEntity<RespostaPaginaDto<RespostaInscricaoEsperaDto>> listarPorPaciente(@PathVariable Long idPaciente,
+                                                                                           @RequestParam(required = false) String cursor,
+                                                                                           @RequestParam(required = false) Integer tamanho) {
+        Pagina<InscricaoEspera> pagina = listaEsperaService.listarPorPaciente(idPaciente, cursor, tamanho);
+        RespostaPaginaDto<RespostaInscricaoEsperaDto> resposta = modelMapper.mapPaginaToDto(pagina, modelMapper::mapInscricaoEsperaToDto);
+        resposta.getItens().forEach(this::comLinks);
+        resposta.add(linkTo(methodOn(ListaEsperaController.class).listarPorPaciente(idPaciente, cursor, tamanho)).withSelfRel());
+        if (pagina.getProximoCursor() != null) {
+            resposta.add(linkTo(methodOn(ListaEsperaController.class).listarPorPaciente(idPaciente, pagina.getProximoCursor(), tamanho)).withRel("next"));
+        }
+        return ResponseEntity.ok(resposta);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(
+            summary = "Sair da lista de espera",
+            description = "Cancela a inscrição. Uma vaga ofertada e ainda não confirmada passa para o próximo da fila.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Inscrição cancelada."),
+                    @ApiResponse(responseCode = "404", description = "Inscrição não encontrada."),
+                    @ApiResponse(responseCode = "409", description = "A inscrição não está mais ativa.")
+            }
+    )
+    public ResponseEntity<RespostaInscricaoEsperaDto> cancelar(@PathVariable Long id) {
+        return ResponseEntity.ok(comLinks(modelMapper.mapInscricaoEsperaToDto(listaEsperaService.cancelar(id))));
+    }
+
+    private RespostaInscricaoEsperaDto comLinks(RespostaInscricaoEsperaDto dto) {
+        dto.add(linkTo(methodOn(ListaEsperaController.class).buscarPorId(dto.getId())).withSelfRel());
+        if (dto.getStatus() == StatusListaEspera.OFERTADO) {
+            dto.add(linkTo(methodOn(AgendamentoController.class).confirmarReserva(dto.getTokenReserva(), null)).withRel("confirmar"));
+        }
+        if (dto.getStatus() == StatusListaEspera.AGUARDANDO || dto.getStatus() == StatusListaEspera.OFERTADO) {
+            dto.add(linkTo(methodOn(ListaEsperaController.class).cancelar(dto.getId())).withRel("cancelar"));
+        }
+        if (dto.getIdAgendamento() != null) {
+            dto.add(linkTo(methodOn(AgendamentoController.class).buscarPorId(dto.getIdAgendamento())).withRel("agendamento"));
+        }
+        return dto;
+    }
+}
@@ -2,8 +2,10 @@ package br.com.fiap.medix_api.controller;
 
 import br.com.fiap.medix_api.dto.request.AtualizarPacienteDto;
 import br.com.fiap.medix_api.dto.response.RespostaPacienteDto;
+import br.com.fiap.medix_api.dto.response.RespostaPaginaDto;
 import br.com.fiap.medix_api.model.Paciente;
 import br.com.fiap.medix_api.service.ModelMapper;
+import br.com.fiap.medix_api.service.Pagina;
 import br.com.fiap.medix_api.service.PacienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,8 +17,6 @@ import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -36,19 +36,26 @@ public class PacienteController {
     // Listar pacientes
     @Operation(
             summary = "Listar pacientes",
-            description = "Retorna todos os pacientes ativos. Use `?status=deletado` para listar inativos.",
-            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaPacienteDto.class)))
+            description = "Retorna os pacientes ativos. Use `?status=deletado` para listar inativos. Paginado por cursor: `tamanho` (padrão 20, máximo 100) e o `cursor` do link `next` da página anterior.",
+            responses = {
+                    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = RespostaPacienteDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
+            }
     )
     @GetMapping
-    public ResponseEntity<List<RespostaPacienteDto>> listar(@RequestParam(required = false) String status) {
-        List<Paciente> pacientes = pacienteService.listar(status);
-        List<RespostaPacienteDto> responseDtos = pacientes.stream()
-                .map(modelMapper::mapPacienteToDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<RespostaPaginaDto<RespostaPacienteDto>> listar(@RequestParam(required = false) String status,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer tamanho) {
+        Pagina<Paciente> pagina = pacienteService.listar(status, cursor, tamanho);
+        RespostaPaginaDto<RespostaPacienteDto> responseDto = modelMapper.mapPaginaToDto(pagina, modelMapper::mapPacienteToDto);
 
-        responseDtos.forEach(dto -> dto.add(linkTo(methodOn(PacienteController.class).buscar(dto.getId())).withSelfRel()));
+        responseDto.getItens().forEach(dto -> dto.add(linkTo(methodOn(PacienteController.class).buscar(dto.getId())).withSelfRel()));
+        responseDto.add(linkTo(methodOn(PacienteController.class).listar(status, cursor, tamanho)).withSelfRel());
+        if (pagina.getProximoCursor() != null) {
+            responseDto.add(linkTo(methodOn(PacienteController.class).listar(status, pagina.getProximoCursor(), tamanho)).withRel("next"));
+        }
 
-        return ResponseEntity.ok(responseDtos);
+        return ResponseEntity.ok(responseDto);
     }
 
     // Buscar paciente por ID
@@ -68,7 +75,7 @@ public class PacienteController {
         responseDto.add(linkTo(methodOn(PacienteController.class).buscar(id)).withSelfRel());
         responseDto.add(linkTo(methodOn(PacienteController.class).atualizar(id, null)).withRel("atualizar"));
         responseDto.add(linkTo(methodOn(PacienteController.class).excluir(id)).withRel("excluir"));
-        responseDto.add(linkTo(methodOn(PacienteController.class).listar(null)).withRel("todos"));
+        responseDto.add(linkTo(methodOn(PacienteController.class).listar(null, null, null)).withRel("todos"));
 
         return ResponseEntity.ok(responseDto);
     }
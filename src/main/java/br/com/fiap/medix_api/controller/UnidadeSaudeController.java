@@ -2,7 +2,10 @@ package br.com.fiap.medix_api.controller;
 
 import br.com.fiap.medix_api.dto.request.AtualizarUnidadeSaudeDto;
 import br.com.fiap.medix_api.dto.request.CadastrarUnidadeSaudeDto;
+import br.com.fiap.medix_api.dto.response.RespostaPaginaDto;
 import br.com.fiap.medix_api.model.UnidadeSaude;
+import br.com.fiap.medix_api.service.ModelMapper;
+import br.com.fiap.medix_api.service.Pagina;
 import br.com.fiap.medix_api.service.UnidadeSaudeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,7 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
+import java.util.function.Function;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -31,6 +34,7 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class UnidadeSaudeController {
 
     private final UnidadeSaudeService unidadeSaudeService;
+    private final ModelMapper modelMapper;
 
     // Cadastrar unidade de saúde
     @Operation(
@@ -71,7 +75,7 @@ public class UnidadeSaudeController {
     // Listar unidades de saúde
     @Operation(
             summary = "Listar unidades de saúde",
-            description = "Retorna todas as unidades de saúde ativas. Use `?status=deletado` para listar inativas.",
+            description = "Retorna as unidades de saúde ativas. Use `?status=deletado` para listar inativas. Paginado por cursor: `tamanho` (padrão 20, máximo 100) e o `cursor` do link `next` da página anterior.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -80,14 +84,22 @@ public class UnidadeSaudeController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = UnidadeSaude.class)
                             )
-                    )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
             }
     )
     @GetMapping
-    public ResponseEntity<List<UnidadeSaude>> listar(@RequestParam(required = false) String status) {
-        List<UnidadeSaude> unidades = unidadeSaudeService.listar(status);
-        unidades.forEach(u -> u.add(linkTo(methodOn(UnidadeSaudeController.class).buscar(u.getId())).withSelfRel()));
-        return ResponseEntity.ok(unidades);
+    public ResponseEntity<RespostaPaginaDto<UnidadeSaude>> listar(@RequestParam(required = false) String status,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer tamanho) {
+        Pagina<UnidadeSaude> pagina = unidadeSaudeService.listar(status, cursor, tamanho);
+        RespostaPaginaDto<UnidadeSaude> resposta = modelMapper.mapPaginaToDto(pagina, Function.identity());
+        resposta.getItens().forEach(u -> u.add(linkTo(methodOn(UnidadeSaudeController.class).buscar(u.getId())).withSelfRel()));
+        resposta.add(linkTo(methodOn(UnidadeSaudeController.class).listar(status, cursor, tamanho)).withSelfRel());
+        if (pagina.getProximoCursor() != null) {
+            resposta.add(linkTo(methodOn(UnidadeSaudeController.class).listar(status, pagina.getProximoCursor(), tamanho)).withRel("next"));
+        }
+        return ResponseEntity.ok(resposta);
     }
 
     // Buscar unidade de saúde por ID
@@ -116,7 +128,7 @@ public class UnidadeSaudeController {
         unidade.add(linkTo(methodOn(UnidadeSaudeController.class).buscar(id)).withSelfRel());
         unidade.add(linkTo(methodOn(UnidadeSaudeController.class).atualizar(id, null)).withRel("atualizar"));
         unidade.add(linkTo(methodOn(UnidadeSaudeController.class).excluir(id)).withRel("excluir"));
-        unidade.add(linkTo(methodOn(UnidadeSaudeController.class).listar(null)).withRel("todas"));
+        unidade.add(linkTo(methodOn(UnidadeSaudeController.class).listar(null, null, null)).withRel("todas"));
         unidade.add(linkTo(methodOn(SalaController.class).listarPorUnidade(id)).withRel("salas"));
         return ResponseEntity.ok(unidade);
     }
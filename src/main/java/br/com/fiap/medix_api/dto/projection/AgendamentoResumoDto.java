@@ -0,0 +1,30 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Leitura de um agendamento com os nomes dos relacionamentos: exatamente as colunas da resposta, sem carregar entidades
+@Data
+@AllArgsConstructor
+public class AgendamentoResumoDto {
+    private Long id;
+    private Long versao;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+    private TipoAgendamento tipo;
+    private StatusAgendamento status;
+    private String observacoes;
+    private String codigoSerie;
+    private Long idPaciente;
+    private String nomePaciente;
+    private Long idColaborador;
+    private String nomeColaborador;
+    private Long idUnidadeSaude;
+    private String nomeUnidadeSaude;
+    private Long idSala;
+    private String nomeSala;
+}
@@ -0,0 +1,13 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Onde a agenda de um colaborador é oferecida (unidade e especialidade)
+@Data
+@AllArgsConstructor
+public class ColaboradorAgendaDto {
+    private Long idColaborador;
+    private Long idUnidadeSaude;
+    private Long idEspecialidade;
+}
@@ -0,0 +1,16 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Um horário livre encontrado pela busca do próximo horário: onde, com quem e quando
+@Data
+@AllArgsConstructor
+public class HorarioLivreDto {
+    private Long idUnidadeSaude;
+    private Long idColaborador;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+}
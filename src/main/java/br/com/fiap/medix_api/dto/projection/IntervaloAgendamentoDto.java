@@ -0,0 +1,21 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Projeção mínima de um agendamento: apenas o necessário para calcular ocupação de agenda
+@Data
+@AllArgsConstructor
+public class IntervaloAgendamentoDto implements IntervaloOcupado {
+    private Long idAgendamento;
+    private Long idColaborador;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+
+    @Override
+    public Long getIdRecurso() {
+        return idColaborador;
+    }
+}
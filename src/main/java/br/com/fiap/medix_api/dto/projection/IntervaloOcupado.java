@@ -0,0 +1,15 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import java.time.LocalDateTime;
+
+// Intervalo de agenda ocupado por um recurso (colaborador ou sala); idAgendamento nulo = recurso sem agendamentos
+public interface IntervaloOcupado {
+
+    Long getIdAgendamento();
+
+    Long getIdRecurso();
+
+    LocalDateTime getDataHoraInicio();
+
+    LocalDateTime getDataHoraFim();
+}
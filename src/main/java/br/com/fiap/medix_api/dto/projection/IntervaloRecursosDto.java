@@ -0,0 +1,18 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Agendamento com todos os recursos que ele ocupa (sala pode ser nula)
+@Data
+@AllArgsConstructor
+public class IntervaloRecursosDto {
+    private Long idAgendamento;
+    private Long idColaborador;
+    private Long idPaciente;
+    private Long idSala;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+}
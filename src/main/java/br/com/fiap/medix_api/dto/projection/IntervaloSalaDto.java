@@ -0,0 +1,21 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Projeção mínima de um agendamento do ponto de vista da sala que ele ocupa
+@Data
+@AllArgsConstructor
+public class IntervaloSalaDto implements IntervaloOcupado {
+    private Long idAgendamento;
+    private Long idSala;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+
+    @Override
+    public Long getIdRecurso() {
+        return idSala;
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Ocorrência cancelada com a série, com o necessário para liberar a agenda após o cancelamento em massa
+@Data
+@AllArgsConstructor
+public class OcorrenciaSerieDto {
+    private Long idAgendamento;
+    private Long idColaborador;
+    private Long idUnidadeSaudeColaborador;
+    private Long idEspecialidade;
+    private Long idUnidadeSaude;
+    private Long idSala;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+}
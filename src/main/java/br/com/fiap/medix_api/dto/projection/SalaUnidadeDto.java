@@ -0,0 +1,12 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Sala e a unidade a que pertence
+@Data
+@AllArgsConstructor
+public class SalaUnidadeDto {
+    private Long idSala;
+    private Long idUnidadeSaude;
+}
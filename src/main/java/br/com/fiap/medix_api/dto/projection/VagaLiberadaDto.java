@@ -0,0 +1,17 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Horário liberado por um cancelamento: onde, com quem e quando, e a especialidade do colaborador
+@Data
+@AllArgsConstructor
+public class VagaLiberadaDto {
+    private Long idColaborador;
+    private Long idUnidadeSaude;
+    private Long idEspecialidade;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+}
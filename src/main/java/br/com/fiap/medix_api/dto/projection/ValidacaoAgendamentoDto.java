@@ -0,0 +1,24 @@
+package br.com.fiap.medix_api.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Tudo o que o agendamento precisa verificar antes do INSERT, lido em uma única consulta:
+ * existência dos registros (nome nulo = não encontrado/inativo), os dados do colaborador e da sala
+ * usados nas regras e a quantidade de agendamentos ativos que se sobrepõem ao intervalo.
+ */
+@Data
+@AllArgsConstructor
+public class ValidacaoAgendamentoDto {
+    private String nomePaciente;
+    private String nomeColaborador;
+    private Long idUnidadeSaudeColaborador;
+    private Long idEspecialidadeColaborador;
+    private String nomeUnidadeSaude;
+    private String nomeSala;
+    private Long idUnidadeSaudeSala;
+    private Long conflitosColaborador;
+    private Long conflitosPaciente;
+    private Long conflitosSala;
+}
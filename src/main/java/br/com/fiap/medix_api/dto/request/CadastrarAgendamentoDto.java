@@ -1,6 +1,8 @@
 package br.com.fiap.medix_api.dto.request;
 
 import br.com.fiap.medix_api.enums.TipoAgendamento;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -13,9 +15,11 @@ public class CadastrarAgendamentoDto {
     @NotNull(message = "O ID do paciente é obrigatório.")
     private Long idPaciente;
 
-    @NotNull(message = "O ID do colaborador é obrigatório.")
+    // Opcional: sem colaborador, o servidor atribui um profissional livre da especialidade
     private Long idColaborador;
 
+    private Long idEspecialidade; // Obrigatório quando o colaborador não é informado
+
     @NotNull(message = "O ID da unidade de saúde é obrigatório.")
     private Long idUnidadeSaude;
 
@@ -29,4 +33,13 @@ public class CadastrarAgendamentoDto {
     private TipoAgendamento tipo;
 
     private String observacoes;
+
+    // A ocupação é marcada em grânulos de 5 minutos (ver GradeOcupacao); um início fora deles faria dois
+    // agendamentos vizinhos dividirem um grânulo, e cancelar um liberaria parte do outro
+    @JsonIgnore
+    @AssertTrue(message = "O início do agendamento deve ser múltiplo de 5 minutos (ex: 08:00, 08:05, 08:10).")
+    public boolean isInicioEmGranulo() {
+        return dataHoraInicio == null
+                || (dataHoraInicio.getMinute() % 5 == 0 && dataHoraInicio.getSecond() == 0 && dataHoraInicio.getNano() == 0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package br.com.fiap.medix_api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class CadastrarExcecaoJornadaDto {
+    // Colaborador, unidade ou nenhum dos dois (vale para todas as unidades, ex: feriado nacional)
+    private Long idColaborador;
+    private Long idUnidadeSaude;
+    @NotNull(message = "A data de início é obrigatória.")
+    private LocalDate dataInicio;
+    @NotNull(message = "A data de fim é obrigatória.")
+    private LocalDate dataFim;
+    // Opcionais: sem horário, o bloqueio vale para o dia inteiro
+    private LocalTime horaInicio;
+    private LocalTime horaFim;
+    @Size(max = 100)
+    private String descricao;
+}
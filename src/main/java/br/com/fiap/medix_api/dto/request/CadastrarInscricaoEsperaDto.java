@@ -0,0 +1,32 @@
+package br.com.fiap.medix_api.dto.request;
+
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class CadastrarInscricaoEsperaDto {
+
+    @NotNull(message = "O ID do paciente é obrigatório.")
+    private Long idPaciente;
+
+    @NotNull(message = "O ID da especialidade é obrigatório.")
+    private Long idEspecialidade;
+
+    private Long idUnidadeSaude; // Opcional: sem unidade, aceita vagas em qualquer uma
+
+    @NotNull(message = "A data de início é obrigatória.")
+    @FutureOrPresent(message = "A data de início não pode estar no passado.")
+    private LocalDate dataInicio;
+
+    @NotNull(message = "A data de fim é obrigatória.")
+    private LocalDate dataFim;
+
+    private TipoAgendamento tipo; // Padrão: CONSULTA
+
+    // true: agenda direto na vaga; false: reserva a vaga para o paciente confirmar
+    private boolean agendamentoAutomatico;
+}
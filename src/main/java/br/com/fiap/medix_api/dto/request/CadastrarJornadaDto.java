@@ -0,0 +1,20 @@
+package br.com.fiap.medix_api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+@Data
+public class CadastrarJornadaDto {
+    // Informe o colaborador, ou apenas a unidade para definir o padrão da unidade
+    private Long idColaborador;
+    private Long idUnidadeSaude;
+    @NotNull(message = "O dia da semana é obrigatório.")
+    private DayOfWeek diaSemana;
+    @NotNull(message = "O horário de início é obrigatório.")
+    private LocalTime horaInicio;
+    @NotNull(message = "O horário de fim é obrigatório.")
+    private LocalTime horaFim;
+}
@@ -0,0 +1,16 @@
+package br.com.fiap.medix_api.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CadastrarLoteAgendamentoDto {
+    @NotEmpty(message = "Informe ao menos um agendamento.")
+    @Size(max = 100, message = "O lote aceita no máximo 100 agendamentos.")
+    @Valid
+    private List<CadastrarAgendamentoDto> itens;
+}
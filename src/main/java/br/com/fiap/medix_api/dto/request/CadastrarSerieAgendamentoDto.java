@@ -0,0 +1,29 @@
+package br.com.fiap.medix_api.dto.request;
+
+import br.com.fiap.medix_api.enums.FrequenciaRecorrencia;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class CadastrarSerieAgendamentoDto {
+
+    // Primeira ocorrência; as demais repetem o mesmo horário, paciente, colaborador, unidade e sala
+    @NotNull(message = "O agendamento da primeira ocorrência é obrigatório.")
+    @Valid
+    private CadastrarAgendamentoDto agendamento;
+
+    @NotNull(message = "A frequência da série é obrigatória.")
+    private FrequenciaRecorrencia frequencia;
+
+    // Informe a quantidade de ocorrências ou a data da última (inclusive)
+    @Min(value = 2, message = "A série deve ter pelo menos 2 ocorrências.")
+    @Max(value = 100, message = "A série aceita no máximo 100 ocorrências.")
+    private Integer quantidade;
+
+    private LocalDate dataFim;
+}
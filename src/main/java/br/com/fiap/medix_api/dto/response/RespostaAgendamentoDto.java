@@ -10,11 +10,13 @@ import java.time.LocalDateTime;
 @Data
 public class RespostaAgendamentoDto extends RepresentationModel<RespostaAgendamentoDto> {
     private Long id;
+    private Long versao;
     private LocalDateTime dataHoraInicio;
     private LocalDateTime dataHoraFim;
     private TipoAgendamento tipo;
     private StatusAgendamento status;
     private String observacoes;
+    private String codigoSerie;
 
     // Dados resumidos dos relacionamentos
     private Long idPaciente;
@@ -0,0 +1,11 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RespostaCancelamentoSerieDto {
+    private String codigoSerie;
+    private int cancelados;
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+@Data
+public class RespostaConexoesDto extends RepresentationModel<RespostaConexoesDto> {
+    private boolean replicaHabilitada;
+    private List<RespostaPoolConexoesDto> pools;
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDate;
+
+@Data
+public class RespostaDiaDisponibilidadeDto extends RepresentationModel<RespostaDiaDisponibilidadeDto> {
+    private LocalDate data;
+    private Integer horariosLivres;
+}
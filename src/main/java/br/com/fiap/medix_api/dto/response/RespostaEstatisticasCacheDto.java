@@ -0,0 +1,15 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+@Data
+public class RespostaEstatisticasCacheDto extends RepresentationModel<RespostaEstatisticasCacheDto> {
+    private boolean habilitado;
+    private long entradas;
+    private long acertos;
+    private long falhas;
+    private double taxaAcerto;
+    private long despejos;
+    private long invalidacoes;
+}
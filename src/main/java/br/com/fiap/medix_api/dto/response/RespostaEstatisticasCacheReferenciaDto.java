@@ -0,0 +1,15 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+@Data
+public class RespostaEstatisticasCacheReferenciaDto extends RepresentationModel<RespostaEstatisticasCacheReferenciaDto> {
+    private boolean habilitado;
+    private long acertos;
+    private long falhas;
+    private double taxaAcerto;
+    private List<RespostaRegiaoCacheDto> regioes;
+}
@@ -0,0 +1,19 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class RespostaExcecaoJornadaDto extends RepresentationModel<RespostaExcecaoJornadaDto> {
+    private Long id;
+    private Long idColaborador;
+    private Long idUnidadeSaude;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private LocalTime horaInicio;
+    private LocalTime horaFim;
+    private String descricao;
+}
@@ -0,0 +1,14 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RespostaHorarioLivreDto extends RepresentationModel<RespostaHorarioLivreDto> {
+    private Long idUnidadeSaude;
+    private Long idColaborador;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+}
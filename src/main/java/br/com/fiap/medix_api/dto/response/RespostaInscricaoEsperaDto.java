@@ -0,0 +1,31 @@
+package br.com.fiap.medix_api.dto.response;
+
+import br.com.fiap.medix_api.enums.StatusListaEspera;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class RespostaInscricaoEsperaDto extends RepresentationModel<RespostaInscricaoEsperaDto> {
+    private Long id;
+    private LocalDateTime dataCriacao;
+    private Long idPaciente;
+    private Long idEspecialidade;
+    private Long idUnidadeSaude;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private TipoAgendamento tipo;
+    private boolean agendamentoAutomatico;
+    private StatusListaEspera status;
+
+    // Vaga ofertada ou agendada
+    private String tokenReserva;
+    private Long idColaboradorOferta;
+    private Long idUnidadeSaudeOferta;
+    private LocalDateTime dataHoraOferta;
+    private LocalDateTime expiracaoOferta;
+    private Long idAgendamento;
+}
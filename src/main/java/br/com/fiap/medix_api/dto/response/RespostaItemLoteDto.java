@@ -0,0 +1,18 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDateTime;
+
+// Resultado de um item do lote: idAgendamento preenchido quando criado, erro quando rejeitado
+@Data
+public class RespostaItemLoteDto extends RepresentationModel<RespostaItemLoteDto> {
+    private int indice;
+    private Long idAgendamento;
+    private Long idPaciente;
+    private Long idColaborador;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+    private String erro;
+}
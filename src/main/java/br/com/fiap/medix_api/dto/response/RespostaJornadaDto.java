@@ -0,0 +1,17 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+@Data
+public class RespostaJornadaDto extends RepresentationModel<RespostaJornadaDto> {
+    private Long id;
+    private Long idColaborador;
+    private Long idUnidadeSaude;
+    private DayOfWeek diaSemana;
+    private LocalTime horaInicio;
+    private LocalTime horaFim;
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RespostaLoteAgendamentoDto {
+    private int criados;
+    private int rejeitados;
+    private List<RespostaItemLoteDto> itens;
+}
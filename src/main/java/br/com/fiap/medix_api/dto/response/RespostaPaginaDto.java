@@ -0,0 +1,13 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+// Página de uma listagem: o link "next" (e proximoCursor) leva à página seguinte e some na última
+@Data
+public class RespostaPaginaDto<T> extends RepresentationModel<RespostaPaginaDto<T>> {
+    private List<T> itens;
+    private String proximoCursor;
+}
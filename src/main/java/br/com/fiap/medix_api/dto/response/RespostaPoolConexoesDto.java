@@ -0,0 +1,15 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+
+@Data
+public class RespostaPoolConexoesDto {
+    private String rota;
+    private String nomePool;
+    private int ativas;
+    private int ociosas;
+    private int total;
+    private int aguardando;
+    private int maximo;
+    private long conexoesRoteadas;
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+
+@Data
+public class RespostaRegiaoCacheDto {
+    private String regiao;
+    private long acertos;
+    private long falhas;
+    private long gravacoes;
+    private double taxaAcerto;
+}
@@ -0,0 +1,21 @@
+package br.com.fiap.medix_api.dto.response;
+
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import lombok.Data;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RespostaReservaDto extends RepresentationModel<RespostaReservaDto> {
+    private String token;
+    private Long idPaciente;
+    private Long idColaborador;
+    private Long idUnidadeSaude;
+    private Long idSala;
+    private LocalDateTime dataHoraInicio;
+    private LocalDateTime dataHoraFim;
+    private TipoAgendamento tipo;
+    // Depois deste instante o horário volta a ficar disponível
+    private LocalDateTime expiraEm;
+}
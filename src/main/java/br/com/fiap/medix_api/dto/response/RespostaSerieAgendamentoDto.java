@@ -0,0 +1,14 @@
+package br.com.fiap.medix_api.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Cada ocorrência da série é um item: criada (idAgendamento) ou pulada/em conflito (erro)
+@Data
+public class RespostaSerieAgendamentoDto {
+    private String codigoSerie;
+    private int criados;
+    private int rejeitados;
+    private List<RespostaItemLoteDto> itens;
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.medix_api.enums;
+
+import java.time.LocalDateTime;
+
+public enum FrequenciaRecorrencia {
+    DIARIA,
+    SEMANAL,
+    QUINZENAL,
+    MENSAL;
+
+    // Início da n-ésima ocorrência (0 = a primeira); sempre a partir da primeira, para o dia do mês não escorregar
+    public LocalDateTime ocorrencia(LocalDateTime primeira, int n) {
+        return switch (this) {
+            case DIARIA -> primeira.plusDays(n);
+            case SEMANAL -> primeira.plusWeeks(n);
+            case QUINZENAL -> primeira.plusWeeks(2L * n);
+            case MENSAL -> primeira.plusMonths(n);
+        };
+    }
+}
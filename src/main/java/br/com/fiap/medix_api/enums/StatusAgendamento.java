@@ -6,5 +6,10 @@ public enum StatusAgendamento {
     CANCELADO_PACIENTE,
     CANCELADO_COLABORADOR,
     REALIZADO,
-    NAO_COMPARECEU
-}
\ No newline at end of file
+    NAO_COMPARECEU;
+
+    // Agendamentos cancelados não ocupam mais a agenda (mesma regra das consultas de conflito)
+    public boolean isCancelado() {
+        return this == CANCELADO_PACIENTE || this == CANCELADO_COLABORADOR;
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.medix_api.enums;
+
+public enum StatusListaEspera {
+    AGUARDANDO,  // Na fila, esperando uma vaga
+    OFERTADO,    // Vaga reservada para o paciente confirmar (token da reserva)
+    ATENDIDO,    // Agendamento criado a partir da vaga
+    CANCELADO,   // Saiu da fila a pedido
+    EXPIRADO     // O período de interesse terminou sem vaga
+}
@@ -0,0 +1,54 @@
+package br.com.fiap.medix_api.event;
+
+import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.model.Agendamento;
+import br.com.fiap.medix_api.model.Colaborador;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Publicado sempre que um agendamento é criado ou muda de status
+@Getter
+@AllArgsConstructor
+public class AgendamentoAlteradoEvent {
+
+    private final Long idAgendamento;
+    private final Long idColaborador;
+    // Unidade e especialidade do colaborador (onde a agenda dele é oferecida)
+    private final Long idUnidadeSaude;
+    private final Long idEspecialidade;
+    // Unidade onde o agendamento acontece, que pode não ser a do colaborador
+    private final Long idUnidadeSaudeAgendamento;
+    // Unidade da sala ocupada pelo agendamento (nulo quando não há sala)
+    private final Long idUnidadeSaudeSala;
+    private final LocalDateTime dataHoraInicio;
+    private final LocalDateTime dataHoraFim;
+    private final StatusAgendamento status;
+
+    public static AgendamentoAlteradoEvent de(Agendamento agendamento) {
+        Colaborador colaborador = agendamento.getColaborador();
+        return de(agendamento, colaborador.getUnidadeSaude().getId(),
+                colaborador.getEspecialidade() != null ? colaborador.getEspecialidade().getId() : null);
+    }
+
+    // Com a unidade e a especialidade do colaborador já conhecidas (o colaborador pode ser uma referência não carregada)
+    public static AgendamentoAlteradoEvent de(Agendamento agendamento, Long idUnidadeSaudeColaborador, Long idEspecialidade) {
+        return new AgendamentoAlteradoEvent(
+                agendamento.getId(),
+                agendamento.getColaborador().getId(),
+                idUnidadeSaudeColaborador,
+                idEspecialidade,
+                agendamento.getUnidadeSaude().getId(),
+                agendamento.getSala() != null ? agendamento.getUnidadeSaude().getId() : null,
+                agendamento.getDataHoraInicio(),
+                agendamento.getDataHoraFim(),
+                agendamento.getStatus()
+        );
+    }
+
+    // Indica se o agendamento ainda ocupa a agenda do colaborador
+    public boolean isAtivo() {
+        return !status.isCancelado();
+    }
+}
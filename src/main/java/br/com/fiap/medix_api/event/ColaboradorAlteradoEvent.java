@@ -0,0 +1,33 @@
+package br.com.fiap.medix_api.event;
+
+import br.com.fiap.medix_api.model.Colaborador;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Publicado quando um colaborador é criado, excluído ou muda de especialidade (a agenda dele muda de lugar)
+@Getter
+@AllArgsConstructor
+public class ColaboradorAlteradoEvent {
+
+    private final Long idColaborador;
+    private final Long idUnidadeSaude;
+    private final Long idEspecialidade;
+    // Onde a agenda estava antes da alteração (iguais aos atuais na criação e na exclusão)
+    private final Long idUnidadeSaudeAnterior;
+    private final Long idEspecialidadeAnterior;
+
+    public static ColaboradorAlteradoEvent de(Colaborador colaborador) {
+        Long especialidadeId = colaborador.getEspecialidade() != null ? colaborador.getEspecialidade().getId() : null;
+        return de(colaborador, colaborador.getUnidadeSaude().getId(), especialidadeId);
+    }
+
+    public static ColaboradorAlteradoEvent de(Colaborador colaborador, Long idUnidadeSaudeAnterior, Long idEspecialidadeAnterior) {
+        return new ColaboradorAlteradoEvent(
+                colaborador.getId(),
+                colaborador.getUnidadeSaude().getId(),
+                colaborador.getEspecialidade() != null ? colaborador.getEspecialidade().getId() : null,
+                idUnidadeSaudeAnterior,
+                idEspecialidadeAnterior
+        );
+    }
+}
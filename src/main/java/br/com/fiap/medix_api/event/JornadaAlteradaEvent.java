@@ -0,0 +1,13 @@
+package br.com.fiap.medix_api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Publicado quando um modelo semanal ou uma exceção de jornada é criado ou removido
+@Getter
+@AllArgsConstructor
+public class JornadaAlteradaEvent {
+
+    private final Long idColaborador;
+    private final Long idUnidadeSaude;
+}
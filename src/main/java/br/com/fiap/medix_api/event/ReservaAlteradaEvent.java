@@ -0,0 +1,20 @@
+package br.com.fiap.medix_api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Publicado quando uma reserva temporária de horário é criada, confirmada, cancelada ou expira
+@Getter
+@AllArgsConstructor
+public class ReservaAlteradaEvent {
+
+    private final Long idColaborador;
+    private final Long idUnidadeSaude;
+    private final Long idEspecialidade;
+    // Unidade da sala reservada (nulo quando não há sala)
+    private final Long idUnidadeSaudeSala;
+    private final LocalDateTime dataHoraInicio;
+    private final LocalDateTime dataHoraFim;
+}
@@ -38,6 +38,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(listaErros);
     }
 
+    @ExceptionHandler(RequisicaoInvalidaException.class)
+    public ResponseEntity<ErroPadraoDto> tratarRequisicaoInvalida(RequisicaoInvalidaException ex, HttpServletRequest request) {
+        ErroPadraoDto erro = new ErroPadraoDto(
+                Instant.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Requisição Inválida",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.badRequest().body(erro);
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErroPadraoDto> tratarErroDeIntegridade(DataIntegrityViolationException ex, HttpServletRequest request) {
         ErroPadraoDto erro = new ErroPadraoDto(
@@ -50,6 +62,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
     }
 
+    @ExceptionHandler(VersaoDesatualizadaException.class)
+    public ResponseEntity<ErroPadraoDto> tratarErro412(VersaoDesatualizadaException ex, HttpServletRequest request) {
+        ErroPadraoDto erro = new ErroPadraoDto(
+                Instant.now(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Versão Desatualizada",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(erro);
+    }
+
     @ExceptionHandler({IllegalStateException.class, IllegalArgumentException.class})
     public ResponseEntity<ErroPadraoDto> tratarErroDeRegraDeNegocio(RuntimeException ex, HttpServletRequest request) {
         ErroPadraoDto erro = new ErroPadraoDto(
@@ -0,0 +1,9 @@
+package br.com.fiap.medix_api.exception;
+
+// Parâmetro ou cabeçalho malformado enviado pelo cliente (respondido com 400)
+public class RequisicaoInvalidaException extends RuntimeException {
+
+    public RequisicaoInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.medix_api.exception;
+
+// If-Match com uma versão que não é mais a atual do recurso (respondido com 412)
+public class VersaoDesatualizadaException extends RuntimeException {
+
+    public VersaoDesatualizadaException(String message) {
+        super(message);
+    }
+}
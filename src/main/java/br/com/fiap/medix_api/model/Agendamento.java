@@ -7,7 +7,9 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -23,11 +25,17 @@ public class Agendamento {
 
     @Id
     // ATUALIZADO: De IDENTITY para SEQUENCE
-    @SequenceGenerator(name = "seq_agendamento", sequenceName = "SQ_MEDI_AGENDAMENTO", allocationSize = 1)
+    // Blocos de 50 ids (otimizador pooled): o NEXTVAL sai do caminho de cada agendamento; exige INCREMENT BY 50 (schema.sql)
+    @SequenceGenerator(name = "seq_agendamento", sequenceName = "SQ_MEDI_AGENDAMENTO", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_agendamento")
     @Column(name = "id_agendamento")
     private Long id;
 
+    // Controle de concorrência otimista: exposto como ETag e conferido no If-Match das mudanças de status
+    @Version
+    @Column(name = "nr_versao", nullable = false)
+    private Long versao;
+
     @CreationTimestamp
     @Column(name = "dt_criacao", updatable = false)
     private LocalDateTime dataCriacao;
@@ -36,22 +44,31 @@ public class Agendamento {
     @Column(name = "dt_atualizacao")
     private LocalDateTime dataAtualizacao;
 
+    // Relacionamentos LAZY: as leituras usam projeções (AgendamentoResumoDto) ou JOIN FETCH explícito no repositório
     @NotNull
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_paciente", nullable = false)
     private Paciente paciente;
 
     @NotNull
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_colaborador", nullable = false)
     private Colaborador colaborador;
 
     @NotNull
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_unidade_saude", nullable = false)
     private UnidadeSaude unidadeSaude;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_sala")
     private Sala sala;
 
@@ -75,4 +92,8 @@ public class Agendamento {
 
     @Column(name = "ds_observacoes", length = 500)
     private String observacoes;
+
+    // Código comum às ocorrências de uma série recorrente (nulo para agendamentos avulsos)
+    @Column(name = "cd_serie", length = 36)
+    private String codigoSerie;
 }
\ No newline at end of file
@@ -23,7 +23,7 @@ public class Avaliacao extends RepresentationModel<Avaliacao> {
 
     @Id
     // ATUALIZADO: De IDENTITY para SEQUENCE
-    @SequenceGenerator(name = "seq_avaliacao", sequenceName = "SQ_MEDI_AVALIACAO", allocationSize = 1)
+    @SequenceGenerator(name = "seq_avaliacao", sequenceName = "SQ_MEDI_AVALIACAO", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_avaliacao")
     @Column(name = "id_avaliacao")
     private Long id;
@@ -0,0 +1,47 @@
+package br.com.fiap.medix_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Idempotency-Key já atendida, compartilhada entre as instâncias (medix.agenda.idempotencia.persistente)
+@Entity
+@Table(name = "TB_MEDI_IDEMPOTENCIA")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChaveIdempotencia implements Persistable<String> {
+
+    // Usuário + chave informada pelo cliente
+    @Id
+    @Column(name = "ds_chave", length = 200)
+    private String chave;
+
+    // SHA-256 do corpo da requisição: a mesma chave com outro corpo é rejeitada
+    @Column(name = "ds_hash", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    // Preenchido na mesma transação, depois do agendamento (a chave é inserida antes, para travar a concorrência)
+    @Column(name = "id_agendamento")
+    private Long idAgendamento;
+
+    @Column(name = "dt_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    // Chave atribuída pela aplicação: sempre INSERT (sem o SELECT do merge); chave repetida falha na PK
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.fiap.medix_api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Projeção materializada da agenda: um registro por colaborador e dia dentro do horizonte de agendamento
+@Entity
+@Table(name = "TB_MEDI_DISPONIBILIDADE")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Disponibilidade {
+
+    @Id
+    @SequenceGenerator(name = "seq_disponibilidade", sequenceName = "SQ_MEDI_DISPONIBILIDADE", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_disponibilidade")
+    @Column(name = "id_disponibilidade")
+    private Long id;
+
+    @UpdateTimestamp
+    @Column(name = "dt_atualizacao")
+    private LocalDateTime dataAtualizacao;
+
+    // Identificadores desnormalizados para permitir leitura por faixa sem joins
+    @NotNull
+    @Column(name = "id_colaborador", nullable = false)
+    private Long idColaborador;
+
+    @NotNull
+    @Column(name = "id_unidade_saude", nullable = false)
+    private Long idUnidadeSaude;
+
+    @NotNull
+    @Column(name = "id_especialidade", nullable = false)
+    private Long idEspecialidade;
+
+    @NotNull
+    @Column(name = "dt_dia", nullable = false)
+    private LocalDate dia;
+
+    // Bits de ocupação do dia inteiro (grânulos de 5 minutos) em hexadecimal
+    @NotNull
+    @Column(name = "ds_ocupacao", nullable = false, length = 80)
+    private String ocupacao;
+
+    @NotNull
+    @Column(name = "qt_minutos_livres", nullable = false)
+    private Integer minutosLivres;
+}
@@ -6,10 +6,15 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
 @Entity
 @Table(name = "TB_MEDI_ESPECIALIDADE")
+// Dado de referência: lido em quase toda requisição e alterado raramente (ver CacheReferencia)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "especialidade")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +22,7 @@ public class Especialidade extends RepresentationModel<Especialidade> {
 
     @Id
     // ATUALIZADO: De IDENTITY para SEQUENCE
-    @SequenceGenerator(name = "seq_especialidade", sequenceName = "SQ_MEDI_ESPECIALIDADE", allocationSize = 1)
+    @SequenceGenerator(name = "seq_especialidade", sequenceName = "SQ_MEDI_ESPECIALIDADE", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_especialidade")
     @Column(name = "id_especialidade")
     private Long id;
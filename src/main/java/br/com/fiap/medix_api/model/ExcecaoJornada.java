@@ -0,0 +1,53 @@
+package br.com.fiap.medix_api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Período em que não há atendimento (férias, feriados, bloqueios). Sem colaborador nem unidade, vale para todas as unidades.
+@Entity
+@Table(name = "TB_MEDI_EXCECAO_JORNADA")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExcecaoJornada {
+
+    @Id
+    @SequenceGenerator(name = "seq_excecao_jornada", sequenceName = "SQ_MEDI_EXCECAO_JORNADA", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_excecao_jornada")
+    @Column(name = "id_excecao_jornada")
+    private Long id;
+
+    @Column(name = "id_colaborador")
+    private Long idColaborador;
+
+    @Column(name = "id_unidade_saude")
+    private Long idUnidadeSaude;
+
+    @NotNull
+    @Column(name = "dt_inicio", nullable = false)
+    private LocalDate dataInicio;
+
+    @NotNull
+    @Column(name = "dt_fim", nullable = false)
+    private LocalDate dataFim;
+
+    // Sem horário, o bloqueio vale para o dia inteiro
+    @Column(name = "hr_inicio")
+    private LocalTime horaInicio;
+
+    @Column(name = "hr_fim")
+    private LocalTime horaFim;
+
+    @Size(max = 100)
+    @Column(name = "ds_excecao", length = 100)
+    private String descricao;
+}
@@ -0,0 +1,88 @@
+package br.com.fiap.medix_api.model;
+
+import br.com.fiap.medix_api.enums.StatusListaEspera;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Interesse de um paciente por uma vaga da especialidade (em uma unidade ou em qualquer uma) dentro de um período
+@Entity
+@Table(name = "TB_MEDI_LISTA_ESPERA")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InscricaoEspera {
+
+    @Id
+    @SequenceGenerator(name = "seq_lista_espera", sequenceName = "SQ_MEDI_LISTA_ESPERA", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_lista_espera")
+    @Column(name = "id_lista_espera")
+    private Long id;
+
+    // Ordem da fila: quem se inscreveu primeiro recebe a vaga primeiro
+    @CreationTimestamp
+    @Column(name = "dt_criacao", updatable = false)
+    private LocalDateTime dataCriacao;
+
+    @NotNull
+    @Column(name = "id_paciente", nullable = false)
+    private Long idPaciente;
+
+    @NotNull
+    @Column(name = "id_especialidade", nullable = false)
+    private Long idEspecialidade;
+
+    // Nulo: aceita qualquer unidade
+    @Column(name = "id_unidade_saude")
+    private Long idUnidadeSaude;
+
+    @NotNull
+    @Column(name = "dt_inicio", nullable = false)
+    private LocalDate dataInicio;
+
+    @NotNull
+    @Column(name = "dt_fim", nullable = false)
+    private LocalDate dataFim;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tp_agendamento", nullable = false, length = 30)
+    private TipoAgendamento tipo;
+
+    // Agenda direto na vaga em vez de reservá-la para o paciente confirmar
+    @Column(name = "fl_agendamento_automatico", nullable = false)
+    private boolean agendamentoAutomatico;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "st_lista_espera", nullable = false, length = 20)
+    private StatusListaEspera status;
+
+    // Vaga ofertada (status OFERTADO): reserva temporária a confirmar em /agendamentos/reservas/{token}/confirmar
+    @Column(name = "ds_token_reserva", length = 36)
+    private String tokenReserva;
+
+    @Column(name = "id_colaborador_oferta")
+    private Long idColaboradorOferta;
+
+    @Column(name = "id_unidade_saude_oferta")
+    private Long idUnidadeSaudeOferta;
+
+    @Column(name = "dt_inicio_oferta")
+    private LocalDateTime dataHoraOferta;
+
+    @Column(name = "dt_expiracao_oferta")
+    private LocalDateTime expiracaoOferta;
+
+    @Column(name = "id_agendamento")
+    private Long idAgendamento;
+}
@@ -0,0 +1,46 @@
+package br.com.fiap.medix_api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// Modelo semanal de trabalho: de um colaborador, ou o padrão de uma unidade quando o colaborador não é informado
+@Entity
+@Table(name = "TB_MEDI_JORNADA")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JornadaTrabalho {
+
+    @Id
+    @SequenceGenerator(name = "seq_jornada", sequenceName = "SQ_MEDI_JORNADA", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_jornada")
+    @Column(name = "id_jornada")
+    private Long id;
+
+    @Column(name = "id_colaborador")
+    private Long idColaborador;
+
+    @Column(name = "id_unidade_saude")
+    private Long idUnidadeSaude;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ds_dia_semana", nullable = false, length = 10)
+    private DayOfWeek diaSemana;
+
+    @NotNull
+    @Column(name = "hr_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @NotNull
+    @Column(name = "hr_fim", nullable = false)
+    private LocalTime horaFim;
+}
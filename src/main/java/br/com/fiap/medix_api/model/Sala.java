@@ -7,11 +7,16 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
 @Entity
 @Table(name = "TB_MEDI_SALA")
+// Dado de referência: lido em quase toda requisição e alterado raramente (ver CacheReferencia)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "sala")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +27,7 @@ public class Sala {
 
     @Id
     // ATUALIZADO: De IDENTITY para SEQUENCE
-    @SequenceGenerator(name = "seq_sala", sequenceName = "SQ_MEDI_SALA", allocationSize = 1)
+    @SequenceGenerator(name = "seq_sala", sequenceName = "SQ_MEDI_SALA", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_sala")
     @Column(name = "id_sala")
     private Long id;
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.hateoas.RepresentationModel;
@@ -14,6 +16,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "TB_MEDI_UNIDADE_SAUDE")
+// Dado de referência: lido em quase toda requisição e alterado raramente (ver CacheReferencia)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "unidade-saude")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -21,7 +26,7 @@ public class UnidadeSaude extends RepresentationModel<UnidadeSaude> {
 
     @Id
     // ATUALIZADO: De IDENTITY para SEQUENCE
-    @SequenceGenerator(name = "seq_unidade_saude", sequenceName = "SQ_MEDI_UNIDADE_SAUDE", allocationSize = 1)
+    @SequenceGenerator(name = "seq_unidade_saude", sequenceName = "SQ_MEDI_UNIDADE_SAUDE", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_unidade_saude")
     @Column(name = "id_unidade_saude")
     private Long id;
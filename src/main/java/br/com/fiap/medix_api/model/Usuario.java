@@ -27,7 +27,7 @@ import java.util.List;
 public class Usuario implements UserDetails {
 
     @Id
-    @SequenceGenerator(name = "seq_usuario", sequenceName = "SQ_MEDI_USUARIO", allocationSize = 1)
+    @SequenceGenerator(name = "seq_usuario", sequenceName = "SQ_MEDI_USUARIO", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_usuario")
     @Column(name = "id_usuario")
     private Long id;
@@ -1,50 +1,223 @@
 package br.com.fiap.medix_api.repository;
 
+import br.com.fiap.medix_api.dto.projection.AgendamentoResumoDto;
+import br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto;
+import br.com.fiap.medix_api.dto.projection.IntervaloRecursosDto;
+import br.com.fiap.medix_api.dto.projection.IntervaloSalaDto;
+import br.com.fiap.medix_api.dto.projection.OcorrenciaSerieDto;
+import br.com.fiap.medix_api.dto.projection.ValidacaoAgendamentoDto;
+import br.com.fiap.medix_api.dto.projection.VagaLiberadaDto;
 import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
 import br.com.fiap.medix_api.model.Agendamento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AgendamentoRepository extends JpaRepository<Agendamento, Long> {
 
-    // Listagens gerais
-    List<Agendamento> findByPacienteId(Long pacienteId);
-    List<Agendamento> findByColaboradorId(Long colaboradorId);
+    // Leituras para as respostas: uma consulta com os JOINs explícitos e só as colunas do RespostaAgendamentoDto
+    String SELECT_RESUMO = "SELECT new br.com.fiap.medix_api.dto.projection.AgendamentoResumoDto(" +
+            "a.id, a.versao, a.dataHoraInicio, a.dataHoraFim, a.tipo, a.status, a.observacoes, a.codigoSerie, " +
+            "p.id, p.nome, c.id, c.nome, u.id, u.nome, s.id, s.nome) " +
+            "FROM Agendamento a JOIN a.paciente p JOIN a.colaborador c JOIN a.unidadeSaude u LEFT JOIN a.sala s ";
 
-    // NOVO: Busca a PRÓXIMA consulta de um paciente (a primeira que estiver no futuro e ativa)
-    Optional<Agendamento> findFirstByPacienteIdAndDataHoraInicioAfterAndStatusInOrderByDataHoraInicioAsc(
-            Long pacienteId,
-            LocalDateTime dataHora,
-            List<StatusAgendamento> statusValidos
-    );
+    @Query(SELECT_RESUMO + "WHERE a.id = :id")
+    Optional<AgendamentoResumoDto> findResumoPorId(@Param("id") Long id);
 
-    // Validadores de conflito (já existiam)
-    @Query("SELECT COUNT(a) > 0 FROM Agendamento a " +
-            "WHERE a.colaborador.id = :colaboradorId " +
+    // Históricos por keyset em (início, id): as linhas depois do último agendamento entregue ('inicio' nulo = primeira página),
+    // servidas pelos índices IX_MEDI_AGENDAMENTO_PACIENTE_INICIO e IX_MEDI_AGENDAMENTO_COLABORADOR_INICIO (schema.sql)
+    String DEPOIS_DO_CURSOR = "AND (:inicio IS NULL OR a.dataHoraInicio > :inicio OR (a.dataHoraInicio = :inicio AND a.id > :id)) " +
+            "ORDER BY a.dataHoraInicio, a.id LIMIT :limite";
+
+    @Query(SELECT_RESUMO + "WHERE p.id = :pacienteId " + DEPOIS_DO_CURSOR)
+    List<AgendamentoResumoDto> findResumosPorPaciente(@Param("pacienteId") Long pacienteId,
+                                                      @Param("inicio") LocalDateTime inicio,
+                                                      @Param("id") Long id,
+                                                      @Param("limite") int limite);
+
+    @Query(SELECT_RESUMO + "WHERE c.id = :colaboradorId " + DEPOIS_DO_CURSOR)
+    List<AgendamentoResumoDto> findResumosPorColaborador(@Param("colaboradorId") Long colaboradorId,
+                                                         @Param("inicio") LocalDateTime inicio,
+                                                         @Param("id") Long id,
+                                                         @Param("limite") int limite);
+
+    // Próxima consulta do paciente: a primeira no futuro com um dos status informados
+    @Query(SELECT_RESUMO + "WHERE p.id = :pacienteId AND a.dataHoraInicio > :aPartirDe AND a.status IN :status " +
+            "ORDER BY a.dataHoraInicio LIMIT 1")
+    Optional<AgendamentoResumoDto> findProximoResumoDoPaciente(@Param("pacienteId") Long pacienteId,
+                                                               @Param("aPartirDe") LocalDateTime aPartirDe,
+                                                               @Param("status") Collection<StatusAgendamento> status);
+
+    // Entidade com os relacionamentos em um único SELECT (mudanças de status: resposta, disponibilidade e evento)
+    @Query("SELECT a FROM Agendamento a JOIN FETCH a.paciente JOIN FETCH a.colaborador c JOIN FETCH c.unidadeSaude " +
+            "LEFT JOIN FETCH c.especialidade JOIN FETCH a.unidadeSaude LEFT JOIN FETCH a.sala WHERE a.id = :id")
+    Optional<Agendamento> findComRelacionamentosPorId(@Param("id") Long id);
+
+    // Validação completa do agendamento em uma única ida ao banco: cada subconsulta responde a uma regra
+    // (sem FROM na consulta externa; o Hibernate gera o FROM DUAL do Oracle)
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.ValidacaoAgendamentoDto(" +
+            "(SELECT p.nome FROM Paciente p WHERE p.id = :pacienteId AND p.deleted = 0), " +
+            "(SELECT c.nome FROM Colaborador c WHERE c.id = :colaboradorId AND c.deleted = 0), " +
+            "(SELECT c.unidadeSaude.id FROM Colaborador c WHERE c.id = :colaboradorId AND c.deleted = 0), " +
+            "(SELECT c.especialidade.id FROM Colaborador c WHERE c.id = :colaboradorId AND c.deleted = 0), " +
+            "(SELECT u.nome FROM UnidadeSaude u WHERE u.id = :unidadeId AND u.deleted = 0), " +
+            "(SELECT s.nome FROM Sala s WHERE s.id = :salaId), " +
+            "(SELECT s.unidadeSaude.id FROM Sala s WHERE s.id = :salaId), " +
+            "(SELECT COUNT(a) FROM Agendamento a WHERE a.colaborador.id = :colaboradorId " +
             "AND a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
-            "AND (a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio)")
-    boolean existsConflitoColaborador(@Param("colaboradorId") Long colaboradorId,
-                                      @Param("inicio") LocalDateTime inicio,
-                                      @Param("fim") LocalDateTime fim);
+            "AND a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio), " +
+            "(SELECT COUNT(a) FROM Agendamento a WHERE a.paciente.id = :pacienteId " +
+            "AND a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
+            "AND a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio), " +
+            "(SELECT COUNT(a) FROM Agendamento a WHERE a.sala.id = :salaId " +
+            "AND a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
+            "AND a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio))")
+    ValidacaoAgendamentoDto validarAgendamento(@Param("pacienteId") Long pacienteId,
+                                               @Param("colaboradorId") Long colaboradorId,
+                                               @Param("unidadeId") Long unidadeId,
+                                               @Param("salaId") Long salaId,
+                                               @Param("inicio") LocalDateTime inicio,
+                                               @Param("fim") LocalDateTime fim);
+
+    // Agendamentos ativos de qualquer um dos recursos do lote que tocam o período, em uma única consulta
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.IntervaloRecursosDto(a.id, a.colaborador.id, a.paciente.id, a.sala.id, a.dataHoraInicio, a.dataHoraFim) " +
+            "FROM Agendamento a " +
+            "WHERE a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
+            "AND a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio " +
+            "AND (a.colaborador.id IN :colaboradores OR a.paciente.id IN :pacientes OR a.sala.id IN :salas)")
+    List<IntervaloRecursosDto> findIntervalosAtivosDosRecursosEntre(@Param("colaboradores") Collection<Long> colaboradores,
+                                                                    @Param("pacientes") Collection<Long> pacientes,
+                                                                    @Param("salas") Collection<Long> salas,
+                                                                    @Param("inicio") LocalDateTime inicio,
+                                                                    @Param("fim") LocalDateTime fim);
+
+    // Mudança de status em um único UPDATE condicional: só altera se o status atual permite e, com 'versao', se ela ainda é a atual.
+    // Devolve 0 quando nada mudou (agendamento inexistente, status final ou versão desatualizada)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :novoStatus, a.versao = a.versao + 1, a.dataAtualizacao = :agora " +
+            "WHERE a.id = :id AND a.status IN :statusPermitidos")
+    int transicionarStatus(@Param("id") Long id,
+                           @Param("novoStatus") StatusAgendamento novoStatus,
+                           @Param("statusPermitidos") Collection<StatusAgendamento> statusPermitidos,
+                           @Param("agora") LocalDateTime agora);
+
+    // Mesma transição, só se a versão atual for uma das aceitas (as do If-Match)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :novoStatus, a.versao = a.versao + 1, a.dataAtualizacao = :agora " +
+            "WHERE a.id = :id AND a.status IN :statusPermitidos AND a.versao IN :versoes")
+    int transicionarStatusNaVersao(@Param("id") Long id,
+                                   @Param("novoStatus") StatusAgendamento novoStatus,
+                                   @Param("statusPermitidos") Collection<StatusAgendamento> statusPermitidos,
+                                   @Param("versoes") Collection<Long> versoes,
+                                   @Param("agora") LocalDateTime agora);
+
+    // Cancela a série em um único UPDATE; 'agora' marca as linhas que este UPDATE alterou
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :status, a.versao = a.versao + 1, a.dataAtualizacao = :agora " +
+            "WHERE a.codigoSerie = :codigoSerie AND a.status IN ('AGENDADO', 'CONFIRMADO') AND a.dataHoraInicio > :agora")
+    int cancelarSerie(@Param("codigoSerie") String codigoSerie,
+                      @Param("status") StatusAgendamento status,
+                      @Param("agora") LocalDateTime agora);
+
+    // Ocorrências canceladas pelo cancelarSerie acima (mesmo status e mesma data de atualização),
+    // com a unidade e a especialidade do colaborador
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.OcorrenciaSerieDto(a.id, c.id, c.unidadeSaude.id, e.id, a.unidadeSaude.id, s.id, a.dataHoraInicio, a.dataHoraFim) " +
+            "FROM Agendamento a JOIN a.colaborador c LEFT JOIN c.especialidade e LEFT JOIN a.sala s " +
+            "WHERE a.codigoSerie = :codigoSerie AND a.status = :status AND a.dataAtualizacao = :agora")
+    List<OcorrenciaSerieDto> findOcorrenciasCanceladasDaSerie(@Param("codigoSerie") String codigoSerie,
+                                                              @Param("status") StatusAgendamento status,
+                                                              @Param("agora") LocalDateTime agora);
+
+    // Um bloco da transição de status dos agendamentos encerrados; devolve quantos mudaram (menos que 'tamanho' = acabou)
+    @Modifying
+    @Query("UPDATE Agendamento a SET a.status = :novoStatus, a.versao = a.versao + 1, a.dataAtualizacao = :agora " +
+            "WHERE a.id IN (SELECT b.id FROM Agendamento b " +
+            "WHERE b.status = :statusAtual AND b.tipo = :tipo AND b.dataHoraFim < :limite ORDER BY b.dataHoraFim LIMIT :tamanho)")
+    int transicionarEncerrados(@Param("statusAtual") StatusAgendamento statusAtual,
+                               @Param("novoStatus") StatusAgendamento novoStatus,
+                               @Param("tipo") TipoAgendamento tipo,
+                               @Param("limite") LocalDateTime limite,
+                               @Param("agora") LocalDateTime agora,
+                               @Param("tamanho") int tamanho);
+
+    // Agendamento ativo do paciente com o colaborador no horário (confirmação de uma vaga ofertada pela lista de espera)
+    @Query("SELECT a.id FROM Agendamento a WHERE a.paciente.id = :pacienteId AND a.colaborador.id = :colaboradorId " +
+            "AND a.dataHoraInicio = :inicio AND a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR')")
+    Optional<Long> findIdAtivoNoHorario(@Param("pacienteId") Long pacienteId,
+                                        @Param("colaboradorId") Long colaboradorId,
+                                        @Param("inicio") LocalDateTime inicio);
+
+    // Horários cancelados entre 'agora' e 'limite' que nenhum agendamento ativo do colaborador voltou a ocupar
+    // (as vagas da lista de espera, que só existem em memória, refeitas ao subir a aplicação)
+    @Query("SELECT DISTINCT new br.com.fiap.medix_api.dto.projection.VagaLiberadaDto(c.id, a.unidadeSaude.id, c.especialidade.id, a.dataHoraInicio, a.dataHoraFim) " +
+            "FROM Agendamento a JOIN a.colaborador c " +
+            "WHERE a.status IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') AND c.especialidade IS NOT NULL " +
+            "AND a.dataHoraInicio > :agora AND a.dataHoraInicio < :limite " +
+            "AND NOT EXISTS (SELECT 1 FROM Agendamento b WHERE b.colaborador = c " +
+            "AND b.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
+            "AND b.dataHoraInicio < a.dataHoraFim AND b.dataHoraFim > a.dataHoraInicio)")
+    List<VagaLiberadaDto> findVagasLiberadasEntre(@Param("agora") LocalDateTime agora,
+                                                  @Param("limite") LocalDateTime limite);
+
+    // Intervalos ativos (não cancelados) que terminam após o instante informado, usados pelo índice de agenda
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto(a.id, a.colaborador.id, a.dataHoraInicio, a.dataHoraFim) " +
+            "FROM Agendamento a " +
+            "WHERE a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
+            "AND a.dataHoraFim > :aPartirDe")
+    List<IntervaloAgendamentoDto> findIntervalosAtivosAPartirDe(@Param("aPartirDe") LocalDateTime aPartirDe);
+
+    // Grade do dia em uma única ida ao banco: todos os colaboradores ativos da unidade/especialidade
+    // com seus agendamentos ativos no período. Colaboradores sem agendamento vêm com idAgendamento nulo.
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto(a.id, c.id, a.dataHoraInicio, a.dataHoraFim) " +
+            "FROM Colaborador c " +
+            "LEFT JOIN Agendamento a ON a.colaborador.id = c.id " +
+            "AND a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
+            "AND a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio " +
+            "WHERE c.unidadeSaude.id = :unidadeId " +
+            "AND c.especialidade.id = :especialidadeId " +
+            "AND c.deleted = 0")
+    List<IntervaloAgendamentoDto> findGradePorUnidadeEEspecialidade(@Param("unidadeId") Long unidadeId,
+                                                                    @Param("especialidadeId") Long especialidadeId,
+                                                                    @Param("inicio") LocalDateTime inicio,
+                                                                    @Param("fim") LocalDateTime fim);
+
+    // Intervalos ativos que tocam o período, usados na reconstrução da disponibilidade materializada
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto(a.id, a.colaborador.id, a.dataHoraInicio, a.dataHoraFim) " +
+            "FROM Agendamento a " +
+            "WHERE a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
+            "AND a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio")
+    List<IntervaloAgendamentoDto> findIntervalosAtivosEntre(@Param("inicio") LocalDateTime inicio,
+                                                            @Param("fim") LocalDateTime fim);
 
-    @Query("SELECT COUNT(a) > 0 FROM Agendamento a " +
-            "WHERE a.paciente.id = :pacienteId " +
+    // Intervalos ativos dos colaboradores de uma especialidade, em todas as unidades
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto(a.id, a.colaborador.id, a.dataHoraInicio, a.dataHoraFim) " +
+            "FROM Agendamento a " +
+            "WHERE a.colaborador.especialidade.id = :especialidadeId " +
+            "AND a.colaborador.deleted = 0 " +
             "AND a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
-            "AND (a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio)")
-    boolean existsConflitoPaciente(@Param("pacienteId") Long pacienteId,
-                                   @Param("inicio") LocalDateTime inicio,
-                                   @Param("fim") LocalDateTime fim);
+            "AND a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio")
+    List<IntervaloAgendamentoDto> findIntervalosAtivosPorEspecialidadeEntre(@Param("especialidadeId") Long especialidadeId,
+                                                                            @Param("inicio") LocalDateTime inicio,
+                                                                            @Param("fim") LocalDateTime fim);
 
-    @Query("SELECT COUNT(a) > 0 FROM Agendamento a " +
-            "WHERE a.sala.id = :salaId " +
+    // Ocupação das salas de um tipo na unidade: uma linha por sala (idAgendamento nulo quando a sala está livre no período)
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.IntervaloSalaDto(a.id, s.id, a.dataHoraInicio, a.dataHoraFim) " +
+            "FROM Sala s " +
+            "LEFT JOIN Agendamento a ON a.sala.id = s.id " +
             "AND a.status NOT IN ('CANCELADO_PACIENTE', 'CANCELADO_COLABORADOR') " +
-            "AND (a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio)")
-    boolean existsConflitoSala(@Param("salaId") Long salaId,
-                               @Param("inicio") LocalDateTime inicio,
-                               @Param("fim") LocalDateTime fim);
-}
\ No newline at end of file
+            "AND a.dataHoraInicio < :fim AND a.dataHoraFim > :inicio " +
+            "WHERE s.unidadeSaude.id = :unidadeId " +
+            "AND UPPER(s.tipo) = UPPER(:tipoSala) " +
+            "AND s.deleted = 0")
+    List<IntervaloSalaDto> findGradeSalasPorUnidadeETipo(@Param("unidadeId") Long unidadeId,
+                                                         @Param("tipoSala") String tipoSala,
+                                                         @Param("inicio") LocalDateTime inicio,
+                                                         @Param("fim") LocalDateTime fim);
+}
@@ -3,18 +3,16 @@ package br.com.fiap.medix_api.repository;
 import br.com.fiap.medix_api.model.Avaliacao;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
 public interface AvaliacaoRepository extends JpaRepository<Avaliacao, Long> {
 
-    // Retorna todas as avaliações que não foram deletadas
-    @Query("SELECT a FROM Avaliacao a WHERE a.deleted = 0") //
-    List<Avaliacao> findAllByDeletedIsZero(); //
-
-    // Retorna todas as avaliações que foram deletadas
-    @Query("SELECT a FROM Avaliacao a WHERE a.deleted = 1") //
-    List<Avaliacao> findAllByDeletedIsOne(); //
+    // Página de avaliações ativas (deleted = 0) ou deletadas (deleted = 1) por keyset no id:
+    // só as linhas depois do último id entregue, pela chave primária
+    @Query("SELECT a FROM Avaliacao a WHERE a.deleted = :deleted AND a.id > :depoisDe ORDER BY a.id LIMIT :limite")
+    List<Avaliacao> findPagina(@Param("deleted") Integer deleted, @Param("depoisDe") Long depoisDe, @Param("limite") int limite);
 
     // Busca uma avaliação por ID, mas apenas se ela não estiver deletada (deleted = 0)
     Optional<Avaliacao> findByIdAndDeletedIs(Long id, Integer deleted); //
@@ -0,0 +1,15 @@
+package br.com.fiap.medix_api.repository;
+
+import br.com.fiap.medix_api.model.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.dataCriacao < :limite")
+    int deleteByDataCriacaoAnteriorA(LocalDateTime limite);
+}
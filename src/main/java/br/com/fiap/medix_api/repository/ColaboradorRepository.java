@@ -1,22 +1,22 @@
 package br.com.fiap.medix_api.repository;
 
+import br.com.fiap.medix_api.dto.projection.ColaboradorAgendaDto;
 import br.com.fiap.medix_api.model.Colaborador;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ColaboradorRepository extends JpaRepository<Colaborador, Long> {
 
-    // Retorna todos os colaboradores que não foram deletados
-    @Query("SELECT c FROM Colaborador c WHERE c.deleted = 0")
-    List<Colaborador> findAllByDeletedIsZero();
-
-    // Retorna todos os colaboradores que foram deletados
-    @Query("SELECT c FROM Colaborador c WHERE c.deleted = 1")
-    List<Colaborador> findAllByDeletedIsOne();
+    // Página de colaboradores ativos (deleted = 0) ou deletados (deleted = 1) por keyset no id:
+    // só as linhas depois do último id entregue, pela chave primária
+    @Query("SELECT c FROM Colaborador c WHERE c.deleted = :deleted AND c.id > :depoisDe ORDER BY c.id LIMIT :limite")
+    List<Colaborador> findPagina(@Param("deleted") Integer deleted, @Param("depoisDe") Long depoisDe, @Param("limite") int limite);
 
     // Busca um colaborador por ID, mas apenas se ele não estiver deletado
     Optional<Colaborador> findByIdAndDeletedIs(Long id, Integer deleted);
@@ -34,4 +34,27 @@ public interface ColaboradorRepository extends JpaRepository<Colaborador, Long>
           )
     """)
     List<Colaborador> findDisponiveisPorHorario(Long unidadeId, Long especialidadeId, LocalDateTime inicio, LocalDateTime fim);
+
+    // Colaboradores ativos de uma unidade/especialidade (a disponibilidade é filtrada pelo índice de agenda)
+    @Query("SELECT c FROM Colaborador c WHERE c.unidadeSaude.id = :unidadeId AND c.especialidade.id = :especialidadeId AND c.deleted = 0")
+    List<Colaborador> findAtivosPorUnidadeEEspecialidade(Long unidadeId, Long especialidadeId);
+
+    // Apenas os IDs, para o cálculo de horários livres sem carregar as entidades
+    @Query("SELECT c.id FROM Colaborador c WHERE c.unidadeSaude.id = :unidadeId AND c.especialidade.id = :especialidadeId AND c.deleted = 0")
+    List<Long> findIdsAtivosPorUnidadeEEspecialidade(Long unidadeId, Long especialidadeId);
+
+    // Todos os colaboradores ativos que atendem alguma especialidade, com a unidade onde atendem
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.ColaboradorAgendaDto(c.id, c.unidadeSaude.id, c.especialidade.id) " +
+            "FROM Colaborador c WHERE c.deleted = 0 AND c.especialidade IS NOT NULL")
+    List<ColaboradorAgendaDto> findAgendasAtivas();
+
+    // Colaboradores ativos entre os IDs informados (validação de agendamentos em lote)
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.ColaboradorAgendaDto(c.id, c.unidadeSaude.id, c.especialidade.id) " +
+            "FROM Colaborador c WHERE c.id IN :ids AND c.deleted = 0")
+    List<ColaboradorAgendaDto> findAgendasAtivasPorIds(@Param("ids") Collection<Long> ids);
+
+    // Colaboradores ativos de uma especialidade em todas as unidades (busca do próximo horário)
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.ColaboradorAgendaDto(c.id, c.unidadeSaude.id, c.especialidade.id) " +
+            "FROM Colaborador c WHERE c.especialidade.id = :especialidadeId AND c.deleted = 0")
+    List<ColaboradorAgendaDto> findAgendasAtivasPorEspecialidade(Long especialidadeId);
 }
\ No newline at end of file
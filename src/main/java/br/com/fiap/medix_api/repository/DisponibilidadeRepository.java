@@ -0,0 +1,42 @@
+package br.com.fiap.medix_api.repository;
+
+import br.com.fiap.medix_api.model.Disponibilidade;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DisponibilidadeRepository extends JpaRepository<Disponibilidade, Long> {
+
+    // Leitura por faixa usada pelos passos da disponibilidade (índice por unidade, especialidade e dia)
+    @Query("""
+        SELECT d FROM Disponibilidade d
+        WHERE d.idUnidadeSaude = :unidadeId
+          AND d.idEspecialidade = :especialidadeId
+          AND d.dia BETWEEN :primeiroDia AND :ultimoDia
+    """)
+    List<Disponibilidade> findPorUnidadeEEspecialidadeEntre(Long unidadeId, Long especialidadeId, LocalDate primeiroDia, LocalDate ultimoDia);
+
+    // Todas as unidades de uma especialidade (busca do próximo horário)
+    @Query("SELECT d FROM Disponibilidade d WHERE d.idEspecialidade = :especialidadeId AND d.dia BETWEEN :primeiroDia AND :ultimoDia")
+    List<Disponibilidade> findPorEspecialidadeEntre(Long especialidadeId, LocalDate primeiroDia, LocalDate ultimoDia);
+
+    // Trava o registro do dia para a atualização incremental feita na transação do agendamento
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Disponibilidade d WHERE d.idColaborador = :colaboradorId AND d.dia = :dia")
+    Optional<Disponibilidade> findParaAtualizacao(Long colaboradorId, LocalDate dia);
+
+    // Trava todo o horizonte durante a reconstrução, para não perder atualizações concorrentes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Disponibilidade d WHERE d.dia BETWEEN :primeiroDia AND :ultimoDia")
+    List<Disponibilidade> findParaAtualizacaoEntre(LocalDate primeiroDia, LocalDate ultimoDia);
+
+    @Modifying
+    @Query("DELETE FROM Disponibilidade d WHERE d.dia < :dia")
+    int deleteByDiaAnteriorA(LocalDate dia);
+}
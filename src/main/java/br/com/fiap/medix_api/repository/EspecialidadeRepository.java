@@ -1,13 +1,18 @@
 package br.com.fiap.medix_api.repository;
 
 import br.com.fiap.medix_api.model.Especialidade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 
 public interface EspecialidadeRepository extends JpaRepository<Especialidade, Long> {
 
     // Listar todas as especialidades que têm pelo menos um médico ativo
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "referencia-consultas")})
     @Query("SELECT DISTINCT e FROM Colaborador c JOIN c.especialidade e WHERE c.deleted = 0")
     List<Especialidade> findAllComMedicosAtivos();
 }
\ No newline at end of file
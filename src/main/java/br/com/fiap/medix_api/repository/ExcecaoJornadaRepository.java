@@ -0,0 +1,20 @@
+package br.com.fiap.medix_api.repository;
+
+import br.com.fiap.medix_api.model.ExcecaoJornada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ExcecaoJornadaRepository extends JpaRepository<ExcecaoJornada, Long> {
+
+    // Exceções que ainda tocam o período a partir do dia informado (as passadas não afetam a agenda)
+    @Query("SELECT e FROM ExcecaoJornada e WHERE e.dataFim >= :dia ORDER BY e.dataInicio")
+    List<ExcecaoJornada> findVigentesAPartirDe(LocalDate dia);
+
+    // Página das exceções vigentes por keyset no id
+    @Query("SELECT e FROM ExcecaoJornada e WHERE e.dataFim >= :dia AND e.id > :depoisDe ORDER BY e.id LIMIT :limite")
+    List<ExcecaoJornada> findPaginaVigentesAPartirDe(@Param("dia") LocalDate dia, @Param("depoisDe") Long depoisDe, @Param("limite") int limite);
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.medix_api.repository;
+
+import br.com.fiap.medix_api.enums.StatusListaEspera;
+import br.com.fiap.medix_api.model.InscricaoEspera;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface InscricaoEsperaRepository extends JpaRepository<InscricaoEspera, Long> {
+
+    // Página das inscrições do paciente por keyset no id (o histórico inclui as atendidas, canceladas e expiradas)
+    @Query("SELECT i FROM InscricaoEspera i WHERE i.idPaciente = :idPaciente AND i.id > :depoisDe ORDER BY i.id LIMIT :limite")
+    List<InscricaoEspera> findPaginaDoPaciente(@Param("idPaciente") Long idPaciente, @Param("depoisDe") Long depoisDe, @Param("limite") int limite);
+
+    // Carga da fila em memória: inscrições aguardando ou com oferta pendente, ainda dentro do período
+    List<InscricaoEspera> findByStatusInAndDataFimGreaterThanEqualOrderByIdAsc(Collection<StatusListaEspera> status, LocalDate dia);
+
+    boolean existsByIdPacienteAndIdEspecialidadeAndStatusIn(Long idPaciente, Long idEspecialidade, Collection<StatusListaEspera> status);
+
+    @Modifying
+    @Query("UPDATE InscricaoEspera i SET i.status = 'EXPIRADO' WHERE i.status = 'AGUARDANDO' AND i.dataFim < :dia")
+    int expirarAnterioresA(LocalDate dia);
+}
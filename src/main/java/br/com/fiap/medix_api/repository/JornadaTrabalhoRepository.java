@@ -0,0 +1,13 @@
+package br.com.fiap.medix_api.repository;
+
+import br.com.fiap.medix_api.model.JornadaTrabalho;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface JornadaTrabalhoRepository extends JpaRepository<JornadaTrabalho, Long> {
+
+    List<JornadaTrabalho> findByIdColaboradorOrderByDiaSemanaAscHoraInicioAsc(Long idColaborador);
+
+    List<JornadaTrabalho> findByIdColaboradorIsNullAndIdUnidadeSaudeOrderByDiaSemanaAscHoraInicioAsc(Long idUnidadeSaude);
+}
@@ -3,23 +3,26 @@ package br.com.fiap.medix_api.repository;
 import br.com.fiap.medix_api.model.Paciente;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PacienteRepository extends JpaRepository<Paciente, Long> {
 
-    // Retorna todos os pacientes que não foram deletados
-    @Query("SELECT p FROM Paciente p WHERE p.deleted = 0")
-    List<Paciente> findAllByDeletedIsZero();
-
-    // Retorna todos os pacientes que foram deletados
-    @Query("SELECT p FROM Paciente p WHERE p.deleted = 1")
-    List<Paciente> findAllByDeletedIsOne();
+    // Página de pacientes ativos (deleted = 0) ou deletados (deleted = 1) por keyset no id:
+    // só as linhas depois do último id entregue, pela chave primária
+    @Query("SELECT p FROM Paciente p WHERE p.deleted = :deleted AND p.id > :depoisDe ORDER BY p.id LIMIT :limite")
+    List<Paciente> findPagina(@Param("deleted") Integer deleted, @Param("depoisDe") Long depoisDe, @Param("limite") int limite);
 
     // Busca um paciente por ID, mas apenas se ele não estiver deletado
     Optional<Paciente> findByIdAndDeletedIs(Long id, Integer deleted);
 
+    // IDs ativos entre os informados (validação de agendamentos em lote)
+    @Query("SELECT p.id FROM Paciente p WHERE p.id IN :ids AND p.deleted = 0")
+    List<Long> findIdsAtivos(@Param("ids") Collection<Long> ids);
+
     // Busca um paciente por CPF. Útil para validação
     Optional<Paciente> findByCpf(String cpf);
 
@@ -1,10 +1,24 @@
 package br.com.fiap.medix_api.repository;
 
+import br.com.fiap.medix_api.dto.projection.SalaUnidadeDto;
 import br.com.fiap.medix_api.model.Sala;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface SalaRepository extends JpaRepository<Sala, Long> {
     // Graças ao @Where na entidade, o findAll padrão já filtra os deletados.
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "referencia-consultas")})
     List<Sala> findByUnidadeSaudeId(Long idUnidadeSaude);
+
+    // Unidade de cada sala ativa entre os IDs informados (validação de agendamentos em lote)
+    @Query("SELECT new br.com.fiap.medix_api.dto.projection.SalaUnidadeDto(s.id, s.unidadeSaude.id) FROM Sala s WHERE s.id IN :ids")
+    List<SalaUnidadeDto> findUnidadesPorIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
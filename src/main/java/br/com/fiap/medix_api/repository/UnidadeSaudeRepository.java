@@ -1,30 +1,40 @@
 package br.com.fiap.medix_api.repository;
 
 import br.com.fiap.medix_api.model.UnidadeSaude;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface UnidadeSaudeRepository extends JpaRepository<UnidadeSaude, Long> {
 
-    // Retorna todas as unidades de saúde que não foram deletadas
-    @Query("SELECT u FROM UnidadeSaude u WHERE u.deleted = 0")
-    List<UnidadeSaude> findAllByDeletedIsZero();
-
-    // Retorna todas as unidades de saúde que foram deletadas
-    @Query("SELECT u FROM UnidadeSaude u WHERE u.deleted = 1")
-    List<UnidadeSaude> findAllByDeletedIsOne();
+    // Página de unidades de saúde ativas (deleted = 0) ou deletadas (deleted = 1) por keyset no id:
+    // só as linhas depois do último id entregue, pela chave primária
+    @Query("SELECT u FROM UnidadeSaude u WHERE u.deleted = :deleted AND u.id > :depoisDe ORDER BY u.id LIMIT :limite")
+    List<UnidadeSaude> findPagina(@Param("deleted") Integer deleted, @Param("depoisDe") Long depoisDe, @Param("limite") int limite);
 
     // Busca uma unidade de saúde por ID, mas apenas se ela não estiver deletada
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "referencia-consultas")})
     Optional<UnidadeSaude> findByIdAndDeletedIs(Long id, Integer deleted);
 
+    // IDs ativos entre os informados (validação de agendamentos em lote)
+    @Query("SELECT u.id FROM UnidadeSaude u WHERE u.id IN :ids AND u.deleted = 0")
+    List<Long> findIdsAtivos(@Param("ids") Collection<Long> ids);
+
     // Busca uma unidade por CNPJ, para validar unicidade
     @Query("SELECT u FROM UnidadeSaude u WHERE u.cnpj = :cnpj AND u.deleted = 0")
     Optional<UnidadeSaude> findByCnpjAndDeletedIs(String cnpj);
 
     // Escolhe a unidade que atende essa especialidade
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "referencia-consultas")})
     @Query("SELECT DISTINCT u FROM Colaborador c JOIN c.unidadeSaude u WHERE c.especialidade.id = :especialidadeId AND c.deleted = 0 AND u.deleted = 0")
     List<UnidadeSaude> findByEspecialidadeId(Long especialidadeId);
 }
\ No newline at end of file
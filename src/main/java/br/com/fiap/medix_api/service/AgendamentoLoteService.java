@@ -0,0 +1,234 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.ColaboradorAgendaDto;
+import br.com.fiap.medix_api.dto.projection.IntervaloRecursosDto;
+import br.com.fiap.medix_api.dto.projection.SalaUnidadeDto;
+import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
+import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.model.Agendamento;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import br.com.fiap.medix_api.repository.ColaboradorRepository;
+import br.com.fiap.medix_api.repository.PacienteRepository;
+import br.com.fiap.medix_api.repository.SalaRepository;
+import br.com.fiap.medix_api.repository.UnidadeSaudeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Vários agendamentos em uma requisição (ex: consulta + exame do mesmo paciente, ou a lista do dia de um colaborador).
+ * A validação é feita para o lote inteiro com um número fixo de consultas (uma por tipo de registro e uma para os
+ * agendamentos existentes no período), os conflitos entre itens do próprio lote são detectados em memória e os
+ * itens aceitos são gravados na mesma transação, com os INSERTs agrupados em batch pelo Hibernate.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgendamentoLoteService {
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final PacienteRepository pacienteRepository;
+    private final ColaboradorRepository colaboradorRepository;
+    private final UnidadeSaudeRepository unidadeSaudeRepository;
+    private final SalaRepository salaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DisponibilidadeMaterializadaService disponibilidadeMaterializada;
+    private final CalendarioJornada calendario;
+    private final TravaAgenda travaAgenda;
+    private final ReservasTemporarias reservas;
+
+    // Com 'tudoOuNada', um item rejeitado impede a gravação de todos os outros
+    @Transactional
+    public List<ResultadoItemLote> agendarLote(List<CadastrarAgendamentoDto> itens, boolean tudoOuNada) {
+        return agendarLote(itens, tudoOuNada, null);
+    }
+
+    // Mesmo fluxo, marcando os agendamentos criados com o código da série recorrente
+    @Transactional
+    public List<ResultadoItemLote> agendarLote(List<CadastrarAgendamentoDto> itens, boolean tudoOuNada, String codigoSerie) {
+        Set<Long> idsPacientes = coletar(itens, CadastrarAgendamentoDto::getIdPaciente);
+        Set<Long> idsColaboradores = coletar(itens, CadastrarAgendamentoDto::getIdColaborador);
+        Set<Long> idsUnidades = coletar(itens, CadastrarAgendamentoDto::getIdUnidadeSaude);
+        Set<Long> idsSalas = coletar(itens, CadastrarAgendamentoDto::getIdSala);
+
+        // Mesmo contrato do agendamento individual: os recursos ficam travados até o commit
+        travaAgenda.travarAteFimDaTransacao(idsColaboradores, idsPacientes, idsSalas);
+
+        Set<Long> pacientes = new HashSet<>(pacienteRepository.findIdsAtivos(idsPacientes));
+        Set<Long> unidades = new HashSet<>(unidadeSaudeRepository.findIdsAtivos(idsUnidades));
+        Map<Long, ColaboradorAgendaDto> colaboradores = colaboradorRepository.findAgendasAtivasPorIds(idsColaboradores).stream()
+                .collect(Collectors.toMap(ColaboradorAgendaDto::getIdColaborador, Function.identity()));
+        Map<Long, Long> unidadeDaSala = idsSalas.isEmpty() ? Map.of() : salaRepository.findUnidadesPorIds(idsSalas).stream()
+                .collect(Collectors.toMap(SalaUnidadeDto::getIdSala, SalaUnidadeDto::getIdUnidadeSaude));
+
+        // Agenda atual dos recursos do lote; os itens aceitos entram nela para os itens seguintes
+        LocalDateTime inicioLote = itens.stream().map(CadastrarAgendamentoDto::getDataHoraInicio).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime fimLote = itens.stream().map(this::fim).max(LocalDateTime::compareTo).orElseThrow();
+        Agenda agenda = new Agenda();
+        agendamentoRepository.findIntervalosAtivosDosRecursosEntre(idsColaboradores, idsPacientes, idsSalas, inicioLote, fimLote)
+                .forEach(agenda::adicionar);
+
+        String[] erros = new String[itens.size()];
+        boolean algumRejeitado = false;
+        for (int i = 0; i < itens.size(); i++) {
+            CadastrarAgendamentoDto item = itens.get(i);
+            erros[i] = validarItem(item, pacientes, unidades, colaboradores, unidadeDaSala, agenda);
+            if (erros[i] == null) {
+                agenda.adicionar(new IntervaloRecursosDto(null, item.getIdColaborador(), item.getIdPaciente(), item.getIdSala(),
+                        item.getDataHoraInicio(), fim(item)));
+            } else {
+                algumRejeitado = true;
+            }
+        }
+
+        List<ResultadoItemLote> resultados = new ArrayList<>();
+        if (tudoOuNada && algumRejeitado) {
+            for (int i = 0; i < itens.size(); i++) {
+                resultados.add(new ResultadoItemLote(i, itens.get(i), null,
+                        erros[i] != null ? erros[i] : "Não gravado: o lote possui itens rejeitados."));
+            }
+            return resultados;
+        }
+
+        List<Agendamento> novos = new ArrayList<>();
+        for (int i = 0; i < itens.size(); i++) {
+            if (erros[i] == null) {
+                novos.add(novoAgendamento(itens.get(i), codigoSerie));
+            }
+        }
+        // IDs vêm do bloco da sequência em memória e os INSERTs saem em batch no flush
+        List<Agendamento> salvos = agendamentoRepository.saveAll(novos);
+
+        int proximo = 0;
+        for (int i = 0; i < itens.size(); i++) {
+            if (erros[i] != null) {
+                resultados.add(new ResultadoItemLote(i, itens.get(i), null, erros[i]));
+                continue;
+            }
+            Agendamento salvo = salvos.get(proximo++);
+            ColaboradorAgendaDto colaborador = colaboradores.get(salvo.getColaborador().getId());
+            disponibilidadeMaterializada.aplicar(salvo, colaborador.getIdUnidadeSaude(), colaborador.getIdEspecialidade(), true);
+            eventPublisher.publishEvent(AgendamentoAlteradoEvent.de(salvo, colaborador.getIdUnidadeSaude(), colaborador.getIdEspecialidade()));
+            resultados.add(new ResultadoItemLote(i, itens.get(i), salvo, null));
+        }
+        return resultados;
+    }
+
+    // Mesmas regras do agendamento individual; null quando o item pode ser gravado
+    private String validarItem(CadastrarAgendamentoDto item, Set<Long> pacientes, Set<Long> unidades,
+                               Map<Long, ColaboradorAgendaDto> colaboradores, Map<Long, Long> unidadeDaSala, Agenda agenda) {
+        if (!pacientes.contains(item.getIdPaciente())) {
+            return "Paciente não encontrado.";
+        }
+        if (item.getIdColaborador() == null) {
+            return "Informe o colaborador: a atribuição automática vale apenas para o agendamento individual.";
+        }
+        ColaboradorAgendaDto colaborador = colaboradores.get(item.getIdColaborador());
+        if (colaborador == null) {
+            return "Colaborador não encontrado.";
+        }
+        if (!unidades.contains(item.getIdUnidadeSaude())) {
+            return "Unidade de Saúde não encontrada.";
+        }
+        if (item.getIdSala() != null) {
+            Long unidadeSala = unidadeDaSala.get(item.getIdSala());
+            if (unidadeSala == null) {
+                return "Sala não encontrada.";
+            }
+            if (!unidadeSala.equals(item.getIdUnidadeSaude())) {
+                return "A sala informada não pertence a esta unidade de saúde.";
+            }
+        }
+        if (item.getIdEspecialidade() != null && !item.getIdEspecialidade().equals(colaborador.getIdEspecialidade())) {
+            return "O colaborador informado não atende esta especialidade.";
+        }
+        LocalDateTime inicio = item.getDataHoraInicio();
+        LocalDateTime fim = fim(item);
+        if (!calendario.isNaJornada(item.getIdColaborador(), colaborador.getIdUnidadeSaude(), inicio, fim)) {
+            return "O horário está fora da jornada do colaborador.";
+        }
+        try {
+            reservas.verificarLivre(item.getIdColaborador(), item.getIdSala(), inicio, fim, null);
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+
+        List<String> conflitos = new ArrayList<>();
+        agenda.conflito(agenda.porColaborador, item.getIdColaborador(), inicio, fim,
+                "O colaborador já possui agendamento neste horário.", "O colaborador", conflitos);
+        agenda.conflito(agenda.porPaciente, item.getIdPaciente(), inicio, fim,
+                "O paciente já possui agendamento neste horário.", "O paciente", conflitos);
+        if (item.getIdSala() != null) {
+            agenda.conflito(agenda.porSala, item.getIdSala(), inicio, fim,
+                    "A sala já está ocupada neste horário.", "A sala", conflitos);
+        }
+        return conflitos.isEmpty() ? null : String.join(" ", conflitos);
+    }
+
+    private Agendamento novoAgendamento(CadastrarAgendamentoDto item, String codigoSerie) {
+        return Agendamento.builder()
+                .paciente(pacienteRepository.getReferenceById(item.getIdPaciente()))
+                .colaborador(colaboradorRepository.getReferenceById(item.getIdColaborador()))
+                .unidadeSaude(unidadeSaudeRepository.getReferenceById(item.getIdUnidadeSaude()))
+                .sala(item.getIdSala() != null ? salaRepository.getReferenceById(item.getIdSala()) : null)
+                .dataHoraInicio(item.getDataHoraInicio())
+                .dataHoraFim(fim(item))
+                .tipo(item.getTipo())
+                .status(StatusAgendamento.AGENDADO)
+                .observacoes(item.getObservacoes())
+                .codigoSerie(codigoSerie)
+                .build();
+    }
+
+    private LocalDateTime fim(CadastrarAgendamentoDto item) {
+        return item.getDataHoraInicio().plusMinutes(item.getTipo().getDuracaoPadraoMinutos());
+    }
+
+    private static Set<Long> coletar(List<CadastrarAgendamentoDto> itens, Function<CadastrarAgendamentoDto, Long> id) {
+        Set<Long> ids = new HashSet<>();
+        itens.forEach(item -> {
+            if (id.apply(item) != null) {
+                ids.add(id.apply(item));
+            }
+        });
+        return ids;
+    }
+
+    // Intervalos ocupados de cada recurso: os do banco (com id) e os itens já aceitos do lote (sem id)
+    private static final class Agenda {
+        private final Map<Long, List<IntervaloRecursosDto>> porColaborador = new HashMap<>();
+        private final Map<Long, List<IntervaloRecursosDto>> porPaciente = new HashMap<>();
+        private final Map<Long, List<IntervaloRecursosDto>> porSala = new HashMap<>();
+
+        void adicionar(IntervaloRecursosDto intervalo) {
+            porColaborador.computeIfAbsent(intervalo.getIdColaborador(), id -> new ArrayList<>()).add(intervalo);
+            porPaciente.computeIfAbsent(intervalo.getIdPaciente(), id -> new ArrayList<>()).add(intervalo);
+            if (intervalo.getIdSala() != null) {
+                porSala.computeIfAbsent(intervalo.getIdSala(), id -> new ArrayList<>()).add(intervalo);
+            }
+        }
+
+        void conflito(Map<Long, List<IntervaloRecursosDto>> porRecurso, Long id, LocalDateTime inicio, LocalDateTime fim,
+                      String mensagemAgendado, String recurso, List<String> conflitos) {
+            for (IntervaloRecursosDto ocupado : porRecurso.getOrDefault(id, List.of())) {
+                if (ocupado.getDataHoraInicio().isBefore(fim) && ocupado.getDataHoraFim().isAfter(inicio)) {
+                    conflitos.add(ocupado.getIdAgendamento() != null
+                            ? mensagemAgendado
+                            : recurso + " já está em outro item deste lote no mesmo horário.");
+                    return;
+                }
+            }
+        }
+    }
+}
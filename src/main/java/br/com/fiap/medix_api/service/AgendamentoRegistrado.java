@@ -0,0 +1,15 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.ValidacaoAgendamentoDto;
+import br.com.fiap.medix_api.model.Agendamento;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Agendamento recém-criado (associações como referências não carregadas) e os dados lidos na validação,
+// suficientes para montar a resposta sem novas consultas
+@Getter
+@AllArgsConstructor
+public class AgendamentoRegistrado {
+    private final Agendamento agendamento;
+    private final ValidacaoAgendamentoDto validacao;
+}
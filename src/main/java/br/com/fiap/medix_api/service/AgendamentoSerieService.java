@@ -0,0 +1,100 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.OcorrenciaSerieDto;
+import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
+import br.com.fiap.medix_api.dto.request.CadastrarSerieAgendamentoDto;
+import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Séries recorrentes (ex: retornos semanais de fisioterapia). As ocorrências são expandidas aqui e gravadas
+ * pelo {@link AgendamentoLoteService}: uma validação para a série inteira em vez de um agendamento por vez.
+ * As datas fora da jornada (feriados, férias) ou em conflito voltam como itens rejeitados, sem impedir as demais.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgendamentoSerieService {
+
+    private static final int MAXIMO_OCORRENCIAS = 100;
+
+    private final AgendamentoLoteService agendamentoLoteService;
+    private final AgendamentoRepository agendamentoRepository;
+    private final DisponibilidadeMaterializadaService disponibilidadeMaterializada;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public SerieRegistrada agendarSerie(CadastrarSerieAgendamentoDto dto) {
+        String codigoSerie = UUID.randomUUID().toString();
+        List<ResultadoItemLote> resultados = agendamentoLoteService.agendarLote(expandir(dto), false, codigoSerie);
+        return new SerieRegistrada(codigoSerie, resultados);
+    }
+
+    // Cancela as ocorrências futuras ainda ativas; as já realizadas ou canceladas ficam como estão.
+    // Os eventos saem só para as linhas que o UPDATE alterou: uma ocorrência cancelada sozinha por outra
+    // transação entre uma leitura prévia e o UPDATE não pode ser liberada (e realocada) duas vezes
+    @Transactional
+    public int cancelarSerie(String codigoSerie, StatusAgendamento status) {
+        // Na precisão da coluna (TIMESTAMP de microssegundos), para a consulta reencontrar o valor gravado
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int cancelados = agendamentoRepository.cancelarSerie(codigoSerie, status, agora);
+        if (cancelados == 0) {
+            throw new EntityNotFoundException("Série não encontrada ou sem ocorrências futuras ativas.");
+        }
+        List<OcorrenciaSerieDto> ocorrencias = agendamentoRepository.findOcorrenciasCanceladasDaSerie(codigoSerie, status, agora);
+
+        for (OcorrenciaSerieDto ocorrencia : ocorrencias) {
+            disponibilidadeMaterializada.aplicar(ocorrencia.getIdColaborador(), ocorrencia.getIdUnidadeSaudeColaborador(),
+                    ocorrencia.getIdEspecialidade(), ocorrencia.getDataHoraInicio(), ocorrencia.getDataHoraFim(), false);
+            eventPublisher.publishEvent(new AgendamentoAlteradoEvent(ocorrencia.getIdAgendamento(), ocorrencia.getIdColaborador(),
+                    ocorrencia.getIdUnidadeSaudeColaborador(), ocorrencia.getIdEspecialidade(), ocorrencia.getIdUnidadeSaude(),
+                    ocorrencia.getIdSala() != null ? ocorrencia.getIdUnidadeSaude() : null,
+                    ocorrencia.getDataHoraInicio(), ocorrencia.getDataHoraFim(), status));
+        }
+        return cancelados;
+    }
+
+    private List<CadastrarAgendamentoDto> expandir(CadastrarSerieAgendamentoDto dto) {
+        if ((dto.getQuantidade() == null) == (dto.getDataFim() == null)) {
+            throw new IllegalArgumentException("Informe a quantidade de ocorrências ou a data final da série (apenas um dos dois).");
+        }
+        CadastrarAgendamentoDto primeira = dto.getAgendamento();
+        if (primeira.getIdColaborador() == null) {
+            throw new IllegalArgumentException("Informe o colaborador da série: a atribuição automática vale apenas para o agendamento individual.");
+        }
+        List<CadastrarAgendamentoDto> ocorrencias = new ArrayList<>();
+        for (int n = 0; ; n++) {
+            LocalDateTime inicio = dto.getFrequencia().ocorrencia(primeira.getDataHoraInicio(), n);
+            if (dto.getQuantidade() != null ? n >= dto.getQuantidade() : inicio.toLocalDate().isAfter(dto.getDataFim())) {
+                break;
+            }
+            if (n >= MAXIMO_OCORRENCIAS) {
+                throw new IllegalArgumentException("A série aceita no máximo " + MAXIMO_OCORRENCIAS + " ocorrências.");
+            }
+            CadastrarAgendamentoDto ocorrencia = new CadastrarAgendamentoDto();
+            ocorrencia.setIdPaciente(primeira.getIdPaciente());
+            ocorrencia.setIdColaborador(primeira.getIdColaborador());
+            ocorrencia.setIdUnidadeSaude(primeira.getIdUnidadeSaude());
+            ocorrencia.setIdSala(primeira.getIdSala());
+            ocorrencia.setDataHoraInicio(inicio);
+            ocorrencia.setTipo(primeira.getTipo());
+            ocorrencia.setObservacoes(primeira.getObservacoes());
+            ocorrencias.add(ocorrencia);
+        }
+        if (ocorrencias.size() < 2) {
+            throw new IllegalArgumentException("A série deve ter pelo menos 2 ocorrências.");
+        }
+        return ocorrencias;
+    }
+}
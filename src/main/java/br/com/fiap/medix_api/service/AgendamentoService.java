@@ -1,62 +1,126 @@
 package br.com.fiap.medix_api.service;
 
+import br.com.fiap.medix_api.dto.projection.AgendamentoResumoDto;
+import br.com.fiap.medix_api.dto.projection.ValidacaoAgendamentoDto;
 import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
 import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.exception.VersaoDesatualizadaException;
 import br.com.fiap.medix_api.model.*;
 import br.com.fiap.medix_api.repository.*;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class AgendamentoService {
 
+    // Cancelados e realizados são finais
+    private static final List<StatusAgendamento> STATUS_ALTERAVEIS =
+            List.of(StatusAgendamento.AGENDADO, StatusAgendamento.CONFIRMADO, StatusAgendamento.NAO_COMPARECEU);
+
     private final AgendamentoRepository agendamentoRepository;
     private final PacienteRepository pacienteRepository;
     private final ColaboradorRepository colaboradorRepository;
     private final UnidadeSaudeRepository unidadeSaudeRepository;
     private final SalaRepository salaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DisponibilidadeMaterializadaService disponibilidadeMaterializada;
+    private final CalendarioJornada calendario;
+    private final TravaAgenda travaAgenda;
+    private final ReservasTemporarias reservas;
+    private final AtribuicaoColaborador atribuicao;
 
-    // ... (Mantenha o método 'agendar' e 'validarDisponibilidade' como estavam) ...
-    // Vou omiti-los aqui para economizar espaço, mas você já tem eles do passo anterior.
-    // Se precisar que eu reenvie tudo completo, me avise.
+    /**
+     * Caminho de escrita com duas idas ao banco: uma consulta valida paciente, colaborador, unidade, sala
+     * e os três conflitos de horário de uma vez, e o INSERT usa referências (sem carregar as entidades).
+     * O id vem do bloco de sequência já reservado em memória.
+     */
+    @Transactional
+    public AgendamentoRegistrado agendar(CadastrarAgendamentoDto dto) {
+        return registrar(dto, colaboradorDe(dto), null);
+    }
 
+    // Reserva temporária do horário: valida como um agendamento, mas só ocupa o horário em memória até expirar.
+    // Usa as mesmas travas do agendar, então nenhum agendamento ainda não commitado escapa da validação
     @Transactional
-    public Agendamento agendar(CadastrarAgendamentoDto dto) {
-        // ... (seu código de agendar existente) ...
-        // Só para constar: certifique-se de que ele está aqui
-        Paciente paciente = pacienteRepository.findByIdAndDeletedIs(dto.getIdPaciente(), 0)
-                .orElseThrow(() -> new EntityNotFoundException("Paciente não encontrado."));
-        Colaborador colaborador = colaboradorRepository.findByIdAndDeletedIs(dto.getIdColaborador(), 0)
-                .orElseThrow(() -> new EntityNotFoundException("Colaborador não encontrado."));
-        UnidadeSaude unidade = unidadeSaudeRepository.findByIdAndDeletedIs(dto.getIdUnidadeSaude(), 0)
-                .orElseThrow(() -> new EntityNotFoundException("Unidade de Saúde não encontrada."));
-
-        Sala sala = null;
-        if (dto.getIdSala() != null) {
-            sala = salaRepository.findById(dto.getIdSala())
-                    .orElseThrow(() -> new EntityNotFoundException("Sala não encontrada."));
-            if (!sala.getUnidadeSaude().getId().equals(unidade.getId())) {
-                throw new IllegalArgumentException("A sala informada não pertence a esta unidade de saúde.");
-            }
+    public Reserva reservar(CadastrarAgendamentoDto dto) {
+        Long colaboradorId = colaboradorDe(dto);
+        LocalDateTime inicio = dto.getDataHoraInicio();
+        LocalDateTime fim = inicio.plusMinutes(dto.getTipo().getDuracaoPadraoMinutos());
+
+        travaAgenda.travarAteFimDaTransacao(colaboradorId, dto.getIdPaciente(), dto.getIdSala());
+        verificarReservas(colaboradorId, dto, inicio, fim, null);
+        ValidacaoAgendamentoDto validacao = agendamentoRepository.validarAgendamento(dto.getIdPaciente(), colaboradorId,
+                dto.getIdUnidadeSaude(), dto.getIdSala(), inicio, fim);
+        validar(validacao, dto, colaboradorId, inicio, fim);
+
+        return reservas.reservar(Reserva.builder()
+                .idPaciente(dto.getIdPaciente())
+                .idColaborador(colaboradorId)
+                .idUnidadeSaude(dto.getIdUnidadeSaude())
+                .idSala(dto.getIdSala())
+                .idUnidadeSaudeColaborador(validacao.getIdUnidadeSaudeColaborador())
+                .idEspecialidade(validacao.getIdEspecialidadeColaborador())
+                .dataHoraInicio(inicio)
+                .dataHoraFim(fim)
+                .tipo(dto.getTipo())
+                .observacoes(dto.getObservacoes())
+                .build());
+    }
+
+    // Agenda exatamente o horário reservado; a reserva só é liberada depois do commit
+    @Transactional
+    public AgendamentoRegistrado confirmarReserva(String token) {
+        Reserva reserva = reservas.buscar(token);
+        if (reserva == null) {
+            throw new EntityNotFoundException("Reserva não encontrada ou expirada.");
+        }
+        CadastrarAgendamentoDto dto = new CadastrarAgendamentoDto();
+        dto.setIdPaciente(reserva.getIdPaciente());
+        dto.setIdUnidadeSaude(reserva.getIdUnidadeSaude());
+        dto.setIdSala(reserva.getIdSala());
+        dto.setDataHoraInicio(reserva.getDataHoraInicio());
+        dto.setTipo(reserva.getTipo());
+        dto.setObservacoes(reserva.getObservacoes());
+        return registrar(dto, reserva.getIdColaborador(), token);
+    }
+
+    public void cancelarReserva(String token) {
+        if (!reservas.liberar(token)) {
+            throw new EntityNotFoundException("Reserva não encontrada ou expirada.");
         }
+    }
 
+    // 'colaboradorId' é o informado no dto ou o atribuído pelo servidor; o dto do cliente não é alterado
+    private AgendamentoRegistrado registrar(CadastrarAgendamentoDto dto, Long colaboradorId, String tokenReserva) {
         LocalDateTime inicio = dto.getDataHoraInicio();
         LocalDateTime fim = inicio.plusMinutes(dto.getTipo().getDuracaoPadraoMinutos());
 
-        validarDisponibilidade(colaborador.getId(), paciente.getId(), (sala != null ? sala.getId() : null), inicio, fim);
+        // Verificação e inserção sob a trava dos recursos, mantida até o commit: outro agendamento ou reserva
+        // do mesmo colaborador, paciente ou sala só valida depois que este já estiver visível
+        travaAgenda.travarAteFimDaTransacao(colaboradorId, dto.getIdPaciente(), dto.getIdSala());
+        verificarReservas(colaboradorId, dto, inicio, fim, tokenReserva);
+        ValidacaoAgendamentoDto validacao = agendamentoRepository.validarAgendamento(dto.getIdPaciente(), colaboradorId,
+                dto.getIdUnidadeSaude(), dto.getIdSala(), inicio, fim);
+        validar(validacao, dto, colaboradorId, inicio, fim);
 
         Agendamento agendamento = Agendamento.builder()
-                .paciente(paciente)
-                .colaborador(colaborador)
-                .unidadeSaude(unidade)
-                .sala(sala)
+                .paciente(pacienteRepository.getReferenceById(dto.getIdPaciente()))
+                .colaborador(colaboradorRepository.getReferenceById(colaboradorId))
+                .unidadeSaude(unidadeSaudeRepository.getReferenceById(dto.getIdUnidadeSaude()))
+                .sala(dto.getIdSala() != null ? salaRepository.getReferenceById(dto.getIdSala()) : null)
                 .dataHoraInicio(inicio)
                 .dataHoraFim(fim)
                 .tipo(dto.getTipo())
@@ -64,63 +128,158 @@ public class AgendamentoService {
                 .observacoes(dto.getObservacoes())
                 .build();
 
-        return agendamentoRepository.save(agendamento);
+        Agendamento salvo = agendamentoRepository.save(agendamento);
+        if (tokenReserva != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reservas.liberar(tokenReserva);
+                }
+            });
+        }
+        disponibilidadeMaterializada.aplicar(salvo, validacao.getIdUnidadeSaudeColaborador(), validacao.getIdEspecialidadeColaborador(), true);
+        eventPublisher.publishEvent(AgendamentoAlteradoEvent.de(salvo, validacao.getIdUnidadeSaudeColaborador(), validacao.getIdEspecialidadeColaborador()));
+        return new AgendamentoRegistrado(salvo, validacao);
     }
 
-    private void validarDisponibilidade(Long colabId, Long pacId, Long salaId, LocalDateTime inicio, LocalDateTime fim) {
-        if (agendamentoRepository.existsConflitoColaborador(colabId, inicio, fim)) {
-            throw new IllegalStateException("O colaborador já possui agendamento neste horário.");
+    // Sem colaborador, o servidor escolhe um profissional livre da especialidade no horário (ver AtribuicaoColaborador)
+    private Long colaboradorDe(CadastrarAgendamentoDto dto) {
+        if (dto.getIdColaborador() != null) {
+            return dto.getIdColaborador();
         }
-        if (agendamentoRepository.existsConflitoPaciente(pacId, inicio, fim)) {
-            throw new IllegalStateException("O paciente já possui agendamento neste horário.");
+        if (dto.getIdEspecialidade() == null) {
+            throw new IllegalArgumentException("Informe o colaborador ou a especialidade do agendamento.");
         }
-        if (salaId != null && agendamentoRepository.existsConflitoSala(salaId, inicio, fim)) {
-            throw new IllegalStateException("A sala já está ocupada neste horário.");
+        return atribuicao.escolher(dto.getIdUnidadeSaude(), dto.getIdEspecialidade(), dto.getTipo(), dto.getDataHoraInicio());
+    }
+
+    // Reservas temporárias só existem em memória, então esta verificação é a definitiva para elas.
+    // Conflitos com agendamentos são decididos pelo validarAgendamento no banco, nunca pelo IndiceAgenda,
+    // que é uma aproximação em grânulos usada só para listar horários
+    private void verificarReservas(Long colaboradorId, CadastrarAgendamentoDto dto, LocalDateTime inicio, LocalDateTime fim, String tokenReserva) {
+        reservas.verificarLivre(colaboradorId, dto.getIdSala(), inicio, fim, tokenReserva);
+    }
+
+    // Registros inexistentes respondem 404; os conflitos de horário são reunidos em uma única mensagem
+    private void validar(ValidacaoAgendamentoDto validacao, CadastrarAgendamentoDto dto, Long colaboradorId, LocalDateTime inicio, LocalDateTime fim) {
+        if (validacao.getNomePaciente() == null) {
+            throw new EntityNotFoundException("Paciente não encontrado.");
+        }
+        if (validacao.getNomeColaborador() == null) {
+            throw new EntityNotFoundException("Colaborador não encontrado.");
+        }
+        if (validacao.getNomeUnidadeSaude() == null) {
+            throw new EntityNotFoundException("Unidade de Saúde não encontrada.");
+        }
+        if (dto.getIdSala() != null) {
+            if (validacao.getNomeSala() == null) {
+                throw new EntityNotFoundException("Sala não encontrada.");
+            }
+            if (!validacao.getIdUnidadeSaudeSala().equals(dto.getIdUnidadeSaude())) {
+                throw new IllegalArgumentException("A sala informada não pertence a esta unidade de saúde.");
+            }
+        }
+        if (dto.getIdEspecialidade() != null && !dto.getIdEspecialidade().equals(validacao.getIdEspecialidadeColaborador())) {
+            throw new IllegalArgumentException("O colaborador informado não atende esta especialidade.");
+        }
+        if (!calendario.isNaJornada(colaboradorId, validacao.getIdUnidadeSaudeColaborador(), inicio, fim)) {
+            throw new IllegalStateException("O horário está fora da jornada do colaborador.");
+        }
+
+        List<String> conflitos = new ArrayList<>();
+        if (validacao.getConflitosColaborador() > 0) {
+            conflitos.add("O colaborador já possui agendamento neste horário.");
+        }
+        if (validacao.getConflitosPaciente() > 0) {
+            conflitos.add("O paciente já possui agendamento neste horário.");
+        }
+        if (validacao.getConflitosSala() > 0) {
+            conflitos.add("A sala já está ocupada neste horário.");
+        }
+        if (!conflitos.isEmpty()) {
+            throw new IllegalStateException(String.join(" ", conflitos));
         }
     }
 
-    public List<Agendamento> listarPorPaciente(Long pacienteId) {
-        return agendamentoRepository.findByPacienteId(pacienteId);
+    @Transactional(readOnly = true)
+    public Pagina<AgendamentoResumoDto> listarPorPaciente(Long pacienteId, String cursor, Integer tamanho) {
+        Pagina.ChaveInicioId chave = Pagina.chaveDoCursor(cursor);
+        int limite = Pagina.limitar(tamanho);
+        return Pagina.de(agendamentoRepository.findResumosPorPaciente(pacienteId, chave.inicio(), chave.id(), limite + 1), limite,
+                resumo -> Pagina.cursor(resumo.getDataHoraInicio(), resumo.getId()));
     }
 
-    public List<Agendamento> listarPorColaborador(Long colaboradorId) {
-        return agendamentoRepository.findByColaboradorId(colaboradorId);
+    @Transactional(readOnly = true)
+    public Pagina<AgendamentoResumoDto> listarPorColaborador(Long colaboradorId, String cursor, Integer tamanho) {
+        Pagina.ChaveInicioId chave = Pagina.chaveDoCursor(cursor);
+        int limite = Pagina.limitar(tamanho);
+        return Pagina.de(agendamentoRepository.findResumosPorColaborador(colaboradorId, chave.inicio(), chave.id(), limite + 1), limite,
+                resumo -> Pagina.cursor(resumo.getDataHoraInicio(), resumo.getId()));
     }
 
+    // Entidade com os relacionamentos já carregados, para quem altera o agendamento
     public Agendamento buscarPorId(Long id) {
-        return agendamentoRepository.findById(id)
+        return agendamentoRepository.findComRelacionamentosPorId(id)
+                .orElseThrow(() -> new EntityNotFoundException("Agendamento não encontrado."));
+    }
+
+    // Somente leitura: a resposta sai direto da consulta, sem montar a entidade
+    @Transactional(readOnly = true)
+    public AgendamentoResumoDto buscarResumoPorId(Long id) {
+        return agendamentoRepository.findResumoPorId(id)
                 .orElseThrow(() -> new EntityNotFoundException("Agendamento não encontrado."));
     }
 
     // NOVO: Busca a próxima consulta
-    public Optional<Agendamento> buscarProximaConsultaPaciente(Long pacienteId) {
+    @Transactional(readOnly = true)
+    public Optional<AgendamentoResumoDto> buscarProximaConsultaPaciente(Long pacienteId) {
         // Consideramos "próxima" apenas as que estão AGENDADO ou CONFIRMADO
         List<StatusAgendamento> statusValidos = List.of(StatusAgendamento.AGENDADO, StatusAgendamento.CONFIRMADO);
-        return agendamentoRepository.findFirstByPacienteIdAndDataHoraInicioAfterAndStatusInOrderByDataHoraInicioAsc(
-                pacienteId, LocalDateTime.now(), statusValidos
-        );
+        return agendamentoRepository.findProximoResumoDoPaciente(pacienteId, LocalDateTime.now(), statusValidos);
     }
 
     @Transactional
     public Agendamento atualizarStatus(Long id, StatusAgendamento novoStatus) {
+        return atualizarStatus(id, novoStatus, null);
+    }
+
+    // Transição atômica (UPDATE condicional, sem ler antes de gravar). 'versoesAceitas' vem do If-Match:
+    // nulo não confere a versão; vazio (nenhuma ETag forte) nunca coincide
+    @Transactional
+    public Agendamento atualizarStatus(Long id, StatusAgendamento novoStatus, Set<Long> versoesAceitas) {
+        LocalDateTime agora = LocalDateTime.now();
+        int alterados;
+        if (versoesAceitas == null) {
+            alterados = agendamentoRepository.transicionarStatus(id, novoStatus, STATUS_ALTERAVEIS, agora);
+        } else if (versoesAceitas.isEmpty()) {
+            alterados = 0;
+        } else {
+            alterados = agendamentoRepository.transicionarStatusNaVersao(id, novoStatus, STATUS_ALTERAVEIS, versoesAceitas, agora);
+        }
         Agendamento agendamento = buscarPorId(id);
-        // Regra básica: não pode reativar um cancelado/realizado (opcional)
-        if (List.of(StatusAgendamento.CANCELADO_PACIENTE, StatusAgendamento.CANCELADO_COLABORADOR, StatusAgendamento.REALIZADO)
-                .contains(agendamento.getStatus())) {
+        if (alterados == 0) {
+            // Só o caminho de falha precisa saber o motivo
+            if (versoesAceitas != null && !versoesAceitas.contains(agendamento.getVersao())) {
+                throw new VersaoDesatualizadaException("O agendamento foi alterado por outra requisição (versão atual: " + agendamento.getVersao() + ").");
+            }
             throw new IllegalStateException("Não é possível alterar o status de um agendamento já finalizado ou cancelado.");
         }
-        agendamento.setStatus(novoStatus);
-        return agendamentoRepository.save(agendamento);
+        if (novoStatus.isCancelado()) {
+            // Libera o horário na projeção dentro da mesma transação do cancelamento
+            disponibilidadeMaterializada.aplicar(agendamento, false);
+        }
+        eventPublisher.publishEvent(AgendamentoAlteradoEvent.de(agendamento));
+        return agendamento;
     }
 
     // NOVO: Atalhos para cancelamento
     @Transactional
-    public Agendamento cancelarPorPaciente(Long id) {
-        return atualizarStatus(id, StatusAgendamento.CANCELADO_PACIENTE);
+    public Agendamento cancelarPorPaciente(Long id, Set<Long> versoesAceitas) {
+        return atualizarStatus(id, StatusAgendamento.CANCELADO_PACIENTE, versoesAceitas);
     }
 
     @Transactional
-    public Agendamento cancelarPorColaborador(Long id) {
-        return atualizarStatus(id, StatusAgendamento.CANCELADO_COLABORADOR);
+    public Agendamento cancelarPorColaborador(Long id, Set<Long> versoesAceitas) {
+        return atualizarStatus(id, StatusAgendamento.CANCELADO_COLABORADOR, versoesAceitas);
     }
 }
\ No newline at end of file
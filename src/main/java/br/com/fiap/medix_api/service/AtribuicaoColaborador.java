@@ -0,0 +1,156 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto;
+import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.model.Colaborador;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escolha do colaborador quando o agendamento informa só a especialidade. Os candidatos são os profissionais
+ * livres no horário (passo 5 da disponibilidade, já servido da memória); entre eles, MENOS_AGENDAMENTOS escolhe
+ * quem tem menos agendamentos ativos no dia e RODIZIO alterna pela ordem dos ids. Os dois partem de uma posição
+ * que gira a cada escolha da (unidade, especialidade), então empates não caem sempre no mesmo profissional.
+ * Os contadores por colaborador-dia cobrem só o horizonte de agendamento (de hoje até 'horizonte-dias'): são
+ * carregados ao subir, mantidos pelos eventos de agendamento e, todo dia, perdem o dia que passou e ganham o que
+ * entrou no horizonte. Depois dele todos contam zero e a escolha é só o rodízio. Como só orientam a escolha
+ * (os conflitos são validados no banco), uma diferença pontual na contagem não compromete o agendamento.
+ */
+@Slf4j
+@Component
+public class AtribuicaoColaborador {
+
+    public enum Politica { MENOS_AGENDAMENTOS, RODIZIO }
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final DisponibilidadeService disponibilidade;
+    private final Politica politica;
+
+    private final int horizonteDias;
+
+    // Quantidade de agendamentos ativos de cada colaborador no dia (dias sem agendamento não têm entrada)
+    private final Map<ColaboradorDia, Integer> agendamentosPorDia = new ConcurrentHashMap<>();
+    private final Map<Grupo, AtomicLong> rodizio = new ConcurrentHashMap<>();
+    // Último dia já carregado; eventos de dias depois dele são ignorados até o dia entrar no horizonte
+    private volatile LocalDate ultimoDia = LocalDate.MIN;
+
+    public AtribuicaoColaborador(AgendamentoRepository agendamentoRepository,
+                                 DisponibilidadeService disponibilidade,
+                                 @Value("${medix.agenda.atribuicao.politica:MENOS_AGENDAMENTOS}") Politica politica,
+                                 @Value("${medix.agenda.atribuicao.horizonte-dias:30}") int horizonteDias) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.disponibilidade = disponibilidade;
+        this.politica = politica;
+        this.horizonteDias = horizonteDias;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        carregarAte(LocalDate.now().plusDays(horizonteDias));
+    }
+
+    // Conta os agendamentos dos dias ainda não carregados até 'ate' (na subida, de hoje em diante)
+    private void carregarAte(LocalDate ate) {
+        LocalDate de = ultimoDia.equals(LocalDate.MIN) ? LocalDate.now() : ultimoDia.plusDays(1);
+        if (de.isAfter(ate)) {
+            return;
+        }
+        try {
+            List<IntervaloAgendamentoDto> intervalos = agendamentoRepository.findIntervalosAtivosEntre(de.atStartOfDay(), ate.plusDays(1).atStartOfDay());
+            intervalos.stream()
+                    .filter(i -> !i.getDataHoraInicio().toLocalDate().isBefore(de))
+                    .forEach(i -> incrementar(new ColaboradorDia(i.getIdColaborador(), i.getDataHoraInicio().toLocalDate())));
+            ultimoDia = ate;
+            log.info("Contadores de atribuição carregados de {} a {} com {} agendamentos ({} colaborador-dias).",
+                    de, ate, intervalos.size(), agendamentosPorDia.size());
+        } catch (DataAccessException | TransactionException e) {
+            // Sem a carga, os dias faltantes partem de zero; a próxima limpeza tenta de novo
+            log.warn("Não foi possível carregar os contadores de atribuição: {}", e.getMessage());
+        }
+    }
+
+    // Colaborador livre da especialidade na unidade durante toda a duração do tipo, segundo a política
+    public Long escolher(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, LocalDateTime inicio) {
+        List<Long> livres = disponibilidade.listarProfissionaisDisponiveis(unidadeId, especialidadeId, tipo, null, inicio).stream()
+                .map(Colaborador::getId)
+                .sorted()
+                .toList();
+        if (livres.isEmpty()) {
+            throw new IllegalStateException("Nenhum profissional da especialidade está livre neste horário na unidade.");
+        }
+
+        int deslocamento = (int) Math.floorMod(rodizio.computeIfAbsent(new Grupo(unidadeId, especialidadeId), g -> new AtomicLong())
+                .getAndIncrement(), (long) livres.size());
+        if (politica == Politica.RODIZIO) {
+            return livres.get(deslocamento);
+        }
+        // Percorre a partir do deslocamento; o primeiro com a menor carga vence
+        LocalDate dia = inicio.toLocalDate();
+        Long escolhido = null;
+        int menorCarga = Integer.MAX_VALUE;
+        for (int n = 0; n < livres.size(); n++) {
+            Long colaboradorId = livres.get((deslocamento + n) % livres.size());
+            int carga = quantidade(colaboradorId, dia);
+            if (carga < menorCarga) {
+                escolhido = colaboradorId;
+                menorCarga = carga;
+            }
+        }
+        return escolhido;
+    }
+
+    public int quantidade(Long colaboradorId, LocalDate dia) {
+        return agendamentosPorDia.getOrDefault(new ColaboradorDia(colaboradorId, dia), 0);
+    }
+
+    // Aplicado somente após o commit. Um agendamento novo sempre chega como AGENDADO e o cancelamento só acontece
+    // uma vez; as demais transições (confirmação, encerramento) não mudam a contagem
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarAgendamento(AgendamentoAlteradoEvent evento) {
+        LocalDate dia = evento.getDataHoraInicio().toLocalDate();
+        if (dia.isBefore(LocalDate.now()) || dia.isAfter(ultimoDia)) {
+            return;
+        }
+        ColaboradorDia chave = new ColaboradorDia(evento.getIdColaborador(), dia);
+        if (evento.getStatus() == StatusAgendamento.AGENDADO) {
+            incrementar(chave);
+        } else if (!evento.isAtivo()) {
+            agendamentosPorDia.computeIfPresent(chave, (c, quantidade) -> quantidade > 1 ? quantidade - 1 : null);
+        }
+    }
+
+    // Descarta os dias que já passaram e carrega o que entrou no horizonte
+    @Scheduled(cron = "${medix.agenda.atribuicao.limpeza-cron:0 5 0 * * *}")
+    public void limpar() {
+        LocalDate hoje = LocalDate.now();
+        agendamentosPorDia.keySet().removeIf(chave -> chave.dia().isBefore(hoje));
+        carregarAte(hoje.plusDays(horizonteDias));
+    }
+
+    private void incrementar(ColaboradorDia chave) {
+        agendamentosPorDia.merge(chave, 1, Integer::sum);
+    }
+
+    private record ColaboradorDia(Long idColaborador, LocalDate dia) {
+    }
+
+    private record Grupo(Long idUnidadeSaude, Long idEspecialidade) {
+    }
+}
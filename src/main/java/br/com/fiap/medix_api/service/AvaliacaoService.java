@@ -11,7 +11,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 @Service
 @AllArgsConstructor
@@ -31,12 +30,13 @@ public class AvaliacaoService {
         return avaliacaoRepository.save(avaliacao);
     }
 
-    public List<Avaliacao> listar(String status) {
+    // Vai para a réplica: a entidade não está no cache de segundo nível nem carrega entidades que estejam
+    @Transactional(readOnly = true)
+    public Pagina<Avaliacao> listar(String status, String cursor, Integer tamanho) {
         // Retorna avaliações ativas ou deletadas com base no parâmetro 'status'
-        if ("deletado".equalsIgnoreCase(status)) { //
-            return avaliacaoRepository.findAllByDeletedIsOne();
-        }
-        return avaliacaoRepository.findAllByDeletedIsZero();
+        int deleted = "deletado".equalsIgnoreCase(status) ? 1 : 0;
+        int limite = Pagina.limitar(tamanho);
+        return Pagina.de(avaliacaoRepository.findPagina(deleted, Pagina.idDoCursor(cursor), limite + 1), limite, item -> Pagina.cursor(item.getId()));
     }
 
     public Avaliacao buscarPorId(Long id) {
@@ -0,0 +1,230 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.response.RespostaEstatisticasCacheDto;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.event.ColaboradorAlteradoEvent;
+import br.com.fiap.medix_api.event.JornadaAlteradaEvent;
+import br.com.fiap.medix_api.event.ReservaAlteradaEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache das respostas da disponibilidade (passos 1 a 5, visão mensal e próximos horários).
+ * É limitado por tamanho e por tempo de vida, e as entradas são removidas com precisão pelos
+ * eventos de agendamento e de colaborador: só caem as respostas cujo escopo (unidade,
+ * especialidade e dias, ver {@link ChaveDisponibilidade}) é tocado pela alteração.
+ * As chaves ficam indexadas pelo escopo (unidade, especialidade) e, nas consultas com sala, pela unidade,
+ * então um agendamento só percorre as chaves dos escopos que o abrangem, sem varrer o cache inteiro.
+ * Cada escopo tem seu contador de geração, e um cálculo só é descartado se o escopo dele foi invalidado.
+ * O índice muda dentro do compute de cada chave (e do evictionListener), sempre junto com a entrada.
+ * Os objetos guardados são compartilhados entre requisições e não devem ser alterados por quem lê.
+ */
+@Component
+public class CacheDisponibilidade {
+
+    private final boolean habilitado;
+    private final Cache<ChaveDisponibilidade, Object> cache;
+    // Chaves em cache por escopo e, para as consultas com sala, por unidade
+    private final Map<Escopo, Set<ChaveDisponibilidade>> porEscopo = new ConcurrentHashMap<>();
+    private final Map<Long, Set<ChaveDisponibilidade>> comSalaPorUnidade = new ConcurrentHashMap<>();
+    // Incrementados a cada invalidação: um cálculo iniciado antes dela não é guardado (evita gravar resposta velha)
+    private final Map<Escopo, AtomicLong> geracaoPorEscopo = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> geracaoSalasPorUnidade = new ConcurrentHashMap<>();
+    private final AtomicLong geracaoGeral = new AtomicLong();
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    public CacheDisponibilidade(@Value("${medix.disponibilidade.cache.habilitado:true}") boolean habilitado,
+                                @Value("${medix.disponibilidade.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                                @Value("${medix.disponibilidade.cache.ttl-segundos:60}") long ttlSegundos) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                // Síncrono e atômico com a remoção, então o índice nunca perde uma chave que ainda está em cache
+                .evictionListener((ChaveDisponibilidade chave, Object valor, RemovalCause causa) -> desindexar(chave))
+                .recordStats()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T obter(ChaveDisponibilidade chave, Supplier<T> calcular) {
+        if (!habilitado) {
+            return calcular.get();
+        }
+        Object guardado = cache.getIfPresent(chave);
+        if (guardado != null) {
+            return (T) guardado;
+        }
+        long geracaoInicial = geracao(chave);
+        T calculado = calcular.get();
+        if (calculado != null) {
+            cache.asMap().compute(chave, (k, atual) -> {
+                // Indexa antes de conferir a geração: uma invalidação concorrente ou já vê a chave no índice,
+                // ou já mudou a geração e o valor calculado é descartado
+                indexar(k);
+                if (geracao(k) != geracaoInicial) {
+                    if (atual == null) {
+                        desindexar(k);
+                    }
+                    return atual;
+                }
+                return calculado;
+            });
+        }
+        return calculado;
+    }
+
+    // Aplicado após o commit, quando a nova agenda já é visível para quem recalcular
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarAgendamento(AgendamentoAlteradoEvent evento) {
+        invalidarAgenda(evento.getIdUnidadeSaude(), evento.getIdEspecialidade(), evento.getIdUnidadeSaudeSala(),
+                chave -> chave.isAfetadaPorAgenda(evento.getIdUnidadeSaude(), evento.getIdEspecialidade(), evento.getIdUnidadeSaudeSala(),
+                        evento.getDataHoraInicio().toLocalDate(), evento.getDataHoraFim().toLocalDate()));
+    }
+
+    // Reservas só existem em memória: invalida na hora, sem esperar transação
+    @EventListener
+    public void aoAlterarReserva(ReservaAlteradaEvent evento) {
+        invalidarAgenda(evento.getIdUnidadeSaude(), evento.getIdEspecialidade(), evento.getIdUnidadeSaudeSala(),
+                chave -> chave.isAfetadaPorAgenda(evento.getIdUnidadeSaude(), evento.getIdEspecialidade(), evento.getIdUnidadeSaudeSala(),
+                        evento.getDataHoraInicio().toLocalDate(), evento.getDataHoraFim().toLocalDate()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarColaborador(ColaboradorAlteradoEvent evento) {
+        Set<Escopo> escopos = escoposQueAbrangem(evento.getIdUnidadeSaude(), evento.getIdEspecialidade());
+        escopos.addAll(escoposQueAbrangem(evento.getIdUnidadeSaudeAnterior(), evento.getIdEspecialidadeAnterior()));
+        escopos.forEach(escopo -> incrementar(geracaoPorEscopo, escopo));
+        invalidar(chavesDos(escopos, null), chave -> chave.isAfetadaPorColaborador(evento.getIdUnidadeSaude(), evento.getIdEspecialidade())
+                || chave.isAfetadaPorColaborador(evento.getIdUnidadeSaudeAnterior(), evento.getIdEspecialidadeAnterior()));
+    }
+
+    // Jornada sem unidade (exceção válida para todas) invalida tudo; roda depois da recompilação do CalendarioJornada.
+    // Jornadas mudam raramente, então aqui o cache inteiro é percorrido
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarJornada(JornadaAlteradaEvent evento) {
+        geracaoGeral.incrementAndGet();
+        invalidar(new ArrayList<>(cache.asMap().keySet()),
+                chave -> evento.getIdUnidadeSaude() == null || chave.isDaUnidade(evento.getIdUnidadeSaude()));
+    }
+
+    public RespostaEstatisticasCacheDto estatisticas() {
+        CacheStats stats = cache.stats();
+        RespostaEstatisticasCacheDto dto = new RespostaEstatisticasCacheDto();
+        dto.setHabilitado(habilitado);
+        dto.setEntradas(cache.estimatedSize());
+        dto.setAcertos(stats.hitCount());
+        dto.setFalhas(stats.missCount());
+        dto.setTaxaAcerto(stats.hitRate());
+        dto.setDespejos(stats.evictionCount());
+        dto.setInvalidacoes(invalidacoes.get());
+        return dto;
+    }
+
+    // Um agendamento do colaborador (unidade, especialidade) toca os escopos que o abrangem e, se ocupa sala, as consultas com sala da unidade
+    private void invalidarAgenda(Long unidadeId, Long especialidadeId, Long unidadeSalaId, Predicate<ChaveDisponibilidade> afetada) {
+        Set<Escopo> escopos = escoposQueAbrangem(unidadeId, especialidadeId);
+        escopos.forEach(escopo -> incrementar(geracaoPorEscopo, escopo));
+        if (unidadeSalaId != null) {
+            incrementar(geracaoSalasPorUnidade, unidadeSalaId);
+        }
+        invalidar(chavesDos(escopos, unidadeSalaId), afetada);
+    }
+
+    // Remove cada chave afetada junto com sua entrada no índice (uma chave do índice já fora do cache também sai dele)
+    private void invalidar(Collection<ChaveDisponibilidade> candidatas, Predicate<ChaveDisponibilidade> afetada) {
+        for (ChaveDisponibilidade chave : candidatas) {
+            if (afetada.test(chave)) {
+                cache.asMap().compute(chave, (k, atual) -> {
+                    desindexar(k);
+                    if (atual != null) {
+                        invalidacoes.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private List<ChaveDisponibilidade> chavesDos(Set<Escopo> escopos, Long unidadeSalaId) {
+        Set<ChaveDisponibilidade> chaves = new LinkedHashSet<>();
+        for (Escopo escopo : escopos) {
+            chaves.addAll(porEscopo.getOrDefault(escopo, Set.of()));
+        }
+        if (unidadeSalaId != null) {
+            chaves.addAll(comSalaPorUnidade.getOrDefault(unidadeSalaId, Set.of()));
+        }
+        return new ArrayList<>(chaves);
+    }
+
+    // Escopos de chave que incluem (unidade, especialidade): nulo na chave significa "qualquer uma"
+    private static Set<Escopo> escoposQueAbrangem(Long unidadeId, Long especialidadeId) {
+        Set<Escopo> escopos = new LinkedHashSet<>();
+        escopos.add(new Escopo(unidadeId, especialidadeId));
+        escopos.add(new Escopo(unidadeId, null));
+        escopos.add(new Escopo(null, especialidadeId));
+        escopos.add(new Escopo(null, null));
+        return escopos;
+    }
+
+    private long geracao(ChaveDisponibilidade chave) {
+        // Os contadores só crescem, então a soma muda sempre que qualquer um deles muda
+        long geracao = geracaoGeral.get() + valor(geracaoPorEscopo, Escopo.de(chave));
+        if (isComSala(chave)) {
+            geracao += valor(geracaoSalasPorUnidade, chave.getUnidadeId());
+        }
+        return geracao;
+    }
+
+    private void indexar(ChaveDisponibilidade chave) {
+        porEscopo.computeIfAbsent(Escopo.de(chave), escopo -> ConcurrentHashMap.newKeySet()).add(chave);
+        if (isComSala(chave)) {
+            comSalaPorUnidade.computeIfAbsent(chave.getUnidadeId(), unidade -> ConcurrentHashMap.newKeySet()).add(chave);
+        }
+    }
+
+    private void desindexar(ChaveDisponibilidade chave) {
+        porEscopo.getOrDefault(Escopo.de(chave), Set.of()).remove(chave);
+        if (isComSala(chave)) {
+            comSalaPorUnidade.getOrDefault(chave.getUnidadeId(), Set.of()).remove(chave);
+        }
+    }
+
+    private static boolean isComSala(ChaveDisponibilidade chave) {
+        return chave.getTipoSala() != null && chave.getUnidadeId() != null;
+    }
+
+    private static <K> void incrementar(Map<K, AtomicLong> geracoes, K chave) {
+        geracoes.computeIfAbsent(chave, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static <K> long valor(Map<K, AtomicLong> geracoes, K chave) {
+        AtomicLong geracao = geracoes.get(chave);
+        return geracao == null ? 0 : geracao.get();
+    }
+
+    // (unidade, especialidade) de uma chave; os componentes podem ser nulos ("qualquer uma")
+    private record Escopo(Long unidadeId, Long especialidadeId) {
+        static Escopo de(ChaveDisponibilidade chave) {
+            return new Escopo(chave.getUnidadeId(), chave.getEspecialidadeId());
+        }
+    }
+}
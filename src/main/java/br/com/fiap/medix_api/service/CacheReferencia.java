@@ -0,0 +1,89 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.response.RespostaEstatisticasCacheReferenciaDto;
+import br.com.fiap.medix_api.dto.response.RespostaRegiaoCacheDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache de segundo nível do Hibernate para os dados de referência (Especialidade, UnidadeSaude e Sala) e para
+ * as consultas de busca deles (região {@value #REGIAO_CONSULTAS}). As regiões ficam em memória (JCache/Caffeine,
+ * configuradas em cache-referencia.conf). O Hibernate já atualiza o cache nas gravações feitas pela sessão;
+ * os serviços ainda removem a entrada alterada depois do commit, o que cobre também gravações fora da sessão
+ * (como o @SQLDelete da sala) e não depende da estratégia de concorrência da região.
+ */
+@Component
+public class CacheReferencia {
+
+    public static final String REGIAO_CONSULTAS = "referencia-consultas";
+    private static final List<String> REGIOES_ENTIDADES = List.of("especialidade", "unidade-saude", "sala");
+
+    private final SessionFactory sessionFactory;
+    private final boolean cacheHabilitado;
+
+    public CacheReferencia(EntityManagerFactory entityManagerFactory,
+                           @Value("${spring.jpa.properties.hibernate.cache.use_second_level_cache:false}") boolean cacheHabilitado) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cacheHabilitado = cacheHabilitado;
+    }
+
+    // Remove a entidade e as consultas de referência em cache ao fim da transação corrente (ou na hora, sem transação)
+    public void removerAposCommit(Class<?> entidade, Object id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remover(entidade, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                remover(entidade, id);
+            }
+        });
+    }
+
+    public RespostaEstatisticasCacheReferenciaDto estatisticas() {
+        Statistics stats = sessionFactory.getStatistics();
+        List<RespostaRegiaoCacheDto> regioes = new ArrayList<>();
+        REGIOES_ENTIDADES.forEach(regiao -> regioes.add(regiao(regiao, stats.getDomainDataRegionStatistics(regiao))));
+        regioes.add(regiao(REGIAO_CONSULTAS, stats.getQueryRegionStatistics(REGIAO_CONSULTAS)));
+
+        RespostaEstatisticasCacheReferenciaDto dto = new RespostaEstatisticasCacheReferenciaDto();
+        dto.setHabilitado(cacheHabilitado && stats.isStatisticsEnabled());
+        dto.setAcertos(regioes.stream().mapToLong(RespostaRegiaoCacheDto::getAcertos).sum());
+        dto.setFalhas(regioes.stream().mapToLong(RespostaRegiaoCacheDto::getFalhas).sum());
+        dto.setTaxaAcerto(taxa(dto.getAcertos(), dto.getFalhas()));
+        dto.setRegioes(regioes);
+        return dto;
+    }
+
+    private void remover(Class<?> entidade, Object id) {
+        sessionFactory.getCache().evictEntityData(entidade, id);
+        sessionFactory.getCache().evictQueryRegion(REGIAO_CONSULTAS);
+    }
+
+    // A região de consultas só existe depois do primeiro uso; até lá, tudo zerado
+    private static RespostaRegiaoCacheDto regiao(String nome, CacheRegionStatistics stats) {
+        RespostaRegiaoCacheDto dto = new RespostaRegiaoCacheDto();
+        dto.setRegiao(nome);
+        if (stats != null) {
+            dto.setAcertos(stats.getHitCount());
+            dto.setFalhas(stats.getMissCount());
+            dto.setGravacoes(stats.getPutCount());
+            dto.setTaxaAcerto(taxa(stats.getHitCount(), stats.getMissCount()));
+        }
+        return dto;
+    }
+
+    private static double taxa(long acertos, long falhas) {
+        return acertos + falhas == 0 ? 0.0 : (double) acertos / (acertos + falhas);
+    }
+}
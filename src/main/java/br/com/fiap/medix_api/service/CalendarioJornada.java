@@ -0,0 +1,206 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.event.JornadaAlteradaEvent;
+import br.com.fiap.medix_api.model.ExcecaoJornada;
+import br.com.fiap.medix_api.model.JornadaTrabalho;
+import br.com.fiap.medix_api.repository.ExcecaoJornadaRepository;
+import br.com.fiap.medix_api.repository.JornadaTrabalhoRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Jornada de trabalho compilada em bits, no mesmo formato da {@link GradeOcupacao}
+ * (bit 1 = fora da jornada). Os modelos semanais viram uma grade por dia da semana (do colaborador,
+ * senão o padrão da unidade, senão o padrão configurado) e as exceções (férias, feriados) viram
+ * grades por dia em {@link MapaOcupacao}. A compilação acontece na carga, quando uma jornada muda
+ * e uma vez por dia; no caminho de consulta sobra só uma busca no mapa e um OR por palavra.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CalendarioJornada {
+
+    // Exceções são compiladas até este horizonte (a recarga diária o avança)
+    private static final int HORIZONTE_EXCECOES_DIAS = 400;
+    // Chave usada para exceções sem colaborador nem unidade (valem para todas as unidades)
+    private static final long TODAS_AS_UNIDADES = 0L;
+
+    private final JornadaTrabalhoRepository jornadaRepository;
+    private final ExcecaoJornadaRepository excecaoRepository;
+
+    @Value("${medix.jornada.padrao.inicio:08:00}")
+    private String inicioPadrao;
+
+    @Value("${medix.jornada.padrao.fim:17:00}")
+    private String fimPadrao;
+
+    @Value("${medix.jornada.padrao.dias:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private String[] diasPadrao;
+
+    private volatile Compilado compilado;
+
+    // Até a primeira carga (ou se o banco não responder) vale apenas a jornada padrão configurada
+    @PostConstruct
+    void iniciar() {
+        compilado = compilar(List.of(), List.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            List<JornadaTrabalho> jornadas = jornadaRepository.findAll();
+            List<ExcecaoJornada> excecoes = excecaoRepository.findVigentesAPartirDe(LocalDate.now().minusDays(1));
+            compilado = compilar(jornadas, excecoes);
+            log.info("Calendário de jornadas compilado: {} modelos semanais e {} exceções.", jornadas.size(), excecoes.size());
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Não foi possível carregar as jornadas de trabalho, usando a jornada padrão: {}", e.getMessage());
+        }
+    }
+
+    // Avança o horizonte das exceções
+    @Scheduled(cron = "${medix.jornada.cron:0 5 0 * * *}")
+    public void recarregarDiariamente() {
+        carregar();
+    }
+
+    // Roda antes dos demais ouvintes (ex: cache de disponibilidade), que já devem enxergar a nova jornada
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarJornada(JornadaAlteradaEvent evento) {
+        carregar();
+    }
+
+    // Grânulos do dia em que o colaborador não atende (fora da jornada ou bloqueados por exceção)
+    public long[] indisponibilidade(Long colaboradorId, Long unidadeId, LocalDate dia) {
+        Compilado atual = compilado;
+        long[][] semana = atual.porColaborador().get(colaboradorId);
+        if (semana == null) {
+            semana = atual.porUnidade().getOrDefault(unidadeId, atual.padrao());
+        }
+        long[] bits = semana[dia.getDayOfWeek().ordinal()].clone();
+        aplicarBloqueios(bits, atual.bloqueiosUnidade(), TODAS_AS_UNIDADES, dia);
+        aplicarBloqueios(bits, atual.bloqueiosUnidade(), unidadeId, dia);
+        aplicarBloqueios(bits, atual.bloqueiosColaborador(), colaboradorId, dia);
+        return bits;
+    }
+
+    // Grânulos do dia em que a unidade não funciona (usado para as salas)
+    public long[] indisponibilidadeDaUnidade(Long unidadeId, LocalDate dia) {
+        Compilado atual = compilado;
+        long[] bits = atual.porUnidade().getOrDefault(unidadeId, atual.padrao())[dia.getDayOfWeek().ordinal()].clone();
+        aplicarBloqueios(bits, atual.bloqueiosUnidade(), TODAS_AS_UNIDADES, dia);
+        aplicarBloqueios(bits, atual.bloqueiosUnidade(), unidadeId, dia);
+        return bits;
+    }
+
+    // O intervalo [inicio, fim) está inteiro dentro da jornada do colaborador?
+    public boolean isNaJornada(Long colaboradorId, Long unidadeId, LocalDateTime inicio, LocalDateTime fim) {
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(fim.toLocalDate()); dia = dia.plusDays(1)) {
+            int de = GradeOcupacao.granuloInicial(dia, inicio);
+            int ate = GradeOcupacao.granuloFinal(dia, fim);
+            if (de < ate && !GradeOcupacao.isLivre(indisponibilidade(colaboradorId, unidadeId, dia), de, ate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void aplicarBloqueios(long[] bits, MapaOcupacao bloqueios, Long id, LocalDate dia) {
+        if (id == null) {
+            return;
+        }
+        long[] bloqueado = bloqueios.buscar(MapaOcupacao.chave(id, dia));
+        if (bloqueado != null) {
+            GradeOcupacao.ou(bits, bloqueado);
+        }
+    }
+
+    private Compilado compilar(List<JornadaTrabalho> jornadas, List<ExcecaoJornada> excecoes) {
+        LocalTime inicio = LocalTime.parse(inicioPadrao);
+        LocalTime fim = LocalTime.parse(fimPadrao);
+        List<JornadaTrabalho> padrao = Arrays.stream(diasPadrao)
+                .map(dia -> JornadaTrabalho.builder().diaSemana(DayOfWeek.valueOf(dia.trim())).horaInicio(inicio).horaFim(fim).build())
+                .toList();
+
+        Map<Long, long[][]> porColaborador = new HashMap<>();
+        jornadas.stream()
+                .filter(j -> j.getIdColaborador() != null)
+                .collect(Collectors.groupingBy(JornadaTrabalho::getIdColaborador))
+                .forEach((id, modelos) -> porColaborador.put(id, compilarSemana(modelos)));
+
+        Map<Long, long[][]> porUnidade = new HashMap<>();
+        jornadas.stream()
+                .filter(j -> j.getIdColaborador() == null && j.getIdUnidadeSaude() != null)
+                .collect(Collectors.groupingBy(JornadaTrabalho::getIdUnidadeSaude))
+                .forEach((id, modelos) -> porUnidade.put(id, compilarSemana(modelos)));
+
+        MapaOcupacao bloqueiosColaborador = new MapaOcupacao(0);
+        MapaOcupacao bloqueiosUnidade = new MapaOcupacao(0);
+        LocalDate primeiroDia = LocalDate.now().minusDays(1);
+        LocalDate ultimoDia = LocalDate.now().plusDays(HORIZONTE_EXCECOES_DIAS);
+        for (ExcecaoJornada excecao : excecoes) {
+            MapaOcupacao destino = excecao.getIdColaborador() != null ? bloqueiosColaborador : bloqueiosUnidade;
+            long id = excecao.getIdColaborador() != null ? excecao.getIdColaborador()
+                    : excecao.getIdUnidadeSaude() != null ? excecao.getIdUnidadeSaude() : TODAS_AS_UNIDADES;
+            int de = excecao.getHoraInicio() != null ? GradeOcupacao.granulo(excecao.getHoraInicio()) : 0;
+            int ate = excecao.getHoraFim() != null ? granuloArredondadoParaCima(excecao.getHoraFim()) : GradeOcupacao.TOTAL_GRANULOS;
+
+            LocalDate dia = excecao.getDataInicio().isBefore(primeiroDia) ? primeiroDia : excecao.getDataInicio();
+            LocalDate fimExcecao = excecao.getDataFim().isAfter(ultimoDia) ? ultimoDia : excecao.getDataFim();
+            for (; !dia.isAfter(fimExcecao); dia = dia.plusDays(1)) {
+                destino.definir(MapaOcupacao.chave(id, dia), de, ate, true);
+            }
+        }
+        return new Compilado(compilarSemana(padrao), porUnidade, porColaborador, bloqueiosColaborador, bloqueiosUnidade);
+    }
+
+    // Uma grade por dia da semana: tudo indisponível, exceto os intervalos dos modelos
+    private static long[][] compilarSemana(List<JornadaTrabalho> modelos) {
+        long[][] semana = new long[DayOfWeek.values().length][];
+        for (int i = 0; i < semana.length; i++) {
+            semana[i] = GradeOcupacao.vazia();
+            GradeOcupacao.definir(semana[i], 0, 0, GradeOcupacao.TOTAL_GRANULOS, true);
+        }
+        for (JornadaTrabalho modelo : modelos) {
+            // Arredonda para dentro da jornada: não oferece horário antes do início nem depois do fim
+            int de = granuloArredondadoParaCima(modelo.getHoraInicio());
+            int ate = GradeOcupacao.granulo(modelo.getHoraFim());
+            GradeOcupacao.definir(semana[modelo.getDiaSemana().ordinal()], 0, de, ate, false);
+        }
+        return semana;
+    }
+
+    // Grânulo que começa no horário ou logo depois dele (arredondando para cima)
+    private static int granuloArredondadoParaCima(LocalTime horario) {
+        int minutos = horario.toSecondOfDay() / 60;
+        return (minutos + GradeOcupacao.MINUTOS_POR_GRANULO - 1) / GradeOcupacao.MINUTOS_POR_GRANULO;
+    }
+
+    private record Compilado(long[][] padrao,
+                             Map<Long, long[][]> porUnidade,
+                             Map<Long, long[][]> porColaborador,
+                             MapaOcupacao bloqueiosColaborador,
+                             MapaOcupacao bloqueiosUnidade) {
+    }
+}
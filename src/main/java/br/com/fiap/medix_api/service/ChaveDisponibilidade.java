@@ -0,0 +1,84 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Chave de uma resposta da disponibilidade no {@link CacheDisponibilidade}. Além de identificar a
+ * consulta, guarda o escopo que ela cobre (unidade, especialidade e faixa de dias) para que as
+ * alterações de agenda invalidem apenas as respostas que realmente tocam.
+ * Unidade ou especialidade nulas significam "qualquer uma"; sem faixa de dias, a resposta não
+ * depende dos agendamentos (passos 1 e 2), só dos colaboradores.
+ */
+@Value
+class ChaveDisponibilidade {
+
+    String consulta;
+    Long unidadeId;
+    Long especialidadeId;
+    // Tipo de sala exigido junto com o colaborador (nulo quando a consulta não considera salas)
+    String tipoSala;
+    LocalDate primeiroDia;
+    LocalDate ultimoDia;
+    Object detalhe;
+
+    static ChaveDisponibilidade especialidades() {
+        return new ChaveDisponibilidade("especialidades", null, null, null, null, null, null);
+    }
+
+    static ChaveDisponibilidade unidades(Long especialidadeId) {
+        return new ChaveDisponibilidade("unidades", null, especialidadeId, null, null, null, null);
+    }
+
+    static ChaveDisponibilidade dias(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, LocalDate primeiroDia, LocalDate ultimoDia) {
+        return new ChaveDisponibilidade("dias", unidadeId, especialidadeId, tipoSala, primeiroDia, ultimoDia, tipo);
+    }
+
+    // Dias já passados do mês não mudam, então a faixa começa no primeiro dia ainda agendável
+    static ChaveDisponibilidade mes(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, YearMonth mes, LocalDate primeiroDia) {
+        return new ChaveDisponibilidade("mes", unidadeId, especialidadeId, tipoSala, primeiroDia, mes.atEndOfMonth(), List.of(tipo, mes));
+    }
+
+    static ChaveDisponibilidade horarios(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, LocalDate data) {
+        return new ChaveDisponibilidade("horarios", unidadeId, especialidadeId, tipoSala, data, data, tipo);
+    }
+
+    static ChaveDisponibilidade profissionais(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, LocalDateTime dataHora) {
+        LocalDate dia = dataHora.toLocalDate();
+        return new ChaveDisponibilidade("profissionais", unidadeId, especialidadeId, tipoSala, dia, dia, List.of(tipo, dataHora.toLocalTime()));
+    }
+
+    static ChaveDisponibilidade proximos(Long especialidadeId, TipoAgendamento tipo, int quantidade, LocalDate primeiroDia, LocalDate ultimoDia) {
+        return new ChaveDisponibilidade("proximos", null, especialidadeId, null, primeiroDia, ultimoDia, List.of(tipo, quantidade));
+    }
+
+    // Um agendamento do colaborador (unidade, especialidade) entre os dias informados muda esta resposta?
+    // Respostas que exigem sala também mudam com qualquer agendamento que ocupe uma sala da mesma unidade.
+    boolean isAfetadaPorAgenda(Long unidadeId, Long especialidadeId, Long unidadeSalaId, LocalDate primeiro, LocalDate ultimo) {
+        if (primeiroDia == null || primeiroDia.isAfter(ultimo) || primeiro.isAfter(ultimoDia)) {
+            return false;
+        }
+        return abrange(unidadeId, especialidadeId)
+                || (tipoSala != null && unidadeSalaId != null && unidadeSalaId.equals(this.unidadeId));
+    }
+
+    // Um colaborador que entrou ou saiu de (unidade, especialidade) muda esta resposta?
+    boolean isAfetadaPorColaborador(Long unidadeId, Long especialidadeId) {
+        return abrange(unidadeId, especialidadeId);
+    }
+
+    // Jornada alterada na unidade: afeta as consultas dela e as que percorrem todas as unidades
+    boolean isDaUnidade(Long unidadeId) {
+        return this.unidadeId == null || this.unidadeId.equals(unidadeId);
+    }
+
+    private boolean abrange(Long unidadeId, Long especialidadeId) {
+        return (this.unidadeId == null || this.unidadeId.equals(unidadeId))
+                && (this.especialidadeId == null || this.especialidadeId.equals(especialidadeId));
+    }
+}
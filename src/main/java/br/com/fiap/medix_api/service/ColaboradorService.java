@@ -2,6 +2,7 @@ package br.com.fiap.medix_api.service;
 
 import br.com.fiap.medix_api.dto.request.AtualizarColaboradorDto;
 import br.com.fiap.medix_api.dto.request.CadastrarColaboradorDto;
+import br.com.fiap.medix_api.event.ColaboradorAlteradoEvent;
 import br.com.fiap.medix_api.model.Colaborador;
 import br.com.fiap.medix_api.model.Especialidade; // IMPORTADO
 import br.com.fiap.medix_api.model.UnidadeSaude;
@@ -11,13 +12,13 @@ import br.com.fiap.medix_api.repository.EspecialidadeRepository; // IMPORTADO
 import br.com.fiap.medix_api.repository.UsuarioRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Service
 @AllArgsConstructor
@@ -28,6 +29,7 @@ public class ColaboradorService {
     private PasswordEncoder passwordEncoder;
     private UnidadeSaudeService unidadeSaudeService; // INJETADO
     private EspecialidadeRepository especialidadeRepository; // INJETADO
+    private ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Colaborador criar(CadastrarColaboradorDto cadastroDto) {
@@ -56,14 +58,15 @@ public class ColaboradorService {
                 .dataAdmissao(cadastroDto.getDataAdmissao())
                 .build();
 
-        return colaboradorRepository.save(colaborador);
+        Colaborador salvo = colaboradorRepository.save(colaborador);
+        eventPublisher.publishEvent(ColaboradorAlteradoEvent.de(salvo));
+        return salvo;
     }
 
-    public List<Colaborador> listar(String status) {
-        if ("deletado".equalsIgnoreCase(status)) {
-            return colaboradorRepository.findAllByDeletedIsOne();
-        }
-        return colaboradorRepository.findAllByDeletedIsZero();
+    public Pagina<Colaborador> listar(String status, String cursor, Integer tamanho) {
+        int deleted = "deletado".equalsIgnoreCase(status) ? 1 : 0;
+        int limite = Pagina.limitar(tamanho);
+        return Pagina.de(colaboradorRepository.findPagina(deleted, Pagina.idDoCursor(cursor), limite + 1), limite, item -> Pagina.cursor(item.getId()));
     }
 
     public Colaborador buscarPorId(Long id) {
@@ -101,7 +104,9 @@ public class ColaboradorService {
         if (atualizacaoDto.getIdEspecialidade() != null) {
             Especialidade especialidade = especialidadeRepository.findById(atualizacaoDto.getIdEspecialidade())
                     .orElseThrow(() -> new EntityNotFoundException("Especialidade não encontrada!"));
+            Long especialidadeAnterior = colaborador.getEspecialidade() != null ? colaborador.getEspecialidade().getId() : null;
             colaborador.setEspecialidade(especialidade);
+            eventPublisher.publishEvent(ColaboradorAlteradoEvent.de(colaborador, colaborador.getUnidadeSaude().getId(), especialidadeAnterior));
         }
 
         return colaboradorRepository.save(colaborador);
@@ -112,6 +117,7 @@ public class ColaboradorService {
         Colaborador colaborador = this.buscarPorId(id);
         colaborador.setDeleted(1);
         colaboradorRepository.save(colaborador);
+        eventPublisher.publishEvent(ColaboradorAlteradoEvent.de(colaborador));
     }
 
     private void validarNovoColaborador(CadastrarColaboradorDto cadastroDto) {
@@ -0,0 +1,233 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.ColaboradorAgendaDto;
+import br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto;
+import br.com.fiap.medix_api.event.ColaboradorAlteradoEvent;
+import br.com.fiap.medix_api.event.JornadaAlteradaEvent;
+import br.com.fiap.medix_api.model.Agendamento;
+import br.com.fiap.medix_api.model.Colaborador;
+import br.com.fiap.medix_api.model.Disponibilidade;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import br.com.fiap.medix_api.repository.ColaboradorRepository;
+import br.com.fiap.medix_api.repository.DisponibilidadeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantém a tabela TB_MEDI_DISPONIBILIDADE: a ocupação de cada colaborador, por dia, para os
+ * próximos N dias. É atualizada de forma incremental na mesma transação do agendamento/cancelamento
+ * e reconstruída por um job quando colaboradores mudam (e diariamente, para avançar o horizonte).
+ * Com ela habilitada, os passos da disponibilidade viram leituras por faixa em uma tabela indexada,
+ * independentes do tamanho de TB_MEDI_AGENDAMENTO.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DisponibilidadeMaterializadaService {
+
+    private final DisponibilidadeRepository disponibilidadeRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final ColaboradorRepository colaboradorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CalendarioJornada calendario;
+
+    @Value("${medix.disponibilidade.materializada.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${medix.disponibilidade.materializada.horizonte-dias:60}")
+    private int horizonteDias;
+
+    private final AtomicBoolean reconstrucaoPendente = new AtomicBoolean(false);
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    // A tabela só tem registros dentro do horizonte; fora dele a disponibilidade é calculada pelo banco
+    public boolean cobre(LocalDate primeiroDia, LocalDate ultimoDia) {
+        LocalDate hoje = LocalDate.now();
+        return habilitada && !primeiroDia.isBefore(hoje) && ultimoDia.isBefore(hoje.plusDays(horizonteDias));
+    }
+
+    // Ocupação de cada colaborador da unidade/especialidade, por dia do período
+    @Transactional(readOnly = true)
+    public Map<LocalDate, Map<Long, long[]>> ocupacaoDoPeriodo(Long unidadeId, Long especialidadeId, LocalDate primeiroDia, LocalDate ultimoDia) {
+        return agruparPorDia(disponibilidadeRepository.findPorUnidadeEEspecialidadeEntre(unidadeId, especialidadeId, primeiroDia, ultimoDia),
+                primeiroDia, ultimoDia);
+    }
+
+    // Mesma visão, para todos os colaboradores da especialidade em qualquer unidade
+    @Transactional(readOnly = true)
+    public Map<LocalDate, Map<Long, long[]>> ocupacaoDaEspecialidade(Long especialidadeId, LocalDate primeiroDia, LocalDate ultimoDia) {
+        return agruparPorDia(disponibilidadeRepository.findPorEspecialidadeEntre(especialidadeId, primeiroDia, ultimoDia),
+                primeiroDia, ultimoDia);
+    }
+
+    // Atualização incremental: chamada dentro da transação que cria ou cancela o agendamento
+    @Transactional
+    public void aplicar(Agendamento agendamento, boolean ocupado) {
+        Colaborador colaborador = agendamento.getColaborador();
+        aplicar(agendamento, colaborador.getUnidadeSaude().getId(),
+                colaborador.getEspecialidade() != null ? colaborador.getEspecialidade().getId() : null, ocupado);
+    }
+
+    // Mesma atualização, com a unidade e a especialidade do colaborador já conhecidas (sem carregá-lo)
+    @Transactional
+    public void aplicar(Agendamento agendamento, Long unidadeId, Long especialidadeId, boolean ocupado) {
+        aplicar(agendamento.getColaborador().getId(), unidadeId, especialidadeId,
+                agendamento.getDataHoraInicio(), agendamento.getDataHoraFim(), ocupado);
+    }
+
+    // Mesma atualização a partir do intervalo, para alterações feitas sem carregar os agendamentos (ex: cancelamento de série)
+    @Transactional
+    public void aplicar(Long colaboradorId, Long unidadeId, Long especialidadeId, LocalDateTime inicio, LocalDateTime fim, boolean ocupado) {
+        if (!habilitada || especialidadeId == null) {
+            return;
+        }
+        LocalDate ultimoDia = fim.toLocalDate();
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+            if (!cobre(dia, dia)) {
+                continue;
+            }
+            LocalDate diaDoRegistro = dia;
+            Disponibilidade registro = disponibilidadeRepository.findParaAtualizacao(colaboradorId, dia)
+                    .orElseGet(() -> novoRegistro(colaboradorId, unidadeId, especialidadeId, diaDoRegistro));
+
+            long[] bits = GradeOcupacao.deHex(registro.getOcupacao());
+            GradeOcupacao.definir(bits, 0,
+                    GradeOcupacao.granuloInicial(dia, inicio),
+                    GradeOcupacao.granuloFinal(dia, fim), ocupado);
+            preencher(registro, bits, colaboradorId, unidadeId);
+            disponibilidadeRepository.save(registro);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void agendarCargaInicial() {
+        reconstrucaoPendente.set(true);
+    }
+
+    // Colaborador criado, excluído ou com outra especialidade: a projeção precisa ser refeita
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarColaborador(ColaboradorAlteradoEvent evento) {
+        reconstrucaoPendente.set(true);
+    }
+
+    // Os minutos livres gravados dependem da jornada
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarJornada(JornadaAlteradaEvent evento) {
+        reconstrucaoPendente.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${medix.disponibilidade.materializada.verificacao-ms:60000}")
+    public void reconstruirSePendente() {
+        if (habilitada && reconstrucaoPendente.getAndSet(false)) {
+            reconstruir();
+        }
+    }
+
+    // Avança o horizonte uma vez por dia
+    @Scheduled(cron = "${medix.disponibilidade.materializada.cron:0 0 3 * * *}")
+    public void reconstruirDiariamente() {
+        if (habilitada) {
+            reconstruir();
+        }
+    }
+
+    public void reconstruir() {
+        LocalDate hoje = LocalDate.now();
+        LocalDate ultimoDia = hoje.plusDays(horizonteDias - 1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> reconstruirHorizonte(hoje, ultimoDia));
+        } catch (RuntimeException e) {
+            reconstrucaoPendente.set(true); // Tenta de novo na próxima verificação
+            log.warn("Falha ao reconstruir a disponibilidade materializada: {}", e.getMessage());
+        }
+    }
+
+    private void reconstruirHorizonte(LocalDate hoje, LocalDate ultimoDia) {
+        disponibilidadeRepository.deleteByDiaAnteriorA(hoje);
+
+        // Trava os registros existentes antes de ler os agendamentos, assim nenhum agendamento
+        // concorrente consegue atualizar um registro que está prestes a ser sobrescrito
+        Map<Long, Disponibilidade> existentes = new HashMap<>();
+        disponibilidadeRepository.findParaAtualizacaoEntre(hoje, ultimoDia)
+                .forEach(d -> existentes.put(MapaOcupacao.chave(d.getIdColaborador(), d.getDia()), d));
+
+        List<IntervaloAgendamentoDto> intervalos = agendamentoRepository.findIntervalosAtivosEntre(
+                hoje.atStartOfDay(), ultimoDia.plusDays(1).atStartOfDay());
+        MapaOcupacao mapa = new MapaOcupacao(intervalos.size());
+        for (IntervaloAgendamentoDto intervalo : intervalos) {
+            LocalDateTime inicio = intervalo.getDataHoraInicio();
+            LocalDateTime fim = intervalo.getDataHoraFim();
+            for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(fim.toLocalDate()); dia = dia.plusDays(1)) {
+                mapa.definir(MapaOcupacao.chave(intervalo.getIdColaborador(), dia),
+                        GradeOcupacao.granuloInicial(dia, inicio), GradeOcupacao.granuloFinal(dia, fim), true);
+            }
+        }
+
+        List<Disponibilidade> registros = new ArrayList<>();
+        for (ColaboradorAgendaDto colaborador : colaboradorRepository.findAgendasAtivas()) {
+            for (LocalDate dia = hoje; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+                long chave = MapaOcupacao.chave(colaborador.getIdColaborador(), dia);
+                Disponibilidade registro = existentes.remove(chave);
+                if (registro == null) {
+                    registro = novoRegistro(colaborador.getIdColaborador(), colaborador.getIdUnidadeSaude(), colaborador.getIdEspecialidade(), dia);
+                }
+                registro.setIdUnidadeSaude(colaborador.getIdUnidadeSaude());
+                registro.setIdEspecialidade(colaborador.getIdEspecialidade());
+                long[] bits = mapa.buscar(chave);
+                preencher(registro, bits != null ? bits : GradeOcupacao.vazia(), colaborador.getIdColaborador(), colaborador.getIdUnidadeSaude());
+                registros.add(registro);
+            }
+        }
+        disponibilidadeRepository.saveAll(registros);
+        // O que sobrou pertence a colaboradores excluídos ou sem especialidade
+        disponibilidadeRepository.deleteAll(existentes.values());
+        log.info("Disponibilidade materializada reconstruída: {} registros até {}.", registros.size(), ultimoDia);
+    }
+
+    private Map<LocalDate, Map<Long, long[]>> agruparPorDia(List<Disponibilidade> registros, LocalDate primeiroDia, LocalDate ultimoDia) {
+        Map<LocalDate, Map<Long, long[]>> porDia = new TreeMap<>();
+        for (LocalDate dia = primeiroDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+            porDia.put(dia, new HashMap<>());
+        }
+        registros.forEach(d -> porDia.get(d.getDia()).put(d.getIdColaborador(), GradeOcupacao.deHex(d.getOcupacao())));
+        return porDia;
+    }
+
+    private Disponibilidade novoRegistro(Long colaboradorId, Long unidadeId, Long especialidadeId, LocalDate dia) {
+        Disponibilidade registro = Disponibilidade.builder()
+                .idColaborador(colaboradorId)
+                .idUnidadeSaude(unidadeId)
+                .idEspecialidade(especialidadeId)
+                .dia(dia)
+                .build();
+        preencher(registro, GradeOcupacao.vazia(), colaboradorId, unidadeId);
+        return registro;
+    }
+
+    // A ocupação é gravada sem a jornada (aplicada na leitura); os minutos livres já a descontam
+    private void preencher(Disponibilidade registro, long[] bits, Long colaboradorId, Long unidadeId) {
+        long[] indisponivel = GradeOcupacao.uniao(bits, calendario.indisponibilidade(colaboradorId, unidadeId, registro.getDia()));
+        registro.setOcupacao(GradeOcupacao.paraHex(bits));
+        registro.setMinutosLivres(GradeOcupacao.contarLivres(indisponivel) * GradeOcupacao.MINUTOS_POR_GRANULO);
+    }
+}
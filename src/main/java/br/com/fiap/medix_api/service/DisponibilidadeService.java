@@ -1,76 +1,395 @@
 package br.com.fiap.medix_api.service;
 
+import br.com.fiap.medix_api.dto.projection.ColaboradorAgendaDto;
+import br.com.fiap.medix_api.dto.projection.HorarioLivreDto;
+import br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto;
+import br.com.fiap.medix_api.dto.projection.IntervaloOcupado;
+import br.com.fiap.medix_api.dto.projection.IntervaloSalaDto;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
 import br.com.fiap.medix_api.model.Colaborador;
 import br.com.fiap.medix_api.model.Especialidade;
 import br.com.fiap.medix_api.model.UnidadeSaude;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
 import br.com.fiap.medix_api.repository.ColaboradorRepository;
 import br.com.fiap.medix_api.repository.EspecialidadeRepository;
 import br.com.fiap.medix_api.repository.UnidadeSaudeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Fluxo de consulta da disponibilidade. Todas as respostas passam pelo {@link CacheDisponibilidade},
+ * que é invalidado pelos eventos de agendamento, de colaborador e de jornada.
+ * A ocupação de cada colaborador-dia já chega aqui somada à indisponibilidade do {@link CalendarioJornada}
+ * (fora da jornada = ocupado) e às {@link ReservasTemporarias}, então as buscas de janelas livres não precisam
+ * conhecer o expediente nem as reservas.
+ * As consultas rodam fora de transação somente leitura, portanto no primário: o que elas leem fica no cache
+ * até o TTL, e uma leitura da réplica atrasada logo depois de uma invalidação guardaria a agenda antiga.
+ */
 @Service
 @RequiredArgsConstructor
 public class DisponibilidadeService {
 
+    // Horários oferecidos de 30 em 30 minutos (ou na duração do tipo, se for menor) dentro da jornada de cada colaborador
+    private static final int INTERVALO_HORARIOS_MINUTOS = 30;
+    private static final int DIAS_AGENDA_ABERTA = 30;
+    // A busca do próximo horário carrega a agenda em blocos de dias e para no primeiro bloco que basta
+    private static final int DIAS_POR_BLOCO_BUSCA = 7;
+    private static final int MAXIMO_HORARIOS_PROXIMOS = 50;
+
     private final EspecialidadeRepository especialidadeRepository;
     private final UnidadeSaudeRepository unidadeSaudeRepository;
     private final ColaboradorRepository colaboradorRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final IndiceAgenda indiceAgenda;
+    private final DisponibilidadeMaterializadaService disponibilidadeMaterializada;
+    private final CacheDisponibilidade cache;
+    private final CalendarioJornada calendario;
+    private final ReservasTemporarias reservas;
 
     // Passo 1: Listar especialidades com profissionais ativos
     public List<Especialidade> listarEspecialidades() {
-        return especialidadeRepository.findAllComMedicosAtivos();
+        List<Especialidade> especialidades = cache.obter(ChaveDisponibilidade.especialidades(), especialidadeRepository::findAllComMedicosAtivos);
+        return copias(especialidades, Especialidade::new);
     }
 
     // Passo 2: Listar unidades que atendem a especialidade
     public List<UnidadeSaude> listarUnidades(Long especialidadeId) {
-        return unidadeSaudeRepository.findByEspecialidadeId(especialidadeId);
-    }
-
-    // Passo 3: Listar dias com possível atendimento
-    public List<LocalDate> listarDiasDisponiveis(Long unidadeId, Long especialidadeId) {
-        List<LocalDate> dias = new ArrayList<>();
-        LocalDate hoje = LocalDate.now();
-        // Exemplo simplificado: próximos 30 dias, apenas dias úteis
-        for (int i = 1; i <= 30; i++) {
-            LocalDate data = hoje.plusDays(i);
-            if (data.getDayOfWeek() != DayOfWeek.SATURDAY && data.getDayOfWeek() != DayOfWeek.SUNDAY) {
-                dias.add(data);
+        List<UnidadeSaude> unidades = cache.obter(ChaveDisponibilidade.unidades(especialidadeId),
+                () -> unidadeSaudeRepository.findByEspecialidadeId(especialidadeId));
+        return copias(unidades, UnidadeSaude::new);
+    }
+
+    // Passo 3: Listar dias com horários livres nos próximos 30 dias
+    public List<LocalDate> listarDiasDisponiveis(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala) {
+        String sala = tipoSalaOuNulo(tipoSala);
+        LocalDate primeiroDia = LocalDate.now().plusDays(1);
+        LocalDate ultimoDia = LocalDate.now().plusDays(DIAS_AGENDA_ABERTA);
+        return cache.obter(ChaveDisponibilidade.dias(unidadeId, especialidadeId, tipo, sala, primeiroDia, ultimoDia),
+                () -> contarHorariosLivresPorDia(unidadeId, especialidadeId, tipo, sala, primeiroDia, ultimoDia)
+                        .entrySet().stream()
+                        .filter(dia -> dia.getValue() > 0)
+                        .map(Map.Entry::getKey)
+                        .toList());
+    }
+
+    // Visão mensal: quantidade de horários livres de cada dia do mês (0 para dias passados e dias sem jornada)
+    public Map<LocalDate, Integer> listarOcupacaoDoMes(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, YearMonth mes) {
+        String sala = tipoSalaOuNulo(tipoSala);
+        LocalDate primeiroDia = mes.atDay(1).isAfter(LocalDate.now()) ? mes.atDay(1) : LocalDate.now().plusDays(1);
+        return cache.obter(ChaveDisponibilidade.mes(unidadeId, especialidadeId, tipo, sala, mes, primeiroDia), () -> {
+            Map<LocalDate, Integer> dias = new TreeMap<>();
+            for (LocalDate dia = mes.atDay(1); !dia.isAfter(mes.atEndOfMonth()); dia = dia.plusDays(1)) {
+                dias.put(dia, 0);
+            }
+            if (!primeiroDia.isAfter(mes.atEndOfMonth())) {
+                dias.putAll(contarHorariosLivresPorDia(unidadeId, especialidadeId, tipo, sala, primeiroDia, mes.atEndOfMonth()));
+            }
+            return Collections.unmodifiableMap(dias);
+        });
+    }
+
+    // Passo 4: Listar horários do dia em que a duração inteira do tipo de agendamento cabe
+    // (e, se tipoSala for informado, em que também há uma sala desse tipo livre na unidade)
+    public List<LocalTime> listarHorariosDisponiveis(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, LocalDate data) {
+        String sala = tipoSalaOuNulo(tipoSala);
+        return cache.obter(ChaveDisponibilidade.horarios(unidadeId, especialidadeId, tipo, sala, data), () -> {
+            if (disponibilidadeMaterializada.cobre(data, data) || !indiceAgenda.isDisponivel()) {
+                return calcularHorariosLivres(unidadeId, especialidadeId, tipo, sala, data, data).get(data);
+            }
+            // Uma única consulta para os colaboradores; a ocupação de cada um vem do índice em memória
+            List<long[]> ocupacoes = colaboradorRepository.findIdsAtivosPorUnidadeEEspecialidade(unidadeId, especialidadeId).stream()
+                    .map(id -> GradeOcupacao.uniao(indiceAgenda.ocupacaoDoDia(id, data), indisponibilidade(id, unidadeId, data)))
+                    .toList();
+            List<long[]> salas = sala == null ? null
+                    : new ArrayList<>(carregarOcupacaoDasSalas(unidadeId, sala, data, data).get(data).values());
+            return horariosComAlgumColaboradorLivre(ocupacoes, salas, tipo);
+        });
+    }
+
+    // Passo 5: Listar profissionais livres durante toda a duração do tipo de agendamento
+    public List<Colaborador> listarProfissionaisDisponiveis(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, LocalDateTime dataHora) {
+        String sala = tipoSalaOuNulo(tipoSala);
+        return cache.obter(ChaveDisponibilidade.profissionais(unidadeId, especialidadeId, tipo, sala, dataHora), () -> {
+            if (sala != null && !isAlgumaSalaLivre(unidadeId, sala, dataHora, dataHora.plusMinutes(tipo.getDuracaoPadraoMinutos()))) {
+                return List.<Colaborador>of(); // Sem sala, ninguém consegue atender nesse horário
+            }
+            return List.copyOf(calcularProfissionaisDisponiveis(unidadeId, especialidadeId, tipo, dataHora));
+        });
+    }
+
+    /**
+     * Próximos horários livres da especialidade em qualquer unidade: os K primeiros (unidade, colaborador, início)
+     * em ordem cronológica. Os fluxos de horários de cada colaborador são intercalados em uma fila de prioridade,
+     * um bloco de dias por vez, e a busca termina assim que K horários são encontrados.
+     */
+    public List<HorarioLivreDto> buscarProximosHorarios(Long especialidadeId, TipoAgendamento tipo, int quantidade) {
+        int limite = Math.max(1, Math.min(quantidade, MAXIMO_HORARIOS_PROXIMOS));
+        return cache.obter(ChaveDisponibilidade.proximos(especialidadeId, tipo, limite, LocalDate.now().plusDays(1), LocalDate.now().plusDays(DIAS_AGENDA_ABERTA)),
+                () -> calcularProximosHorarios(especialidadeId, tipo, limite));
+    }
+
+    private List<Colaborador> calcularProfissionaisDisponiveis(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, LocalDateTime dataHora) {
+        LocalDateTime fim = dataHora.plusMinutes(tipo.getDuracaoPadraoMinutos());
+        LocalDate dia = dataHora.toLocalDate();
+        if (disponibilidadeMaterializada.cobre(dia, dia)) {
+            int de = GradeOcupacao.granuloInicial(dia, dataHora);
+            int ate = GradeOcupacao.granuloFinal(dia, fim);
+            List<Long> livres = disponibilidadeMaterializada.ocupacaoDoPeriodo(unidadeId, especialidadeId, dia, dia).get(dia)
+                    .entrySet().stream()
+                    .filter(ocupacao -> GradeOcupacao.isLivre(ocupacao.getValue(), de, ate))
+                    .map(Map.Entry::getKey)
+                    .filter(id -> isAtendivel(id, unidadeId, dataHora, fim))
+                    .toList();
+            return colaboradorRepository.findAllById(livres).stream().filter(c -> c.getDeleted() == 0).toList();
+        }
+        List<Colaborador> semConflito = indiceAgenda.isDisponivel()
+                ? colaboradorRepository.findAtivosPorUnidadeEEspecialidade(unidadeId, especialidadeId).stream()
+                        .filter(c -> !indiceAgenda.isOcupado(c.getId(), dataHora, fim))
+                        .toList()
+                : colaboradorRepository.findDisponiveisPorHorario(unidadeId, especialidadeId, dataHora, fim);
+        return semConflito.stream()
+                .filter(c -> isAtendivel(c.getId(), unidadeId, dataHora, fim))
+                .toList();
+    }
+
+    private List<HorarioLivreDto> calcularProximosHorarios(Long especialidadeId, TipoAgendamento tipo, int limite) {
+        int duracao = GradeOcupacao.granulos(tipo.getDuracaoPadraoMinutos());
+        int intervalo = GradeOcupacao.granulos(Math.min(INTERVALO_HORARIOS_MINUTOS, tipo.getDuracaoPadraoMinutos()));
+
+        List<HorarioLivreDto> encontrados = new ArrayList<>();
+        List<ColaboradorAgendaDto> colaboradores = colaboradorRepository.findAgendasAtivasPorEspecialidade(especialidadeId);
+        if (colaboradores.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = colaboradores.stream().map(ColaboradorAgendaDto::getIdColaborador).toList();
+        Map<Long, Long> unidades = new HashMap<>();
+        colaboradores.forEach(c -> unidades.put(c.getIdColaborador(), c.getIdUnidadeSaude()));
+
+        LocalDate ultimoDiaAgenda = LocalDate.now().plusDays(DIAS_AGENDA_ABERTA);
+        LocalDate primeiroDia = LocalDate.now().plusDays(1);
+        while (encontrados.size() < limite && !primeiroDia.isAfter(ultimoDiaAgenda)) {
+            LocalDate ultimoDia = primeiroDia.plusDays(DIAS_POR_BLOCO_BUSCA - 1);
+            if (ultimoDia.isAfter(ultimoDiaAgenda)) {
+                ultimoDia = ultimoDiaAgenda;
+            }
+            List<LocalDate> dias = primeiroDia.datesUntil(ultimoDia.plusDays(1)).toList();
+            Map<LocalDate, Map<Long, long[]>> ocupacao = carregarOcupacaoDaEspecialidade(especialidadeId, ids, primeiroDia, ultimoDia);
+            aplicarIndisponibilidade(ocupacao, unidades::get);
+
+            PriorityQueue<FluxoHorariosLivres> fila = new PriorityQueue<>(Comparator
+                    .comparing(FluxoHorariosLivres::getAtual)
+                    .thenComparing(fluxo -> fluxo.getColaborador().getIdColaborador()));
+            for (ColaboradorAgendaDto colaborador : colaboradores) {
+                FluxoHorariosLivres fluxo = new FluxoHorariosLivres(colaborador, ocupacao, dias, duracao, intervalo);
+                if (fluxo.avancar()) {
+                    fila.add(fluxo);
+                }
+            }
+            while (encontrados.size() < limite && !fila.isEmpty()) {
+                FluxoHorariosLivres fluxo = fila.poll();
+                encontrados.add(new HorarioLivreDto(fluxo.getColaborador().getIdUnidadeSaude(), fluxo.getColaborador().getIdColaborador(),
+                        fluxo.getAtual(), fluxo.getAtual().plusMinutes(tipo.getDuracaoPadraoMinutos())));
+                if (fluxo.avancar()) {
+                    fila.add(fluxo);
+                }
+            }
+            primeiroDia = ultimoDia.plusDays(1);
+        }
+        return List.copyOf(encontrados);
+    }
+
+    // Conta os horários livres de cada dia do período
+    private Map<LocalDate, Integer> contarHorariosLivresPorDia(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, LocalDate primeiroDia, LocalDate ultimoDia) {
+        Map<LocalDate, Integer> contagem = new TreeMap<>();
+        calcularHorariosLivres(unidadeId, especialidadeId, tipo, tipoSala, primeiroDia, ultimoDia)
+                .forEach((dia, horarios) -> contagem.put(dia, horarios.size()));
+        return contagem;
+    }
+
+    // Horários livres de cada dia do período
+    private Map<LocalDate, List<LocalTime>> calcularHorariosLivres(Long unidadeId, Long especialidadeId, TipoAgendamento tipo, String tipoSala, LocalDate primeiroDia, LocalDate ultimoDia) {
+        Map<LocalDate, Map<Long, long[]>> ocupacao = disponibilidadeMaterializada.cobre(primeiroDia, ultimoDia)
+                ? disponibilidadeMaterializada.ocupacaoDoPeriodo(unidadeId, especialidadeId, primeiroDia, ultimoDia)
+                : carregarOcupacaoDoBanco(unidadeId, especialidadeId, primeiroDia, ultimoDia);
+        aplicarIndisponibilidade(ocupacao, colaboradorId -> unidadeId);
+        Map<LocalDate, Map<Long, long[]>> ocupacaoSalas = tipoSala == null ? null
+                : carregarOcupacaoDasSalas(unidadeId, tipoSala, primeiroDia, ultimoDia);
+
+        Map<LocalDate, List<LocalTime>> resultado = new TreeMap<>();
+        ocupacao.forEach((dia, porColaborador) -> resultado.put(dia, horariosComAlgumColaboradorLivre(
+                new ArrayList<>(porColaborador.values()),
+                ocupacaoSalas == null ? null : new ArrayList<>(ocupacaoSalas.get(dia).values()),
+                tipo)));
+        return resultado;
+    }
+
+    /**
+     * Ocupação de cada colaborador, por dia do período, calculada a partir de TB_MEDI_AGENDAMENTO.
+     * Usa uma única consulta para todo o período e monta a grade de bits de cada
+     * colaborador-dia em uma só passada, então o custo no banco não cresce com o número de dias.
+     */
+    private Map<LocalDate, Map<Long, long[]>> carregarOcupacaoDoBanco(Long unidadeId, Long especialidadeId, LocalDate primeiroDia, LocalDate ultimoDia) {
+        List<IntervaloAgendamentoDto> grade = agendamentoRepository.findGradePorUnidadeEEspecialidade(unidadeId, especialidadeId,
+                primeiroDia.atStartOfDay(), ultimoDia.plusDays(1).atStartOfDay());
+
+        Set<Long> colaboradores = new HashSet<>();
+        grade.forEach(intervalo -> colaboradores.add(intervalo.getIdColaborador()));
+        return montarOcupacao(colaboradores, grade, primeiroDia, ultimoDia);
+    }
+
+    // Ocupação de cada sala do tipo na unidade, por dia do período, com uma única consulta
+    private Map<LocalDate, Map<Long, long[]>> carregarOcupacaoDasSalas(Long unidadeId, String tipoSala, LocalDate primeiroDia, LocalDate ultimoDia) {
+        List<IntervaloSalaDto> grade = agendamentoRepository.findGradeSalasPorUnidadeETipo(unidadeId, tipoSala,
+                primeiroDia.atStartOfDay(), ultimoDia.plusDays(1).atStartOfDay());
+
+        Set<Long> salas = new HashSet<>();
+        grade.forEach(intervalo -> salas.add(intervalo.getIdSala()));
+        Map<LocalDate, Map<Long, long[]>> ocupacao = montarOcupacao(salas, grade, primeiroDia, ultimoDia);
+        // Salas seguem o funcionamento da unidade
+        ocupacao.forEach((dia, porSala) -> {
+            long[] fechada = calendario.indisponibilidadeDaUnidade(unidadeId, dia);
+            porSala.forEach((salaId, ocupada) -> {
+                GradeOcupacao.ou(ocupada, fechada);
+                reservas.somarReservasDaSala(salaId, dia, ocupada);
+            });
+        });
+        return ocupacao;
+    }
+
+    private boolean isAlgumaSalaLivre(Long unidadeId, String tipoSala, LocalDateTime inicio, LocalDateTime fim) {
+        LocalDate dia = inicio.toLocalDate();
+        int de = GradeOcupacao.granuloInicial(dia, inicio);
+        int ate = GradeOcupacao.granuloFinal(dia, fim);
+        return carregarOcupacaoDasSalas(unidadeId, tipoSala, dia, dia).get(dia).values().stream()
+                .anyMatch(ocupado -> GradeOcupacao.isLivre(ocupado, de, ate));
+    }
+
+    // Ocupação dos colaboradores da especialidade em todas as unidades, pela fonte mais barata disponível
+    private Map<LocalDate, Map<Long, long[]>> carregarOcupacaoDaEspecialidade(Long especialidadeId, List<Long> colaboradores, LocalDate primeiroDia, LocalDate ultimoDia) {
+        if (disponibilidadeMaterializada.cobre(primeiroDia, ultimoDia)) {
+            return disponibilidadeMaterializada.ocupacaoDaEspecialidade(especialidadeId, primeiroDia, ultimoDia);
+        }
+        if (indiceAgenda.isDisponivel()) {
+            Map<LocalDate, Map<Long, long[]>> porDia = new TreeMap<>();
+            for (LocalDate dia = primeiroDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+                Map<Long, long[]> doDia = new HashMap<>();
+                for (Long id : colaboradores) {
+                    long[] ocupado = indiceAgenda.ocupacaoDoDia(id, dia);
+                    // Cópia: a jornada é somada depois e o índice não pode ser alterado
+                    doDia.put(id, ocupado != null ? ocupado.clone() : GradeOcupacao.vazia());
+                }
+                porDia.put(dia, doDia);
             }
+            return porDia;
         }
-        return dias;
+        List<IntervaloAgendamentoDto> intervalos = agendamentoRepository.findIntervalosAtivosPorEspecialidadeEntre(especialidadeId,
+                primeiroDia.atStartOfDay(), ultimoDia.plusDays(1).atStartOfDay());
+        return montarOcupacao(colaboradores, intervalos, primeiroDia, ultimoDia);
+    }
+
+    // Soma a indisponibilidade (jornada e reservas) à ocupação de cada colaborador-dia
+    private void aplicarIndisponibilidade(Map<LocalDate, Map<Long, long[]>> ocupacao, Function<Long, Long> unidadeDoColaborador) {
+        ocupacao.forEach((dia, porColaborador) -> porColaborador.forEach((colaboradorId, ocupado) ->
+                GradeOcupacao.ou(ocupado, indisponibilidade(colaboradorId, unidadeDoColaborador.apply(colaboradorId), dia))));
     }
 
-    // Passo 4: Listar horários livres no dia escolhido
-    public List<LocalTime> listarHorariosDisponiveis(Long unidadeId, Long especialidadeId, LocalDate data) {
+    // O que impede o colaborador de atender no dia, além dos agendamentos: fora da jornada ou reservado
+    private long[] indisponibilidade(Long colaboradorId, Long unidadeId, LocalDate dia) {
+        long[] bits = calendario.indisponibilidade(colaboradorId, unidadeId, dia);
+        reservas.somarReservasDoColaborador(colaboradorId, dia, bits);
+        return bits;
+    }
+
+    private boolean isAtendivel(Long colaboradorId, Long unidadeId, LocalDateTime inicio, LocalDateTime fim) {
+        return calendario.isNaJornada(colaboradorId, unidadeId, inicio, fim)
+                && !reservas.isColaboradorReservado(colaboradorId, inicio, fim);
+    }
+
+    // Monta a grade de bits de cada recurso (colaborador ou sala) por dia, em uma só passada pelos intervalos
+    private Map<LocalDate, Map<Long, long[]>> montarOcupacao(Collection<Long> recursos, List<? extends IntervaloOcupado> intervalos, LocalDate primeiroDia, LocalDate ultimoDia) {
+        // Todo recurso começa o dia livre; os agendamentos ligam os bits ocupados
+        Map<LocalDate, Map<Long, long[]>> porDia = new TreeMap<>();
+        for (LocalDate dia = primeiroDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+            Map<Long, long[]> doDia = new HashMap<>();
+            recursos.forEach(id -> doDia.put(id, GradeOcupacao.vazia()));
+            porDia.put(dia, doDia);
+        }
+        for (IntervaloOcupado intervalo : intervalos) {
+            if (intervalo.getIdAgendamento() == null) {
+                continue; // Recurso sem agendamentos no período
+            }
+            LocalDate ultimoDiaIntervalo = intervalo.getDataHoraFim().toLocalDate();
+            for (LocalDate dia = intervalo.getDataHoraInicio().toLocalDate(); !dia.isAfter(ultimoDiaIntervalo); dia = dia.plusDays(1)) {
+                Map<Long, long[]> doDia = porDia.get(dia);
+                if (doDia != null && doDia.containsKey(intervalo.getIdRecurso())) {
+                    GradeOcupacao.definir(doDia.get(intervalo.getIdRecurso()), 0,
+                            GradeOcupacao.granuloInicial(dia, intervalo.getDataHoraInicio()),
+                            GradeOcupacao.granuloFinal(dia, intervalo.getDataHoraFim()), true);
+                }
+            }
+        }
+        return porDia;
+    }
+
+    // Horários em que ao menos um colaborador tem a duração inteira do tipo livre, dentro da sua jornada.
+    // Com 'salas' informado, o horário também precisa de ao menos uma sala livre pela mesma duração: os inícios
+    // possíveis de colaboradores e de salas são calculados separadamente e intersectados palavra a palavra.
+    // Uma ocupação nula representa um dia sem nenhum agendamento.
+    private List<LocalTime> horariosComAlgumColaboradorLivre(List<long[]> ocupacoes, List<long[]> salas, TipoAgendamento tipo) {
+        int duracao = GradeOcupacao.granulos(tipo.getDuracaoPadraoMinutos());
+        int intervalo = GradeOcupacao.granulos(Math.min(INTERVALO_HORARIOS_MINUTOS, tipo.getDuracaoPadraoMinutos()));
+
+        long[] algumLivre = GradeOcupacao.vazia();
+        for (long[] ocupado : ocupacoes) {
+            GradeOcupacao.marcarInicios(ocupado, duracao, algumLivre);
+        }
+        if (salas != null) {
+            long[] algumaSalaLivre = GradeOcupacao.vazia();
+            for (long[] ocupada : salas) {
+                GradeOcupacao.marcarInicios(ocupada, duracao, algumaSalaLivre);
+            }
+            GradeOcupacao.e(algumLivre, algumaSalaLivre);
+        }
         List<LocalTime> horariosLivres = new ArrayList<>();
-        // Exemplo: expediente das 08h às 17h
-        LocalTime inicioExpediente = LocalTime.of(8, 0);
-        LocalTime fimExpediente = LocalTime.of(17, 0);
-
-        for (LocalTime slot = inicioExpediente; slot.isBefore(fimExpediente); slot = slot.plusMinutes(30)) {
-            LocalDateTime inicioSlot = LocalDateTime.of(data, slot);
-            LocalDateTime fimSlot = inicioSlot.plusMinutes(30);
-
-            // Verifica se existe pelo menos 1 médico livre neste slot na unidade/especialidade
-            List<Colaborador> medicosLivres = colaboradorRepository.findDisponiveisPorHorario(unidadeId, especialidadeId, inicioSlot, fimSlot);
-            if (!medicosLivres.isEmpty()) {
-                horariosLivres.add(slot);
+        for (int granulo = 0; granulo < GradeOcupacao.TOTAL_GRANULOS; granulo += intervalo) {
+            if (GradeOcupacao.isMarcado(algumLivre, granulo)) {
+                horariosLivres.add(GradeOcupacao.horario(granulo));
             }
         }
-        return horariosLivres;
+        return List.copyOf(horariosLivres);
+    }
+
+    private static String tipoSalaOuNulo(String tipoSala) {
+        return tipoSala == null || tipoSala.isBlank() ? null : tipoSala.trim();
     }
 
-    // Passo 5: Listar profissionais livres no horário escolhido
-    public List<Colaborador> listarProfissionaisDisponiveis(Long unidadeId, Long especialidadeId, LocalDateTime dataHora) {
-        LocalDateTime fim = dataHora.plusMinutes(30);
-        return colaboradorRepository.findDisponiveisPorHorario(unidadeId, especialidadeId, dataHora, fim);
+    // As entidades recebem links HATEOAS no controller, então cada requisição trabalha com a sua cópia
+    private static <T> List<T> copias(List<T> originais, Supplier<T> nova) {
+        return originais.stream()
+                .map(original -> {
+                    T copia = nova.get();
+                    BeanUtils.copyProperties(original, copia);
+                    return copia;
+                })
+                .toList();
     }
 }
\ No newline at end of file
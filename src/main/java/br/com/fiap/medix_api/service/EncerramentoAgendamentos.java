@@ -0,0 +1,100 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Encerra os agendamentos que já passaram: CONFIRMADO vira REALIZADO e AGENDADO (sem confirmação) vira
+ * NAO_COMPARECEU, depois de uma tolerância após o fim configurável por tipo (negativa desliga o tipo).
+ * A transição é feita por UPDATEs em blocos, cada um na sua transação curta, com uma pausa entre eles:
+ * o job ocupa uma conexão do pool por vez e só durante um bloco, sem carregar as entidades.
+ * Os dois status finais continuam ocupando o horário, então a disponibilidade e os caches não mudam.
+ */
+@Slf4j
+@Component
+public class EncerramentoAgendamentos {
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final int tamanhoBloco;
+    private final long pausaMs;
+    private final int maximoBlocos;
+    private final Map<TipoAgendamento, Long> toleranciaMinutos = new EnumMap<>(TipoAgendamento.class);
+
+    public EncerramentoAgendamentos(AgendamentoRepository agendamentoRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    Environment environment,
+                                    @Value("${medix.agenda.encerramento.habilitado:true}") boolean habilitado,
+                                    @Value("${medix.agenda.encerramento.tamanho-bloco:500}") int tamanhoBloco,
+                                    @Value("${medix.agenda.encerramento.pausa-ms:250}") long pausaMs,
+                                    @Value("${medix.agenda.encerramento.maximo-blocos:40}") int maximoBlocos) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = habilitado;
+        this.tamanhoBloco = tamanhoBloco;
+        this.pausaMs = pausaMs;
+        this.maximoBlocos = maximoBlocos;
+        for (TipoAgendamento tipo : TipoAgendamento.values()) {
+            toleranciaMinutos.put(tipo, environment.getProperty(
+                    "medix.agenda.encerramento.tolerancia-minutos." + tipo.name(), Long.class, 60L));
+        }
+    }
+
+    @Scheduled(cron = "${medix.agenda.encerramento.cron:0 */15 * * * *}")
+    public void encerrar() {
+        if (!habilitado) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        int realizados = 0;
+        int naoComparecidos = 0;
+        try {
+            for (Map.Entry<TipoAgendamento, Long> tolerancia : toleranciaMinutos.entrySet()) {
+                if (tolerancia.getValue() < 0) {
+                    continue;
+                }
+                LocalDateTime limite = agora.minusMinutes(tolerancia.getValue());
+                realizados += transicionar(StatusAgendamento.CONFIRMADO, StatusAgendamento.REALIZADO, tolerancia.getKey(), limite, agora);
+                naoComparecidos += transicionar(StatusAgendamento.AGENDADO, StatusAgendamento.NAO_COMPARECEU, tolerancia.getKey(), limite, agora);
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Falha ao encerrar os agendamentos passados: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (realizados + naoComparecidos > 0) {
+            log.info("Agendamentos encerrados: {} realizados, {} sem comparecimento.", realizados, naoComparecidos);
+        }
+    }
+
+    // Blocos até esgotar; o que passar de 'maximoBlocos' fica para a próxima execução
+    private int transicionar(StatusAgendamento statusAtual, StatusAgendamento novoStatus, TipoAgendamento tipo,
+                             LocalDateTime limite, LocalDateTime agora) throws InterruptedException {
+        int total = 0;
+        for (int bloco = 0; bloco < maximoBlocos; bloco++) {
+            Integer alterados = transactionTemplate.execute(status ->
+                    agendamentoRepository.transicionarEncerrados(statusAtual, novoStatus, tipo, limite, agora, tamanhoBloco));
+            total += alterados;
+            if (alterados < tamanhoBloco) {
+                break;
+            }
+            // Devolve a conexão e dá vez às requisições antes do próximo bloco
+            Thread.sleep(pausaMs);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.ColaboradorAgendaDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sequência ordenada dos horários de início livres de um colaborador ao longo de alguns dias.
+ * Cada dia é varrido uma única vez pela {@link GradeOcupacao} (primeiro encaixe da duração) e
+ * os horários são entregues sob demanda, então a busca do próximo horário pode intercalar os
+ * fluxos de vários colaboradores em uma fila de prioridade e parar assim que tiver o suficiente.
+ */
+final class FluxoHorariosLivres {
+
+    private final ColaboradorAgendaDto colaborador;
+    private final Map<LocalDate, Map<Long, long[]>> ocupacao;
+    private final Iterator<LocalDate> dias;
+    private final int duracao;
+    private final int intervalo;
+
+    private LocalDate dia;
+    private long[] inicios;
+    private int granulo;
+    private LocalDateTime atual;
+
+    FluxoHorariosLivres(ColaboradorAgendaDto colaborador, Map<LocalDate, Map<Long, long[]>> ocupacao,
+                        List<LocalDate> dias, int duracao, int intervalo) {
+        this.colaborador = colaborador;
+        this.ocupacao = ocupacao;
+        this.dias = dias.iterator();
+        this.duracao = duracao;
+        this.intervalo = intervalo;
+    }
+
+    ColaboradorAgendaDto getColaborador() {
+        return colaborador;
+    }
+
+    LocalDateTime getAtual() {
+        return atual;
+    }
+
+    // Avança para o próximo horário livre; false quando os dias acabaram
+    boolean avancar() {
+        while (true) {
+            if (inicios != null) {
+                int proximo = proximoInicio(granulo + 1);
+                if (proximo >= 0) {
+                    granulo = proximo;
+                    atual = LocalDateTime.of(dia, GradeOcupacao.horario(granulo));
+                    return true;
+                }
+                inicios = null;
+            }
+            if (!dias.hasNext()) {
+                return false;
+            }
+            dia = dias.next();
+            Map<Long, long[]> doDia = ocupacao.get(dia);
+            long[] ocupado = doDia == null ? null : doDia.get(colaborador.getIdColaborador());
+            if (ocupado == null) {
+                continue; // Colaborador sem agenda nesse dia
+            }
+            inicios = GradeOcupacao.vazia();
+            GradeOcupacao.marcarInicios(ocupado, duracao, inicios);
+            granulo = -1;
+        }
+    }
+
+    // Próximo início possível alinhado ao intervalo entre horários oferecidos, ou -1
+    private int proximoInicio(int desde) {
+        int candidato = GradeOcupacao.proximoMarcado(inicios, alinhar(desde));
+        while (candidato >= 0 && candidato % intervalo != 0) {
+            candidato = GradeOcupacao.proximoMarcado(inicios, alinhar(candidato));
+        }
+        return candidato;
+    }
+
+    private int alinhar(int granulo) {
+        return (granulo + intervalo - 1) / intervalo * intervalo;
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.fiap.medix_api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Representação compacta do dia de um colaborador (ou sala): um bit por grânulo de 5 minutos
+ * do dia inteiro, a partir da meia-noite, guardado em {@code long[]}. Bit 1 = ocupado.
+ * O expediente não faz parte da grade: ele vem do {@link CalendarioJornada}, já compilado no
+ * mesmo formato, e é combinado com a ocupação por um OR antes da busca.
+ * As perguntas de disponibilidade viram operações palavra a palavra (AND/OR)
+ * e a busca por uma janela livre de N minutos vira uma varredura de bits.
+ */
+final class GradeOcupacao {
+
+    static final int MINUTOS_POR_GRANULO = 5;
+    static final int TOTAL_GRANULOS = 24 * 60 / MINUTOS_POR_GRANULO;
+    static final int PALAVRAS = (TOTAL_GRANULOS + 63) >>> 6;
+
+    private GradeOcupacao() {
+    }
+
+    static long[] vazia() {
+        return new long[PALAVRAS];
+    }
+
+    // Quantos grânulos cobrem uma duração em minutos (arredondando para cima)
+    static int granulos(int minutos) {
+        return (minutos + MINUTOS_POR_GRANULO - 1) / MINUTOS_POR_GRANULO;
+    }
+
+    static LocalTime horario(int granulo) {
+        return LocalTime.MIDNIGHT.plusMinutes((long) granulo * MINUTOS_POR_GRANULO);
+    }
+
+    // Grânulo que começa no horário (arredondando para baixo)
+    static int granulo(LocalTime horario) {
+        return horario.toSecondOfDay() / 60 / MINUTOS_POR_GRANULO;
+    }
+
+    // Primeiro grânulo do dia tocado pelo instante, limitado à grade
+    static int granuloInicial(LocalDate dia, LocalDateTime inicio) {
+        long minutos = ChronoUnit.MINUTES.between(dia.atStartOfDay(), inicio);
+        return (int) Math.max(0, Math.min(TOTAL_GRANULOS, Math.floorDiv(minutos, MINUTOS_POR_GRANULO)));
+    }
+
+    // Grânulo seguinte ao último tocado pelo instante de fim (exclusivo), limitado à grade
+    static int granuloFinal(LocalDate dia, LocalDateTime fim) {
+        long minutos = ChronoUnit.MINUTES.between(dia.atStartOfDay(), fim);
+        return (int) Math.max(0, Math.min(TOTAL_GRANULOS, Math.floorDiv(minutos + MINUTOS_POR_GRANULO - 1, MINUTOS_POR_GRANULO)));
+    }
+
+    // Liga ou desliga os bits [de, ate) das palavras que começam em 'base'
+    static void definir(long[] palavras, int base, int de, int ate, boolean ocupado) {
+        int granulo = de;
+        while (granulo < ate) {
+            int palavra = granulo >>> 6;
+            int fimNaPalavra = Math.min(ate, (palavra + 1) << 6);
+            long mascara = mascara(granulo & 63, fimNaPalavra - (palavra << 6));
+            if (ocupado) {
+                palavras[base + palavra] |= mascara;
+            } else {
+                palavras[base + palavra] &= ~mascara;
+            }
+            granulo = fimNaPalavra;
+        }
+    }
+
+    static boolean isLivre(long[] ocupado, int de, int ate) {
+        int granulo = de;
+        while (granulo < ate) {
+            int palavra = granulo >>> 6;
+            int fimNaPalavra = Math.min(ate, (palavra + 1) << 6);
+            if ((ocupado[palavra] & mascara(granulo & 63, fimNaPalavra - (palavra << 6))) != 0) {
+                return false;
+            }
+            granulo = fimNaPalavra;
+        }
+        return true;
+    }
+
+    // Complemento da ocupação, restrito aos grânulos da grade
+    static long[] livres(long[] ocupado) {
+        long[] livres = new long[PALAVRAS];
+        for (int i = 0; i < PALAVRAS; i++) {
+            livres[i] = ~(ocupado == null ? 0L : ocupado[i]);
+        }
+        int sobra = TOTAL_GRANULOS & 63;
+        if (sobra != 0) {
+            livres[PALAVRAS - 1] &= mascara(0, sobra);
+        }
+        return livres;
+    }
+
+    /**
+     * Primeiro encaixe: percorre as lacunas livres do dia em uma única passada e liga em 'destino'
+     * todo grânulo onde uma janela de 'tamanho' grânulos cabe inteira. Com o que está fora da jornada
+     * já marcado como ocupado, janelas que ultrapassariam o expediente são descartadas automaticamente.
+     */
+    static void marcarInicios(long[] ocupado, int tamanho, long[] destino) {
+        long[] livres = livres(ocupado);
+        int inicioLacuna = proximoMarcado(livres, 0);
+        while (inicioLacuna >= 0) {
+            int fimLacuna = proximoDesmarcado(livres, inicioLacuna);
+            if (fimLacuna - inicioLacuna >= tamanho) {
+                definir(destino, 0, inicioLacuna, fimLacuna - tamanho + 1, true);
+            }
+            inicioLacuna = proximoMarcado(livres, fimLacuna);
+        }
+    }
+
+    static void ou(long[] destino, long[] origem) {
+        for (int i = 0; i < destino.length; i++) {
+            destino[i] |= origem[i];
+        }
+    }
+
+    // Nova grade com os bits das duas (ocupado em qualquer uma delas); 'a' pode ser nula
+    static long[] uniao(long[] a, long[] b) {
+        long[] resultado = b.clone();
+        if (a != null) {
+            ou(resultado, a);
+        }
+        return resultado;
+    }
+
+    static void e(long[] destino, long[] origem) {
+        for (int i = 0; i < destino.length; i++) {
+            destino[i] &= origem[i];
+        }
+    }
+
+    static boolean isMarcado(long[] palavras, int granulo) {
+        return (palavras[granulo >>> 6] & (1L << (granulo & 63))) != 0;
+    }
+
+    // Próximo bit ligado a partir de 'desde' (inclusive), ou -1
+    static int proximoMarcado(long[] palavras, int desde) {
+        if (desde >= TOTAL_GRANULOS) {
+            return -1;
+        }
+        int palavra = desde >>> 6;
+        long atual = palavras[palavra] & (-1L << (desde & 63));
+        while (true) {
+            if (atual != 0) {
+                int granulo = (palavra << 6) + Long.numberOfTrailingZeros(atual);
+                return granulo < TOTAL_GRANULOS ? granulo : -1;
+            }
+            if (++palavra == palavras.length) {
+                return -1;
+            }
+            atual = palavras[palavra];
+        }
+    }
+
+    // Próximo bit desligado a partir de 'desde' (inclusive), ou TOTAL_GRANULOS
+    static int proximoDesmarcado(long[] palavras, int desde) {
+        if (desde >= TOTAL_GRANULOS) {
+            return TOTAL_GRANULOS;
+        }
+        int palavra = desde >>> 6;
+        long atual = ~palavras[palavra] & (-1L << (desde & 63));
+        while (true) {
+            if (atual != 0) {
+                return Math.min(TOTAL_GRANULOS, (palavra << 6) + Long.numberOfTrailingZeros(atual));
+            }
+            if (++palavra == palavras.length) {
+                return TOTAL_GRANULOS;
+            }
+            atual = ~palavras[palavra];
+        }
+    }
+
+    static int contarLivres(long[] ocupado) {
+        int livres = 0;
+        for (long palavra : livres(ocupado)) {
+            livres += Long.bitCount(palavra);
+        }
+        return livres;
+    }
+
+    // Serialização em hexadecimal (16 caracteres por palavra), usada pela disponibilidade materializada
+    static String paraHex(long[] palavras) {
+        StringBuilder hex = new StringBuilder(palavras.length * 16);
+        for (long palavra : palavras) {
+            hex.append(String.format("%016x", palavra));
+        }
+        return hex.toString();
+    }
+
+    // Aceita textos gravados com outra quantidade de palavras (a grade pode ter mudado desde a gravação)
+    static long[] deHex(String hex) {
+        long[] palavras = vazia();
+        for (int i = 0; i < PALAVRAS && (i + 1) * 16 <= hex.length(); i++) {
+            palavras[i] = Long.parseUnsignedLong(hex.substring(i * 16, (i + 1) * 16), 16);
+        }
+        return palavras;
+    }
+
+    // Bits [de, ate) de uma palavra, com 0 <= de < ate <= 64
+    private static long mascara(int de, int ate) {
+        long alto = ate == 64 ? -1L : (1L << ate) - 1;
+        return alto & ~((1L << de) - 1);
+    }
+}
@@ -0,0 +1,227 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
+import br.com.fiap.medix_api.dto.response.RespostaAgendamentoDto;
+import br.com.fiap.medix_api.model.ChaveIdempotencia;
+import br.com.fiap.medix_api.repository.ChaveIdempotenciaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key do POST /agendamentos: a primeira resposta de cada chave fica em um cache limitado e com
+ * tempo de vida, e as repetições (retries de clientes móveis) a recebem de volta sem passar pelo caminho do
+ * agendamento. Uma repetição que chega enquanto a primeira ainda executa espera por ela em vez de agendar de novo.
+ * Só respostas de sucesso são guardadas: depois de uma falha a mesma chave executa novamente.
+ * Com 'persistente', as chaves também vão para TB_MEDI_IDEMPOTENCIA na transação do agendamento, para valer entre instâncias.
+ * A chave é inserida antes do agendamento: se duas instâncias recebem a mesma chave ao mesmo tempo, a segunda fica
+ * presa na PK até o commit da primeira, desfaz a própria transação sem ter agendado e devolve a resposta gravada.
+ */
+@Slf4j
+@Component
+public class IdempotenciaAgendamento {
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean persistente;
+    private final long ttlMinutos;
+    private final long esperaMaximaMs;
+    private final Cache<String, Execucao> execucoes;
+
+    public IdempotenciaAgendamento(ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${medix.agenda.idempotencia.persistente:false}") boolean persistente,
+                                   @Value("${medix.agenda.idempotencia.tamanho-maximo:10000}") long tamanhoMaximo,
+                                   @Value("${medix.agenda.idempotencia.ttl-minutos:1440}") long ttlMinutos,
+                                   @Value("${medix.agenda.idempotencia.espera-maxima-ms:10000}") long esperaMaximaMs) {
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.persistente = persistente;
+        this.ttlMinutos = ttlMinutos;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.execucoes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .build();
+    }
+
+    // 'agendar' executa o agendamento; 'buscar' monta a resposta de um agendamento já criado (chave vinda do banco)
+    public RespostaIdempotente executar(String chave, CadastrarAgendamentoDto dto, Supplier<RespostaAgendamentoDto> agendar,
+                                        Function<Long, RespostaAgendamentoDto> buscar) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException("A Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+        // Por usuário: a chave de um cliente nunca devolve o agendamento de outro
+        String chaveUsuario = usuario() + ":" + chave;
+        String hash = hash(dto);
+
+        Execucao nova = new Execucao(hash);
+        Execucao existente = execucoes.asMap().putIfAbsent(chaveUsuario, nova);
+        if (existente != null) {
+            return new RespostaIdempotente(aguardar(existente, hash), true);
+        }
+        try {
+            Optional<ChaveIdempotencia> gravada = persistente ? chaveIdempotenciaRepository.findById(chaveUsuario) : Optional.empty();
+            if (gravada.isPresent()) {
+                verificarHash(gravada.get().getHashRequisicao(), hash);
+                RespostaAgendamentoDto corpo = buscar.apply(gravada.get().getIdAgendamento());
+                nova.resposta.complete(corpo);
+                return new RespostaIdempotente(corpo, true);
+            }
+            RespostaAgendamentoDto corpo = persistente
+                    ? transactionTemplate.execute(status -> gravarEAgendar(chaveUsuario, hash, agendar))
+                    : agendar.get();
+            // Completa só depois do commit: quem espera nunca recebe um agendamento desfeito
+            nova.resposta.complete(corpo);
+            return new RespostaIdempotente(corpo, false);
+        } catch (ChaveJaGravadaException e) {
+            RespostaAgendamentoDto corpo = repetirGravada(chaveUsuario, hash, buscar);
+            nova.resposta.complete(corpo);
+            return new RespostaIdempotente(corpo, true);
+        } catch (RuntimeException e) {
+            execucoes.asMap().remove(chaveUsuario, nova);
+            nova.resposta.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Remove do banco as chaves que já passaram do tempo de vida
+    @Scheduled(cron = "${medix.agenda.idempotencia.limpeza-cron:0 30 * * * *}")
+    public void limpar() {
+        if (!persistente) {
+            return;
+        }
+        try {
+            Integer removidas = transactionTemplate.execute(status ->
+                    chaveIdempotenciaRepository.deleteByDataCriacaoAnteriorA(LocalDateTime.now().minusMinutes(ttlMinutos)));
+            log.debug("{} chaves de idempotência expiradas removidas.", removidas);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Não foi possível remover as chaves de idempotência expiradas: {}", e.getMessage());
+        }
+    }
+
+    // A chave entra primeiro (sem o agendamento) e recebe o id antes do commit; ninguém a lê sem o id
+    private RespostaAgendamentoDto gravarEAgendar(String chaveUsuario, String hash, Supplier<RespostaAgendamentoDto> agendar) {
+        ChaveIdempotencia gravada = ChaveIdempotencia.builder()
+                .chave(chaveUsuario)
+                .hashRequisicao(hash)
+                .dataCriacao(LocalDateTime.now())
+                .build();
+        try {
+            chaveIdempotenciaRepository.saveAndFlush(gravada);
+        } catch (DataIntegrityViolationException e) {
+            throw new ChaveJaGravadaException(e);
+        }
+        RespostaAgendamentoDto corpo = agendar.get();
+        gravada.setIdAgendamento(corpo.getId());
+        return corpo;
+    }
+
+    // Outra instância gravou a chave primeiro; lida do primário, onde o commit dela já está
+    private RespostaAgendamentoDto repetirGravada(String chaveUsuario, String hash, Function<Long, RespostaAgendamentoDto> buscar) {
+        return transactionTemplate.execute(status -> {
+            ChaveIdempotencia gravada = chaveIdempotenciaRepository.findById(chaveUsuario).orElseThrow(() ->
+                    new IllegalStateException("Uma requisição com a mesma Idempotency-Key ainda está em processamento. Tente novamente."));
+            verificarHash(gravada.getHashRequisicao(), hash);
+            return buscar.apply(gravada.getIdAgendamento());
+        });
+    }
+
+    private RespostaAgendamentoDto aguardar(Execucao execucao, String hash) {
+        verificarHash(execucao.hash, hash);
+        try {
+            return execucao.resposta.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // A primeira execução falhou: a repetição recebe o mesmo erro
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Falha ao processar o agendamento.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Uma requisição com a mesma Idempotency-Key ainda está em processamento. Tente novamente.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Requisição interrompida enquanto aguardava a Idempotency-Key.");
+        }
+    }
+
+    private static void verificarHash(String esperado, String recebido) {
+        if (!esperado.equals(recebido)) {
+            throw new IllegalArgumentException("A Idempotency-Key já foi usada com outra requisição.");
+        }
+    }
+
+    private static String usuario() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null ? autenticacao.getName() : "";
+    }
+
+    // Lista explícita e ordenada dos campos da requisição, para o hash gravado em TB_MEDI_IDEMPOTENCIA não mudar
+    // com alterações no DTO. Um campo novo que mude o agendamento entra no fim, sem trocar os já gravados
+    static String hash(CadastrarAgendamentoDto dto) {
+        String campos = "v1"
+                + campo(dto.getIdPaciente())
+                + campo(dto.getIdColaborador())
+                + campo(dto.getIdEspecialidade())
+                + campo(dto.getIdUnidadeSaude())
+                + campo(dto.getIdSala())
+                + campo(dto.getDataHoraInicio())
+                + campo(dto.getTipo() != null ? dto.getTipo().name() : null)
+                + campo(dto.getObservacoes());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(campos.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Tamanho antes do valor: nenhum texto (ex: as observações) se confunde com a divisa entre dois campos
+    private static String campo(Object valor) {
+        if (valor == null) {
+            return "|-";
+        }
+        String texto = valor.toString();
+        return "|" + texto.length() + ":" + texto;
+    }
+
+    private static final class ChaveJaGravadaException extends RuntimeException {
+        private ChaveJaGravadaException(Throwable causa) {
+            super(causa);
+        }
+    }
+
+    private static final class Execucao {
+        private final String hash;
+        private final CompletableFuture<RespostaAgendamentoDto> resposta = new CompletableFuture<>();
+
+        private Execucao(String hash) {
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos horários ocupados de cada colaborador, um {@link MapaOcupacao}
+ * de bits por (colaborador, dia). É carregado uma vez a partir dos agendamentos ativos e
+ * mantido atualizado pelos eventos de agendamento, permitindo responder aos passos 4 e 5
+ * da disponibilidade sem consultar o banco a cada horário.
+ * Guarda só os agendamentos (a jornada é somada na consulta); como os agendamentos de um colaborador
+ * nunca se sobrepõem (ver AgendamentoService), liberar um intervalo é só desligar seus bits.
+ * Os eventos que chegam enquanto a carga consulta o banco ficam guardados e são reaplicados, na ordem,
+ * sobre o mapa carregado antes de ele entrar no lugar do atual: a consulta pode não ter visto esses commits.
+ * Um job diário descarta os dias que já passaram e os que ficaram sem agendamentos (cancelados).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceAgenda {
+
+    private final AgendamentoRepository agendamentoRepository;
+
+    @Value("${medix.agenda.indice-memoria.habilitado:true}")
+    private boolean habilitado;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private MapaOcupacao mapa = new MapaOcupacao(0);
+    // Eventos recebidos durante a carga (nulo fora dela); protegido pelo lock
+    private List<AgendamentoAlteradoEvent> pendentes;
+    private volatile boolean carregado = false;
+
+    // Carrega os agendamentos ativos (não cancelados e ainda não encerrados) ao subir a aplicação
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendentes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<IntervaloAgendamentoDto> intervalos = agendamentoRepository.findIntervalosAtivosAPartirDe(LocalDateTime.now());
+            MapaOcupacao novo = new MapaOcupacao(intervalos.size());
+            intervalos.forEach(i -> definir(novo, i.getIdColaborador(), i.getDataHoraInicio(), i.getDataHoraFim(), true));
+
+            int reaplicados;
+            int colaboradorDias;
+            lock.writeLock().lock();
+            try {
+                reaplicados = pendentes.size();
+                pendentes.forEach(evento -> definir(novo, evento));
+                // Dimensionado pela quantidade de agendamentos, maior que a de colaborador-dias: a cópia fica no tamanho certo
+                mapa = novo.aPartirDe(LocalDate.now());
+                colaboradorDias = mapa.tamanho();
+                carregado = true;
+            } finally {
+                pendentes = null;
+                lock.writeLock().unlock();
+            }
+            log.info("Índice de agenda carregado com {} agendamentos ({} colaborador-dias, {} eventos reaplicados).",
+                    intervalos.size(), colaboradorDias, reaplicados);
+        } catch (DataAccessException e) {
+            // Sem o índice, a disponibilidade continua sendo calculada pelo banco
+            lock.writeLock().lock();
+            try {
+                pendentes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Não foi possível carregar o índice de agenda: {}", e.getMessage());
+        }
+    }
+
+    // Sem a limpeza, cada colaborador-dia já encerrado ficaria no mapa enquanto a aplicação estiver no ar
+    @Scheduled(cron = "${medix.agenda.indice-memoria.limpeza-cron:0 5 0 * * *}")
+    public void limpar() {
+        if (!isDisponivel()) {
+            return;
+        }
+        int antes;
+        int depois;
+        lock.writeLock().lock();
+        try {
+            antes = mapa.tamanho();
+            mapa = mapa.aPartirDe(LocalDate.now());
+            depois = mapa.tamanho();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Índice de agenda: {} colaborador-dias descartados, {} mantidos.", antes - depois, depois);
+    }
+
+    public boolean isDisponivel() {
+        return habilitado && carregado;
+    }
+
+    // Verifica se o colaborador possui algum agendamento ativo que se sobrepõe ao intervalo [inicio, fim)
+    public boolean isOcupado(Long colaboradorId, LocalDateTime inicio, LocalDateTime fim) {
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(fim.toLocalDate()); dia = dia.plusDays(1)) {
+            long[] ocupado = ocupacaoDoDia(colaboradorId, dia);
+            if (ocupado != null && !GradeOcupacao.isLivre(ocupado,
+                    GradeOcupacao.granuloInicial(dia, inicio), GradeOcupacao.granuloFinal(dia, fim))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Bits de ocupação do colaborador no dia, ou null se o dia está todo livre
+    public long[] ocupacaoDoDia(Long colaboradorId, LocalDate dia) {
+        lock.readLock().lock();
+        try {
+            return mapa.buscar(MapaOcupacao.chave(colaboradorId, dia));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Aplicado somente após o commit, para que o índice nunca reflita uma transação desfeita
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarAgendamento(AgendamentoAlteradoEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendentes != null) {
+                pendentes.add(evento);
+            }
+            if (carregado) {
+                definir(mapa, evento);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void definir(MapaOcupacao destino, AgendamentoAlteradoEvent evento) {
+        definir(destino, evento.getIdColaborador(), evento.getDataHoraInicio(), evento.getDataHoraFim(), evento.isAtivo());
+    }
+
+    private static void definir(MapaOcupacao destino, Long colaboradorId, LocalDateTime inicio, LocalDateTime fim, boolean ocupado) {
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(fim.toLocalDate()); dia = dia.plusDays(1)) {
+            destino.definir(MapaOcupacao.chave(colaboradorId, dia),
+                    GradeOcupacao.granuloInicial(dia, inicio), GradeOcupacao.granuloFinal(dia, fim), ocupado);
+        }
+    }
+}
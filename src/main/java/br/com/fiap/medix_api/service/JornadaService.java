@@ -0,0 +1,147 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.request.CadastrarExcecaoJornadaDto;
+import br.com.fiap.medix_api.dto.request.CadastrarJornadaDto;
+import br.com.fiap.medix_api.event.JornadaAlteradaEvent;
+import br.com.fiap.medix_api.model.Colaborador;
+import br.com.fiap.medix_api.model.ExcecaoJornada;
+import br.com.fiap.medix_api.model.JornadaTrabalho;
+import br.com.fiap.medix_api.repository.ColaboradorRepository;
+import br.com.fiap.medix_api.repository.ExcecaoJornadaRepository;
+import br.com.fiap.medix_api.repository.JornadaTrabalhoRepository;
+import br.com.fiap.medix_api.repository.UnidadeSaudeRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class JornadaService {
+
+    private final JornadaTrabalhoRepository jornadaRepository;
+    private final ExcecaoJornadaRepository excecaoRepository;
+    private final ColaboradorRepository colaboradorRepository;
+    private final UnidadeSaudeRepository unidadeSaudeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public JornadaTrabalho criarJornada(CadastrarJornadaDto dto) {
+        validarHorario(dto.getHoraInicio(), dto.getHoraFim());
+        JornadaTrabalho jornada = JornadaTrabalho.builder()
+                .diaSemana(dto.getDiaSemana())
+                .horaInicio(dto.getHoraInicio())
+                .horaFim(dto.getHoraFim())
+                .build();
+        if (dto.getIdColaborador() != null) {
+            buscarColaborador(dto.getIdColaborador());
+            jornada.setIdColaborador(dto.getIdColaborador());
+        } else if (dto.getIdUnidadeSaude() != null) {
+            validarUnidade(dto.getIdUnidadeSaude());
+            jornada.setIdUnidadeSaude(dto.getIdUnidadeSaude());
+        } else {
+            throw new IllegalArgumentException("Informe o colaborador ou a unidade de saúde da jornada.");
+        }
+
+        JornadaTrabalho salva = jornadaRepository.save(jornada);
+        publicarAlteracao(salva.getIdColaborador(), salva.getIdUnidadeSaude());
+        return salva;
+    }
+
+    // Modelos do colaborador, ou o padrão da unidade
+    public List<JornadaTrabalho> listarJornadas(Long idColaborador, Long idUnidadeSaude) {
+        if (idColaborador != null) {
+            return jornadaRepository.findByIdColaboradorOrderByDiaSemanaAscHoraInicioAsc(idColaborador);
+        }
+        if (idUnidadeSaude != null) {
+            return jornadaRepository.findByIdColaboradorIsNullAndIdUnidadeSaudeOrderByDiaSemanaAscHoraInicioAsc(idUnidadeSaude);
+        }
+        throw new IllegalArgumentException("Informe o colaborador ou a unidade de saúde.");
+    }
+
+    @Transactional
+    public void excluirJornada(Long id) {
+        JornadaTrabalho jornada = jornadaRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Jornada não encontrada com ID: " + id));
+        jornadaRepository.delete(jornada);
+        publicarAlteracao(jornada.getIdColaborador(), jornada.getIdUnidadeSaude());
+    }
+
+    @Transactional
+    public ExcecaoJornada criarExcecao(CadastrarExcecaoJornadaDto dto) {
+        if (dto.getDataFim().isBefore(dto.getDataInicio())) {
+            throw new IllegalArgumentException("A data de fim não pode ser anterior à data de início.");
+        }
+        if ((dto.getHoraInicio() == null) != (dto.getHoraFim() == null)) {
+            throw new IllegalArgumentException("Informe os dois horários da exceção, ou nenhum para bloquear o dia inteiro.");
+        }
+        if (dto.getHoraInicio() != null) {
+            validarHorario(dto.getHoraInicio(), dto.getHoraFim());
+        }
+        if (dto.getIdColaborador() != null) {
+            buscarColaborador(dto.getIdColaborador());
+        } else if (dto.getIdUnidadeSaude() != null) {
+            validarUnidade(dto.getIdUnidadeSaude());
+        }
+
+        ExcecaoJornada excecao = ExcecaoJornada.builder()
+                .idColaborador(dto.getIdColaborador())
+                .idUnidadeSaude(dto.getIdColaborador() == null ? dto.getIdUnidadeSaude() : null)
+                .dataInicio(dto.getDataInicio())
+                .dataFim(dto.getDataFim())
+                .horaInicio(dto.getHoraInicio())
+                .horaFim(dto.getHoraFim())
+                .descricao(dto.getDescricao())
+                .build();
+
+        ExcecaoJornada salva = excecaoRepository.save(excecao);
+        publicarAlteracao(salva.getIdColaborador(), salva.getIdUnidadeSaude());
+        return salva;
+    }
+
+    // Exceções que ainda não terminaram
+    public Pagina<ExcecaoJornada> listarExcecoes(String cursor, Integer tamanho) {
+        int limite = Pagina.limitar(tamanho);
+        return Pagina.de(excecaoRepository.findPaginaVigentesAPartirDe(LocalDate.now(), Pagina.idDoCursor(cursor), limite + 1), limite, item -> Pagina.cursor(item.getId()));
+    }
+
+    @Transactional
+    public void excluirExcecao(Long id) {
+        ExcecaoJornada excecao = excecaoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Exceção de jornada não encontrada com ID: " + id));
+        excecaoRepository.delete(excecao);
+        publicarAlteracao(excecao.getIdColaborador(), excecao.getIdUnidadeSaude());
+    }
+
+    private Colaborador buscarColaborador(Long id) {
+        return colaboradorRepository.findByIdAndDeletedIs(id, 0)
+                .orElseThrow(() -> new EntityNotFoundException("Colaborador não encontrado ou inativo com o ID: " + id));
+    }
+
+    private void validarUnidade(Long id) {
+        unidadeSaudeRepository.findByIdAndDeletedIs(id, 0)
+                .orElseThrow(() -> new EntityNotFoundException("Unidade de Saúde não encontrada ou inativa."));
+    }
+
+    private void validarHorario(LocalTime inicio, LocalTime fim) {
+        if (!inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("O horário de início deve ser anterior ao horário de fim.");
+        }
+    }
+
+    // A jornada de um colaborador afeta a disponibilidade da unidade onde ele atende
+    private void publicarAlteracao(Long idColaborador, Long idUnidadeSaude) {
+        Long unidade = idUnidadeSaude;
+        if (idColaborador != null) {
+            unidade = colaboradorRepository.findById(idColaborador)
+                    .map(c -> c.getUnidadeSaude().getId())
+                    .orElse(null);
+        }
+        eventPublisher.publishEvent(new JornadaAlteradaEvent(idColaborador, unidade));
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.request.CadastrarInscricaoEsperaDto;
+import br.com.fiap.medix_api.enums.StatusListaEspera;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import br.com.fiap.medix_api.model.InscricaoEspera;
+import br.com.fiap.medix_api.repository.EspecialidadeRepository;
+import br.com.fiap.medix_api.repository.InscricaoEsperaRepository;
+import br.com.fiap.medix_api.repository.PacienteRepository;
+import br.com.fiap.medix_api.repository.UnidadeSaudeRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ListaEsperaService {
+
+    private static final List<StatusListaEspera> ATIVAS = List.of(StatusListaEspera.AGUARDANDO, StatusListaEspera.OFERTADO);
+
+    private final InscricaoEsperaRepository inscricaoRepository;
+    private final PacienteRepository pacienteRepository;
+    private final EspecialidadeRepository especialidadeRepository;
+    private final UnidadeSaudeRepository unidadeSaudeRepository;
+    private final RealocacaoListaEspera realocacao;
+    private final ReservasTemporarias reservas;
+
+    @Value("${medix.agenda.lista-espera.periodo-maximo-dias:60}")
+    private long periodoMaximoDias;
+
+    @Transactional
+    public InscricaoEspera inscrever(CadastrarInscricaoEsperaDto dto) {
+        if (dto.getDataFim().isBefore(dto.getDataInicio())) {
+            throw new IllegalArgumentException("A data de fim não pode ser anterior à data de início.");
+        }
+        if (ChronoUnit.DAYS.between(dto.getDataInicio(), dto.getDataFim()) >= periodoMaximoDias) {
+            throw new IllegalArgumentException("O período da lista de espera pode ter no máximo " + periodoMaximoDias + " dias.");
+        }
+        pacienteRepository.findByIdAndDeletedIs(dto.getIdPaciente(), 0)
+                .orElseThrow(() -> new EntityNotFoundException("Paciente não encontrado ou inativo com o ID: " + dto.getIdPaciente()));
+        if (!especialidadeRepository.existsById(dto.getIdEspecialidade())) {
+            throw new EntityNotFoundException("Especialidade não encontrada com ID: " + dto.getIdEspecialidade());
+        }
+        if (dto.getIdUnidadeSaude() != null) {
+            unidadeSaudeRepository.findByIdAndDeletedIs(dto.getIdUnidadeSaude(), 0)
+                    .orElseThrow(() -> new EntityNotFoundException("Unidade de Saúde não encontrada ou inativa."));
+        }
+        if (inscricaoRepository.existsByIdPacienteAndIdEspecialidadeAndStatusIn(dto.getIdPaciente(), dto.getIdEspecialidade(), ATIVAS)) {
+            throw new IllegalStateException("O paciente já está na lista de espera desta especialidade.");
+        }
+
+        InscricaoEspera inscricao = inscricaoRepository.save(InscricaoEspera.builder()
+                .idPaciente(dto.getIdPaciente())
+                .idEspecialidade(dto.getIdEspecialidade())
+                .idUnidadeSaude(dto.getIdUnidadeSaude())
+                .dataInicio(dto.getDataInicio())
+                .dataFim(dto.getDataFim())
+                .tipo(dto.getTipo() != null ? dto.getTipo() : TipoAgendamento.CONSULTA)
+                .agendamentoAutomatico(dto.isAgendamentoAutomatico())
+                .status(StatusListaEspera.AGUARDANDO)
+                .build());
+        // Entra na fila em memória só depois do commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                realocacao.adicionar(inscricao);
+            }
+        });
+        return inscricao;
+    }
+
+    public Pagina<InscricaoEspera> listarPorPaciente(Long idPaciente, String cursor, Integer tamanho) {
+        int limite = Pagina.limitar(tamanho);
+        return Pagina.de(inscricaoRepository.findPaginaDoPaciente(idPaciente, Pagina.idDoCursor(cursor), limite + 1), limite, item -> Pagina.cursor(item.getId()));
+    }
+
+    public InscricaoEspera buscarPorId(Long id) {
+        return inscricaoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Inscrição na lista de espera não encontrada com ID: " + id));
+    }
+
+    // Sai da fila; uma vaga ofertada e ainda não confirmada é liberada para o próximo
+    @Transactional
+    public InscricaoEspera cancelar(Long id) {
+        InscricaoEspera inscricao = buscarPorId(id);
+        if (!ATIVAS.contains(inscricao.getStatus())) {
+            throw new IllegalStateException("A inscrição não está mais ativa na lista de espera.");
+        }
+        inscricao.setStatus(StatusListaEspera.CANCELADO);
+        InscricaoEspera salva = inscricaoRepository.save(inscricao);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                realocacao.remover(salva);
+                if (salva.getTokenReserva() != null) {
+                    reservas.liberar(salva.getTokenReserva());
+                }
+            }
+        });
+        return salva;
+    }
+}
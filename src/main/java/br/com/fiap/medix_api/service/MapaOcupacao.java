@@ -0,0 +1,251 @@
+package br.com.fiap.medix_api.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapa de chave primitiva (colaborador, dia) para a {@link GradeOcupacao} do dia.
+ * Usa endereçamento aberto com sondagem linear, e não há nenhum objeto por entrada: cada slot guarda
+ * só uma janela de {@value #GRANULOS_JANELA} grânulos (10h40) do dia, em 2 palavras de um {@code long[]}
+ * contíguo, mais o grânulo onde a janela começa em um {@code byte[]}. A janela acompanha os grânulos
+ * ocupados, que em um dia de trabalho cabem nela; os raros dias ocupados por mais de 10h40 (ex: um
+ * bloqueio do dia inteiro no {@link CalendarioJornada}) guardam a grade completa à parte.
+ * Cada slot custa 25 bytes e a tabela é dimensionada para a carga máxima de 75%: medido com 730 mil
+ * colaborador-dias (um ano de agendas de 2.000 colaboradores), o mapa ocupa 24 MB (eram 70 a 140 MB com a
+ * grade do dia inteiro por slot). O {@link IndiceAgenda} só mantém os dias a partir de hoje, então com
+ * agendas abertas por 60 dias ele fica em torno de 4 MB. A busca devolve sempre a grade do dia inteiro.
+ * Não é thread-safe: quem usa precisa sincronizar o acesso.
+ */
+final class MapaOcupacao {
+
+    static final int GRANULOS_JANELA = 128;
+
+    private static final long VAZIA = -1L;
+    private static final int W = GRANULOS_JANELA >>> 6;
+    // Maior início de janela que ainda termina dentro do dia
+    private static final int INICIO_MAXIMO = GradeOcupacao.TOTAL_GRANULOS - GRANULOS_JANELA;
+    // Marca do slot cuja grade está em 'diasCompletos'
+    private static final byte COMPLETO = -1;
+
+    private long[] chaves;
+    private long[] palavras;
+    private byte[] inicios;
+    private final Map<Long, long[]> diasCompletos = new HashMap<>();
+    private int tamanho;
+
+    MapaOcupacao(int capacidadeEsperada) {
+        alocar(capacidade(capacidadeEsperada));
+    }
+
+    // 20 bits para o dia (até o ano 4840) e o restante para o ID do colaborador
+    static long chave(long colaboradorId, LocalDate dia) {
+        return (colaboradorId << 20) | (dia.toEpochDay() & 0xFFFFF);
+    }
+
+    // Cópia da ocupação do dia, ou null se não há nada registrado (dia todo livre)
+    long[] buscar(long chave) {
+        int slot = localizar(chave);
+        if (chaves[slot] == VAZIA) {
+            return null;
+        }
+        if (inicios[slot] == COMPLETO) {
+            return diasCompletos.get(chave).clone();
+        }
+        return expandir(slot);
+    }
+
+    void definir(long chave, int de, int ate, boolean ocupado) {
+        if (de >= ate) {
+            return;
+        }
+        int slot = localizar(chave);
+        if (chaves[slot] == VAZIA) {
+            if (!ocupado) {
+                return; // Nada a liberar
+            }
+            if ((tamanho + 1) * 4L > chaves.length * 3L) {
+                redimensionar();
+                slot = localizar(chave);
+            }
+            chaves[slot] = chave;
+            inicios[slot] = (byte) Math.min(de, INICIO_MAXIMO);
+            tamanho++;
+        }
+        if (inicios[slot] == COMPLETO) {
+            GradeOcupacao.definir(diasCompletos.get(chave), 0, de, ate, ocupado);
+            return;
+        }
+
+        int inicio = inicio(slot);
+        if (de >= inicio && ate <= inicio + GRANULOS_JANELA) {
+            GradeOcupacao.definir(palavras, slot * W, de - inicio, ate - inicio, ocupado);
+        } else if (!ocupado) {
+            // Fora da janela não há nada ocupado; libera só a parte que cai nela
+            int deNaJanela = Math.max(de, inicio);
+            int ateNaJanela = Math.min(ate, inicio + GRANULOS_JANELA);
+            if (deNaJanela < ateNaJanela) {
+                GradeOcupacao.definir(palavras, slot * W, deNaJanela - inicio, ateNaJanela - inicio, false);
+            }
+        } else {
+            long[] grade = expandir(slot);
+            GradeOcupacao.definir(grade, 0, de, ate, true);
+            reposicionar(slot, grade);
+        }
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    // Novo mapa só com os dias a partir de 'primeiroDia' que ainda têm algum grânulo ocupado
+    MapaOcupacao aPartirDe(LocalDate primeiroDia) {
+        int mantidos = 0;
+        for (int i = 0; i < chaves.length; i++) {
+            if (isMantido(i, primeiroDia)) {
+                mantidos++;
+            }
+        }
+        MapaOcupacao copia = new MapaOcupacao(mantidos);
+        for (int i = 0; i < chaves.length; i++) {
+            if (isMantido(i, primeiroDia)) {
+                copia.copiar(this, i);
+            }
+        }
+        return copia;
+    }
+
+    // Move a janela para cobrir todos os grânulos ocupados da grade, ou guarda a grade completa se não couberem
+    private void reposicionar(int slot, long[] grade) {
+        int primeiro = GradeOcupacao.proximoMarcado(grade, 0);
+        int ultimo = primeiro;
+        for (int g = primeiro; g >= 0; g = GradeOcupacao.proximoMarcado(grade, GradeOcupacao.proximoDesmarcado(grade, g))) {
+            ultimo = GradeOcupacao.proximoDesmarcado(grade, g);
+        }
+        if (ultimo - primeiro > GRANULOS_JANELA) {
+            inicios[slot] = COMPLETO;
+            Arrays.fill(palavras, slot * W, slot * W + W, 0L);
+            diasCompletos.put(chaves[slot], grade);
+            return;
+        }
+        int inicio = Math.min(primeiro, INICIO_MAXIMO);
+        inicios[slot] = (byte) inicio;
+        for (int i = 0; i < W; i++) {
+            palavras[slot * W + i] = palavraDesde(grade, inicio + (i << 6));
+        }
+    }
+
+    // Grade do dia inteiro com a janela do slot no lugar
+    private long[] expandir(int slot) {
+        long[] grade = GradeOcupacao.vazia();
+        int inicio = inicio(slot);
+        int palavra = inicio >>> 6;
+        int deslocamento = inicio & 63;
+        for (int i = 0; i < W; i++) {
+            long bits = palavras[slot * W + i];
+            grade[palavra + i] |= bits << deslocamento;
+            if (deslocamento != 0 && palavra + i + 1 < grade.length) {
+                grade[palavra + i + 1] |= bits >>> (64 - deslocamento);
+            }
+        }
+        return grade;
+    }
+
+    // 64 grânulos da grade a partir de 'granulo' (zeros depois do fim do dia)
+    private static long palavraDesde(long[] grade, int granulo) {
+        int palavra = granulo >>> 6;
+        int deslocamento = granulo & 63;
+        long bits = palavra < grade.length ? grade[palavra] >>> deslocamento : 0L;
+        if (deslocamento != 0 && palavra + 1 < grade.length) {
+            bits |= grade[palavra + 1] << (64 - deslocamento);
+        }
+        return bits;
+    }
+
+    private int inicio(int slot) {
+        return inicios[slot] & 0xFF;
+    }
+
+    private boolean isMantido(int slot, LocalDate primeiroDia) {
+        return chaves[slot] != VAZIA && dia(chaves[slot]) >= primeiroDia.toEpochDay() && !isVazio(slot);
+    }
+
+    private boolean isVazio(int slot) {
+        if (inicios[slot] == COMPLETO) {
+            return Arrays.stream(diasCompletos.get(chaves[slot])).allMatch(palavra -> palavra == 0);
+        }
+        for (int i = slot * W; i < slot * W + W; i++) {
+            if (palavras[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Copia o slot de 'origem' para este mapa, que já tem espaço para ele
+    private void copiar(MapaOcupacao origem, int slotOrigem) {
+        long chave = origem.chaves[slotOrigem];
+        int slot = localizar(chave);
+        chaves[slot] = chave;
+        inicios[slot] = origem.inicios[slotOrigem];
+        System.arraycopy(origem.palavras, slotOrigem * W, palavras, slot * W, W);
+        if (inicios[slot] == COMPLETO) {
+            diasCompletos.put(chave, origem.diasCompletos.get(chave));
+        }
+        tamanho++;
+    }
+
+    private static long dia(long chave) {
+        return chave & 0xFFFFF;
+    }
+
+    private int localizar(long chave) {
+        int capacidade = chaves.length;
+        // Reduz o hash ao intervalo [0, capacidade) sem exigir uma potência de dois
+        int slot = (int) (((espalhar(chave) & 0xFFFFFFFFL) * capacidade) >>> 32);
+        while (chaves[slot] != VAZIA && chaves[slot] != chave) {
+            slot = slot + 1 == capacidade ? 0 : slot + 1;
+        }
+        return slot;
+    }
+
+    // Cresce pela metade: dobrar a tabela deixaria até metade dela vazia logo depois
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        long[] palavrasAntigas = palavras;
+        byte[] iniciosAntigos = inicios;
+        alocar(chavesAntigas.length + (chavesAntigas.length >>> 1));
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != VAZIA) {
+                int slot = localizar(chavesAntigas[i]);
+                chaves[slot] = chavesAntigas[i];
+                inicios[slot] = iniciosAntigos[i];
+                System.arraycopy(palavrasAntigas, i * W, palavras, slot * W, W);
+            }
+        }
+    }
+
+    // Entradas esperadas / 0,75, para começar exatamente na carga máxima
+    private static int capacidade(int entradas) {
+        return Math.max(16, (int) ((entradas * 4L + 2) / 3) + 1);
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        Arrays.fill(chaves, VAZIA);
+        palavras = new long[capacidade * W];
+        inicios = new byte[capacidade];
+    }
+
+    // Finalizador do MurmurHash3, para distribuir chaves sequenciais pela tabela
+    private static int espalhar(long chave) {
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
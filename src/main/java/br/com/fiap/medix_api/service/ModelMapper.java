@@ -1,20 +1,26 @@
 package br.com.fiap.medix_api.service;
 
+import br.com.fiap.medix_api.dto.projection.AgendamentoResumoDto;
+import br.com.fiap.medix_api.dto.projection.ValidacaoAgendamentoDto;
 import br.com.fiap.medix_api.dto.response.*;
 import br.com.fiap.medix_api.model.*;
 import org.springframework.stereotype.Component;
 
+import java.util.function.Function;
+
 @Component
 public class ModelMapper {
 
     public RespostaAgendamentoDto mapAgendamentoToDto(Agendamento agendamento) {
         RespostaAgendamentoDto dto = new RespostaAgendamentoDto();
         dto.setId(agendamento.getId());
+        dto.setVersao(agendamento.getVersao());
         dto.setDataHoraInicio(agendamento.getDataHoraInicio());
         dto.setDataHoraFim(agendamento.getDataHoraFim());
         dto.setTipo(agendamento.getTipo());
         dto.setStatus(agendamento.getStatus());
         dto.setObservacoes(agendamento.getObservacoes());
+        dto.setCodigoSerie(agendamento.getCodigoSerie());
         dto.setIdPaciente(agendamento.getPaciente().getId());
         dto.setNomePaciente(agendamento.getPaciente().getNome());
         dto.setIdColaborador(agendamento.getColaborador().getId());
@@ -28,6 +34,81 @@ public class ModelMapper {
         return dto;
     }
 
+    public RespostaAgendamentoDto mapAgendamentoResumoToDto(AgendamentoResumoDto resumo) {
+        RespostaAgendamentoDto dto = new RespostaAgendamentoDto();
+        dto.setId(resumo.getId());
+        dto.setVersao(resumo.getVersao());
+        dto.setDataHoraInicio(resumo.getDataHoraInicio());
+        dto.setDataHoraFim(resumo.getDataHoraFim());
+        dto.setTipo(resumo.getTipo());
+        dto.setStatus(resumo.getStatus());
+        dto.setObservacoes(resumo.getObservacoes());
+        dto.setCodigoSerie(resumo.getCodigoSerie());
+        dto.setIdPaciente(resumo.getIdPaciente());
+        dto.setNomePaciente(resumo.getNomePaciente());
+        dto.setIdColaborador(resumo.getIdColaborador());
+        dto.setNomeColaborador(resumo.getNomeColaborador());
+        dto.setIdUnidadeSaude(resumo.getIdUnidadeSaude());
+        dto.setNomeUnidadeSaude(resumo.getNomeUnidadeSaude());
+        dto.setIdSala(resumo.getIdSala());
+        dto.setNomeSala(resumo.getNomeSala());
+        return dto;
+    }
+
+    // Resposta do agendamento recém-criado: os nomes vêm da consulta de validação, sem carregar as referências
+    public RespostaAgendamentoDto mapAgendamentoRegistradoToDto(AgendamentoRegistrado registrado) {
+        Agendamento agendamento = registrado.getAgendamento();
+        ValidacaoAgendamentoDto validacao = registrado.getValidacao();
+        RespostaAgendamentoDto dto = new RespostaAgendamentoDto();
+        dto.setId(agendamento.getId());
+        dto.setVersao(agendamento.getVersao());
+        dto.setDataHoraInicio(agendamento.getDataHoraInicio());
+        dto.setDataHoraFim(agendamento.getDataHoraFim());
+        dto.setTipo(agendamento.getTipo());
+        dto.setStatus(agendamento.getStatus());
+        dto.setObservacoes(agendamento.getObservacoes());
+        dto.setCodigoSerie(agendamento.getCodigoSerie());
+        dto.setIdPaciente(agendamento.getPaciente().getId());
+        dto.setNomePaciente(validacao.getNomePaciente());
+        dto.setIdColaborador(agendamento.getColaborador().getId());
+        dto.setNomeColaborador(validacao.getNomeColaborador());
+        dto.setIdUnidadeSaude(agendamento.getUnidadeSaude().getId());
+        dto.setNomeUnidadeSaude(validacao.getNomeUnidadeSaude());
+        if (agendamento.getSala() != null) {
+            dto.setIdSala(agendamento.getSala().getId());
+            dto.setNomeSala(validacao.getNomeSala());
+        }
+        return dto;
+    }
+
+    public RespostaReservaDto mapReservaToDto(Reserva reserva) {
+        RespostaReservaDto dto = new RespostaReservaDto();
+        dto.setToken(reserva.getToken());
+        dto.setIdPaciente(reserva.getIdPaciente());
+        dto.setIdColaborador(reserva.getIdColaborador());
+        dto.setIdUnidadeSaude(reserva.getIdUnidadeSaude());
+        dto.setIdSala(reserva.getIdSala());
+        dto.setDataHoraInicio(reserva.getDataHoraInicio());
+        dto.setDataHoraFim(reserva.getDataHoraFim());
+        dto.setTipo(reserva.getTipo());
+        dto.setExpiraEm(reserva.getExpiraEm());
+        return dto;
+    }
+
+    public RespostaItemLoteDto mapResultadoItemLoteToDto(ResultadoItemLote resultado) {
+        RespostaItemLoteDto dto = new RespostaItemLoteDto();
+        dto.setIndice(resultado.getIndice());
+        dto.setIdPaciente(resultado.getItem().getIdPaciente());
+        dto.setIdColaborador(resultado.getItem().getIdColaborador());
+        dto.setDataHoraInicio(resultado.getItem().getDataHoraInicio());
+        if (resultado.isCriado()) {
+            dto.setIdAgendamento(resultado.getAgendamento().getId());
+            dto.setDataHoraFim(resultado.getAgendamento().getDataHoraFim());
+        }
+        dto.setErro(resultado.getErro());
+        return dto;
+    }
+
     public RespostaColaboradorDto mapColaboradorToDto(Colaborador c) {
         RespostaColaboradorDto dto = new RespostaColaboradorDto();
         dto.setId(c.getId());
@@ -89,4 +170,57 @@ public class ModelMapper {
         dto.setNome(especialidade.getNome());
         return dto;
     }
-}
\ No newline at end of file
+
+    public RespostaJornadaDto mapJornadaToDto(JornadaTrabalho jornada) {
+        RespostaJornadaDto dto = new RespostaJornadaDto();
+        dto.setId(jornada.getId());
+        dto.setIdColaborador(jornada.getIdColaborador());
+        dto.setIdUnidadeSaude(jornada.getIdUnidadeSaude());
+        dto.setDiaSemana(jornada.getDiaSemana());
+        dto.setHoraInicio(jornada.getHoraInicio());
+        dto.setHoraFim(jornada.getHoraFim());
+        return dto;
+    }
+
+    public RespostaExcecaoJornadaDto mapExcecaoJornadaToDto(ExcecaoJornada excecao) {
+        RespostaExcecaoJornadaDto dto = new RespostaExcecaoJornadaDto();
+        dto.setId(excecao.getId());
+        dto.setIdColaborador(excecao.getIdColaborador());
+        dto.setIdUnidadeSaude(excecao.getIdUnidadeSaude());
+        dto.setDataInicio(excecao.getDataInicio());
+        dto.setDataFim(excecao.getDataFim());
+        dto.setHoraInicio(excecao.getHoraInicio());
+        dto.setHoraFim(excecao.getHoraFim());
+        dto.setDescricao(excecao.getDescricao());
+        return dto;
+    }
+
+    public RespostaInscricaoEsperaDto mapInscricaoEsperaToDto(InscricaoEspera inscricao) {
+        RespostaInscricaoEsperaDto dto = new RespostaInscricaoEsperaDto();
+        dto.setId(inscricao.getId());
+        dto.setDataCriacao(inscricao.getDataCriacao());
+        dto.setIdPaciente(inscricao.getIdPaciente());
+        dto.setIdEspecialidade(inscricao.getIdEspecialidade());
+        dto.setIdUnidadeSaude(inscricao.getIdUnidadeSaude());
+        dto.setDataInicio(inscricao.getDataInicio());
+        dto.setDataFim(inscricao.getDataFim());
+        dto.setTipo(inscricao.getTipo());
+        dto.setAgendamentoAutomatico(inscricao.isAgendamentoAutomatico());
+        dto.setStatus(inscricao.getStatus());
+        dto.setTokenReserva(inscricao.getTokenReserva());
+        dto.setIdColaboradorOferta(inscricao.getIdColaboradorOferta());
+        dto.setIdUnidadeSaudeOferta(inscricao.getIdUnidadeSaudeOferta());
+        dto.setDataHoraOferta(inscricao.getDataHoraOferta());
+        dto.setExpiracaoOferta(inscricao.getExpiracaoOferta());
+        dto.setIdAgendamento(inscricao.getIdAgendamento());
+        return dto;
+    }
+
+    // Itens já mapeados pelo chamador; os links (self e next) ficam com o controller
+    public <T, R> RespostaPaginaDto<R> mapPaginaToDto(Pagina<T> pagina, Function<T, R> mapearItem) {
+        RespostaPaginaDto<R> dto = new RespostaPaginaDto<>();
+        dto.setItens(pagina.getItens().stream().map(mapearItem).toList());
+        dto.setProximoCursor(pagina.getProximoCursor());
+        return dto;
+    }
+}
@@ -13,7 +13,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 
 @Service
 @AllArgsConstructor
@@ -39,12 +38,13 @@ public class PacienteService {
         return pacienteRepository.save(paciente);
     }
 
-    public List<Paciente> listar(String status) {
+    // Vai para a réplica: a entidade não está no cache de segundo nível nem carrega entidades que estejam
+    @Transactional(readOnly = true)
+    public Pagina<Paciente> listar(String status, String cursor, Integer tamanho) {
         // Retorna pacientes ativos ou deletados com base no parâmetro
-        if ("deletado".equalsIgnoreCase(status)) {
-            return pacienteRepository.findAllByDeletedIsOne();
-        }
-        return pacienteRepository.findAllByDeletedIsZero();
+        int deleted = "deletado".equalsIgnoreCase(status) ? 1 : 0;
+        int limite = Pagina.limitar(tamanho);
+        return Pagina.de(pacienteRepository.findPagina(deleted, Pagina.idDoCursor(cursor), limite + 1), limite, item -> Pagina.cursor(item.getId()));
     }
 
     public Paciente buscarPorId(Long id) {
@@ -0,0 +1,94 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.exception.RequisicaoInvalidaException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem por cursor (keyset). O cursor é a chave de ordenação do último item entregue
+ * (o id, ou o início e o id nos agendamentos), codificada em Base64; a próxima página é buscada com
+ * "chave > cursor" sobre o índice, então o custo não cresce com a posição na listagem como no OFFSET.
+ */
+@Getter
+@RequiredArgsConstructor
+public class Pagina<T> {
+
+    public static final int TAMANHO_PADRAO = 20;
+    public static final int TAMANHO_MAXIMO = 100;
+
+    private final List<T> itens;
+    private final String proximoCursor; // Nulo na última página
+
+    // Tamanho pedido pelo cliente, limitado ao máximo
+    public static int limitar(Integer tamanho) {
+        return tamanho == null ? TAMANHO_PADRAO : Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+    }
+
+    // As consultas trazem 'tamanho + 1' linhas: a sobra só indica que existe uma próxima página
+    public static <T> Pagina<T> de(List<T> linhas, int tamanho, Function<T, String> cursorDoItem) {
+        if (linhas.size() <= tamanho) {
+            return new Pagina<>(linhas, null);
+        }
+        List<T> itens = linhas.subList(0, tamanho);
+        return new Pagina<>(itens, cursorDoItem.apply(itens.get(tamanho - 1)));
+    }
+
+    public static String cursor(Long id) {
+        return codificar(String.valueOf(id));
+    }
+
+    public static String cursor(LocalDateTime inicio, Long id) {
+        return codificar(inicio + "|" + id);
+    }
+
+    // Id do último item entregue; 0 (antes de qualquer id) na primeira página
+    public static long idDoCursor(String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decodificar(cursor));
+        } catch (NumberFormatException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    // Chave (início, id) do último agendamento entregue; nula na primeira página
+    public static ChaveInicioId chaveDoCursor(String cursor) {
+        if (cursor == null) {
+            return new ChaveInicioId(null, 0L);
+        }
+        String[] partes = decodificar(cursor).split("\\|");
+        try {
+            return new ChaveInicioId(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    private static String codificar(String chave) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificar(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    private static RequisicaoInvalidaException cursorInvalido() {
+        return new RequisicaoInvalidaException("Cursor de paginação inválido: use o valor de 'proximoCursor' da página anterior.");
+    }
+
+    public record ChaveInicioId(LocalDateTime inicio, Long id) {
+    }
+}
@@ -0,0 +1,363 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.VagaLiberadaDto;
+import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
+import br.com.fiap.medix_api.enums.StatusListaEspera;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.model.InscricaoEspera;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import br.com.fiap.medix_api.repository.InscricaoEsperaRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lista de espera: quando um cancelamento libera um horário, a vaga vai para o primeiro paciente inscrito
+ * na especialidade e no dia (e na unidade, se ele escolheu uma) cujo tipo de atendimento cabe no horário.
+ * As inscrições ficam indexadas em memória por (especialidade, dia), então achar os candidatos de uma vaga
+ * não consulta o banco. A vaga é agendada direto ou reservada para o paciente confirmar (ver {@link ReservasTemporarias});
+ * uma oferta não confirmada devolve o paciente à fila e passa a vaga ao próximo.
+ * Os cancelamentos entram em uma fila processada por um job, fora da requisição que cancelou; uma vaga que
+ * falha por erro de banco volta para a fila, e ao subir a aplicação a fila é refeita a partir dos cancelamentos.
+ */
+@Slf4j
+@Component
+public class RealocacaoListaEspera {
+
+    private final InscricaoEsperaRepository inscricaoRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final AgendamentoService agendamentoService;
+    private final ReservasTemporarias reservas;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitada;
+    private final int maximoTentativas;
+    private final int periodoMaximoDias;
+
+    // chave(especialidade, dia) -> inscrições aguardando, em ordem de inscrição
+    private final Map<Long, TreeMap<Long, Interesse>> porEspecialidadeEDia = new HashMap<>();
+    private final Map<String, Oferta> ofertasPorToken = new HashMap<>();
+    private final Queue<Vaga> vagas = new ConcurrentLinkedQueue<>();
+
+    public RealocacaoListaEspera(InscricaoEsperaRepository inscricaoRepository,
+                                 AgendamentoRepository agendamentoRepository,
+                                 AgendamentoService agendamentoService,
+                                 ReservasTemporarias reservas,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${medix.agenda.lista-espera.habilitada:true}") boolean habilitada,
+                                 @Value("${medix.agenda.lista-espera.maximo-tentativas:5}") int maximoTentativas,
+                                 @Value("${medix.agenda.lista-espera.periodo-maximo-dias:60}") int periodoMaximoDias) {
+        this.inscricaoRepository = inscricaoRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.agendamentoService = agendamentoService;
+        this.reservas = reservas;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitada = habilitada;
+        this.maximoTentativas = maximoTentativas;
+        this.periodoMaximoDias = periodoMaximoDias;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            List<InscricaoEspera> ativas = inscricaoRepository.findByStatusInAndDataFimGreaterThanEqualOrderByIdAsc(
+                    List.of(StatusListaEspera.AGUARDANDO, StatusListaEspera.OFERTADO), LocalDate.now());
+            synchronized (this) {
+                porEspecialidadeEDia.clear();
+                ofertasPorToken.clear();
+                for (InscricaoEspera inscricao : ativas) {
+                    if (inscricao.getStatus() == StatusListaEspera.AGUARDANDO) {
+                        indexar(Interesse.de(inscricao));
+                    } else {
+                        // As reservas não sobrevivem a um reinício: a próxima verificação confirma ou devolve a oferta
+                        ofertasPorToken.put(inscricao.getTokenReserva(), Oferta.de(inscricao));
+                    }
+                }
+            }
+            log.info("Lista de espera carregada: {} inscrições ativas.", ativas.size());
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Não foi possível carregar a lista de espera: {}", e.getMessage());
+        }
+    }
+
+    // A fila de vagas só existe em memória: ao subir, os horários cancelados ainda livres voltam a ela
+    @EventListener(ApplicationReadyEvent.class)
+    public void recuperarVagas() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            List<VagaLiberadaDto> liberadas = agendamentoRepository.findVagasLiberadasEntre(agora, agora.plusDays(periodoMaximoDias));
+            liberadas.forEach(v -> vagas.add(new Vaga(v.getIdColaborador(), v.getIdUnidadeSaude(), v.getIdEspecialidade(),
+                    v.getDataHoraInicio(), v.getDataHoraFim(), Set.of())));
+            log.info("Lista de espera: {} vagas liberadas recuperadas.", liberadas.size());
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Não foi possível recuperar as vagas da lista de espera: {}", e.getMessage());
+        }
+    }
+
+    // Inscrições cujo período terminou saem da fila
+    @Scheduled(cron = "${medix.agenda.lista-espera.cron:0 10 0 * * *}")
+    public void expirarInscricoes() {
+        try {
+            Integer expiradas = transactionTemplate.execute(status -> inscricaoRepository.expirarAnterioresA(LocalDate.now()));
+            log.debug("{} inscrições da lista de espera expiradas.", expiradas);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Não foi possível expirar as inscrições da lista de espera: {}", e.getMessage());
+        }
+        carregar();
+    }
+
+    public synchronized void adicionar(InscricaoEspera inscricao) {
+        indexar(Interesse.de(inscricao));
+    }
+
+    // Uma oferta pendente continua acompanhada: quando a reserva for liberada, a vaga passa ao próximo da fila
+    public synchronized void remover(InscricaoEspera inscricao) {
+        desindexar(Interesse.de(inscricao));
+    }
+
+    // Só depois do commit do cancelamento a vaga existe de fato
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarAgendamento(AgendamentoAlteradoEvent evento) {
+        if (habilitada && !evento.isAtivo() && evento.getIdEspecialidade() != null
+                && evento.getDataHoraInicio().isAfter(LocalDateTime.now())) {
+            // A vaga é na unidade do agendamento cancelado, não na unidade do colaborador
+            vagas.add(new Vaga(evento.getIdColaborador(), evento.getIdUnidadeSaudeAgendamento(), evento.getIdEspecialidade(),
+                    evento.getDataHoraInicio(), evento.getDataHoraFim(), Set.of()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${medix.agenda.lista-espera.intervalo-ms:2000}")
+    public void realocar() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            verificarOfertas();
+            Vaga vaga;
+            while ((vaga = vagas.poll()) != null) {
+                if (vaga.inicio().isAfter(LocalDateTime.now())) {
+                    try {
+                        ofertar(vaga);
+                    } catch (DataAccessException | TransactionException e) {
+                        // A vaga já saiu da fila: volta para ser ofertada na próxima execução
+                        vagas.add(vaga);
+                        throw e;
+                    }
+                }
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Falha ao realocar vagas da lista de espera: {}", e.getMessage());
+        }
+    }
+
+    // Ofertas que deixaram de estar reservadas: viraram agendamento ou o paciente não confirmou a tempo
+    private void verificarOfertas() {
+        List<Oferta> encerradas = new ArrayList<>();
+        synchronized (this) {
+            ofertasPorToken.values().removeIf(oferta -> {
+                boolean encerrada = reservas.buscar(oferta.token()) == null;
+                if (encerrada) {
+                    encerradas.add(oferta);
+                }
+                return encerrada;
+            });
+        }
+        for (int i = 0; i < encerradas.size(); i++) {
+            try {
+                encerrar(encerradas.get(i));
+            } catch (DataAccessException | TransactionException e) {
+                // As ofertas ainda não tratadas voltam a ser acompanhadas e são verificadas na próxima execução
+                synchronized (this) {
+                    encerradas.subList(i, encerradas.size()).forEach(oferta -> ofertasPorToken.put(oferta.token(), oferta));
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void encerrar(Oferta oferta) {
+        Vaga vaga = oferta.vaga();
+        Long idAgendamento = agendamentoRepository.findIdAtivoNoHorario(oferta.interesse().idPaciente(), vaga.idColaborador(), vaga.inicio())
+                .orElse(null);
+        InscricaoEspera inscricao = transactionTemplate.execute(status -> inscricaoRepository.findById(oferta.interesse().id())
+                .filter(i -> i.getStatus() == StatusListaEspera.OFERTADO)
+                .map(i -> {
+                    if (idAgendamento != null) {
+                        i.setStatus(StatusListaEspera.ATENDIDO);
+                        i.setIdAgendamento(idAgendamento);
+                    } else {
+                        i.setStatus(StatusListaEspera.AGUARDANDO);
+                        i.setTokenReserva(null);
+                        i.setExpiracaoOferta(null);
+                    }
+                    return inscricaoRepository.save(i);
+                })
+                .orElse(null));
+        if (idAgendamento == null) {
+            if (inscricao != null) {
+                adicionar(inscricao);
+            }
+            // A vaga segue para o próximo da fila, sem voltar a quem não confirmou
+            Set<Long> recusaram = new HashSet<>(vaga.recusaram());
+            recusaram.add(oferta.interesse().id());
+            vagas.add(new Vaga(vaga.idColaborador(), vaga.idUnidadeSaude(), vaga.idEspecialidade(), vaga.inicio(), vaga.fim(), recusaram));
+        }
+    }
+
+    private void ofertar(Vaga vaga) {
+        int tentativas = 0;
+        for (Interesse interesse : candidatos(vaga)) {
+            if (tentativas++ >= maximoTentativas) {
+                return;
+            }
+            try {
+                if (interesse.automatico()) {
+                    agendar(interesse, vaga);
+                } else {
+                    reservar(interesse, vaga);
+                }
+                return;
+            } catch (EntityNotFoundException | IllegalStateException | IllegalArgumentException e) {
+                // Paciente já ocupado no horário, vaga tomada por outro agendamento, etc.: tenta o próximo
+                log.debug("Vaga de {} não ofertada à inscrição {}: {}", vaga.inicio(), interesse.id(), e.getMessage());
+            }
+        }
+    }
+
+    private void agendar(Interesse interesse, Vaga vaga) {
+        // O agendamento e a baixa da inscrição na mesma transação
+        transactionTemplate.executeWithoutResult(status -> {
+            AgendamentoRegistrado registrado = agendamentoService.agendar(agendamentoDaVaga(interesse, vaga));
+            InscricaoEspera inscricao = buscarAguardando(interesse.id());
+            inscricao.setStatus(StatusListaEspera.ATENDIDO);
+            inscricao.setIdAgendamento(registrado.getAgendamento().getId());
+            registrarOferta(inscricao, vaga);
+            inscricaoRepository.save(inscricao);
+        });
+        synchronized (this) {
+            desindexar(interesse);
+        }
+        log.info("Vaga de {} agendada para a inscrição {} da lista de espera.", vaga.inicio(), interesse.id());
+    }
+
+    private void reservar(Interesse interesse, Vaga vaga) {
+        Reserva reserva = agendamentoService.reservar(agendamentoDaVaga(interesse, vaga));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                InscricaoEspera inscricao = buscarAguardando(interesse.id());
+                inscricao.setStatus(StatusListaEspera.OFERTADO);
+                inscricao.setTokenReserva(reserva.getToken());
+                inscricao.setExpiracaoOferta(reserva.getExpiraEm());
+                registrarOferta(inscricao, vaga);
+                inscricaoRepository.save(inscricao);
+            });
+        } catch (RuntimeException e) {
+            reservas.liberar(reserva.getToken());
+            throw e;
+        }
+        synchronized (this) {
+            desindexar(interesse);
+            ofertasPorToken.put(reserva.getToken(), new Oferta(reserva.getToken(), interesse, vaga));
+        }
+        log.info("Vaga de {} ofertada à inscrição {} da lista de espera.", vaga.inicio(), interesse.id());
+    }
+
+    // Primeiros inscritos do dia da vaga cuja unidade e tipo de atendimento cabem nela
+    private synchronized List<Interesse> candidatos(Vaga vaga) {
+        TreeMap<Long, Interesse> doDia = porEspecialidadeEDia.get(MapaOcupacao.chave(vaga.idEspecialidade(), vaga.inicio().toLocalDate()));
+        if (doDia == null) {
+            return List.of();
+        }
+        return doDia.values().stream()
+                .filter(i -> i.idUnidadeSaude() == null || i.idUnidadeSaude().equals(vaga.idUnidadeSaude()))
+                .filter(i -> !vaga.inicio().plusMinutes(i.tipo().getDuracaoPadraoMinutos()).isAfter(vaga.fim()))
+                .filter(i -> !vaga.recusaram().contains(i.id()))
+                .toList();
+    }
+
+    private InscricaoEspera buscarAguardando(Long id) {
+        return inscricaoRepository.findById(id)
+                .filter(i -> i.getStatus() == StatusListaEspera.AGUARDANDO)
+                .orElseThrow(() -> new IllegalStateException("A inscrição não está mais aguardando vaga."));
+    }
+
+    private static void registrarOferta(InscricaoEspera inscricao, Vaga vaga) {
+        inscricao.setIdColaboradorOferta(vaga.idColaborador());
+        inscricao.setIdUnidadeSaudeOferta(vaga.idUnidadeSaude());
+        inscricao.setDataHoraOferta(vaga.inicio());
+    }
+
+    private static CadastrarAgendamentoDto agendamentoDaVaga(Interesse interesse, Vaga vaga) {
+        CadastrarAgendamentoDto dto = new CadastrarAgendamentoDto();
+        dto.setIdPaciente(interesse.idPaciente());
+        dto.setIdColaborador(vaga.idColaborador());
+        dto.setIdUnidadeSaude(vaga.idUnidadeSaude());
+        dto.setDataHoraInicio(vaga.inicio());
+        dto.setTipo(interesse.tipo());
+        dto.setObservacoes("Vaga da lista de espera.");
+        return dto;
+    }
+
+    private void indexar(Interesse interesse) {
+        LocalDate primeiroDia = interesse.dataInicio().isBefore(LocalDate.now()) ? LocalDate.now() : interesse.dataInicio();
+        for (LocalDate dia = primeiroDia; !dia.isAfter(interesse.dataFim()); dia = dia.plusDays(1)) {
+            porEspecialidadeEDia.computeIfAbsent(MapaOcupacao.chave(interesse.idEspecialidade(), dia), chave -> new TreeMap<>())
+                    .put(interesse.id(), interesse);
+        }
+    }
+
+    private void desindexar(Interesse interesse) {
+        for (LocalDate dia = interesse.dataInicio(); !dia.isAfter(interesse.dataFim()); dia = dia.plusDays(1)) {
+            long chave = MapaOcupacao.chave(interesse.idEspecialidade(), dia);
+            TreeMap<Long, Interesse> doDia = porEspecialidadeEDia.get(chave);
+            if (doDia != null && doDia.remove(interesse.id()) != null && doDia.isEmpty()) {
+                porEspecialidadeEDia.remove(chave);
+            }
+        }
+    }
+
+    private record Interesse(Long id, Long idPaciente, Long idEspecialidade, Long idUnidadeSaude, TipoAgendamento tipo,
+                             LocalDate dataInicio, LocalDate dataFim, boolean automatico) {
+        static Interesse de(InscricaoEspera inscricao) {
+            return new Interesse(inscricao.getId(), inscricao.getIdPaciente(), inscricao.getIdEspecialidade(), inscricao.getIdUnidadeSaude(),
+                    inscricao.getTipo(), inscricao.getDataInicio(), inscricao.getDataFim(), inscricao.isAgendamentoAutomatico());
+        }
+    }
+
+    // Horário liberado; 'recusaram' são as inscrições que já deixaram esta vaga expirar
+    private record Vaga(Long idColaborador, Long idUnidadeSaude, Long idEspecialidade, LocalDateTime inicio, LocalDateTime fim,
+                        Set<Long> recusaram) {
+    }
+
+    private record Oferta(String token, Interesse interesse, Vaga vaga) {
+        static Oferta de(InscricaoEspera inscricao) {
+            LocalDateTime inicio = inscricao.getDataHoraOferta();
+            return new Oferta(inscricao.getTokenReserva(), Interesse.de(inscricao), new Vaga(inscricao.getIdColaboradorOferta(),
+                    inscricao.getIdUnidadeSaudeOferta(), inscricao.getIdEspecialidade(), inicio,
+                    inicio.plusMinutes(inscricao.getTipo().getDuracaoPadraoMinutos()), Set.of()));
+        }
+    }
+}
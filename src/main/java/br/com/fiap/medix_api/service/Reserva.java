@@ -0,0 +1,30 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Reserva temporária de um horário (só em memória), confirmada depois pelo token
+@Value
+@Builder(toBuilder = true)
+public class Reserva {
+    String token;
+    Long idPaciente;
+    Long idColaborador;
+    Long idUnidadeSaude;
+    Long idSala;
+    // Dados do colaborador lidos na validação, usados para invalidar o cache da disponibilidade
+    Long idUnidadeSaudeColaborador;
+    Long idEspecialidade;
+    LocalDateTime dataHoraInicio;
+    LocalDateTime dataHoraFim;
+    TipoAgendamento tipo;
+    String observacoes;
+    LocalDateTime expiraEm;
+
+    public boolean isExpirada() {
+        return !LocalDateTime.now().isBefore(expiraEm);
+    }
+}
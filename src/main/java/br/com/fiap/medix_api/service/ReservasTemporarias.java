@@ -0,0 +1,262 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.event.ReservaAlteradaEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Tabela em memória das reservas temporárias de horário (passo entre escolher o profissional e agendar).
+ * Os horários reservados de cada colaborador e sala ficam em um {@link MapaOcupacao}, como no
+ * {@link IndiceAgenda}, para a disponibilidade somá-los à ocupação. As leituras não tomam trava: o estado
+ * (reservas e mapas) é um retrato imutável publicado em um campo volátil, e cada alteração monta um novo
+ * retrato sob a trava, já sem os dias passados. A expiração é feita por uma {@link RodaDeTempo}, avançada
+ * a cada segundo pelo job e a cada alteração; entre dois avanços, uma leitura que encontra horários de
+ * uma reserva já vencida refaz a grade só com as reservas vigentes, então uma reserva vencida nunca
+ * bloqueia um horário, mesmo com o agendador ocupado por outros jobs. Como as reservas de um mesmo
+ * recurso nunca se sobrepõem, liberar uma reserva é só desligar seus bits.
+ */
+@Slf4j
+@Component
+public class ReservasTemporarias {
+
+    private static final long MILIS_POR_TICK = 1000;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlSegundos;
+    private final long origem = System.nanoTime();
+
+    // Só alterada sob a trava; as leituras usam o retrato vigente
+    private final RodaDeTempo<String> roda;
+    private volatile Estado estado = new Estado(new HashMap<>(), new MapaOcupacao(0), new MapaOcupacao(0));
+
+    public ReservasTemporarias(ApplicationEventPublisher eventPublisher,
+                               @Value("${medix.agenda.reserva.ttl-segundos:300}") long ttlSegundos) {
+        this.eventPublisher = eventPublisher;
+        this.ttlSegundos = ttlSegundos;
+        // Uma volta da roda cobre o TTL, então cada posição é visitada uma vez por reserva
+        this.roda = new RodaDeTempo<>((int) Math.min(1 << 16, ttlSegundos + 1), 0);
+    }
+
+    // Reserva o horário se nenhuma outra reserva ocupa o colaborador ou a sala no intervalo
+    public Reserva reservar(Reserva dados) {
+        Reserva reserva = alterar(atual -> {
+            verificar(atual, dados.getIdColaborador(), dados.getIdSala(), dados.getDataHoraInicio(), dados.getDataHoraFim(), null);
+            Reserva nova = dados.toBuilder()
+                    .token(UUID.randomUUID().toString())
+                    .expiraEm(LocalDateTime.now().plusSeconds(ttlSegundos))
+                    .build();
+            atual.porToken.put(nova.getToken(), nova);
+            marcar(atual, nova, true);
+            roda.agendar(nova.getToken(), tickAtual() + ttlSegundos * 1000 / MILIS_POR_TICK);
+            return nova;
+        });
+        publicar(reserva);
+        return reserva;
+    }
+
+    // Reserva ainda válida com o token, ou null
+    public Reserva buscar(String token) {
+        Reserva reserva = estado.porToken.get(token);
+        return reserva == null || reserva.isExpirada() ? null : reserva;
+    }
+
+    // Falha rápido, sem ir ao banco, se outra reserva ocupa o colaborador ou a sala no intervalo
+    public void verificarLivre(Long colaboradorId, Long salaId, LocalDateTime inicio, LocalDateTime fim, String tokenIgnorado) {
+        verificar(estado, colaboradorId, salaId, inicio, fim, tokenIgnorado);
+    }
+
+    // Soma ao 'destino' os horários reservados do colaborador no dia
+    public void somarReservasDoColaborador(Long colaboradorId, LocalDate dia, long[] destino) {
+        somar(grade(estado, false, colaboradorId, dia, null), destino);
+    }
+
+    public void somarReservasDaSala(Long salaId, LocalDate dia, long[] destino) {
+        somar(grade(estado, true, salaId, dia, null), destino);
+    }
+
+    public boolean isColaboradorReservado(Long colaboradorId, LocalDateTime inicio, LocalDateTime fim) {
+        return isOcupado(estado, false, colaboradorId, inicio, fim, null);
+    }
+
+    // Libera o horário (reserva confirmada ou cancelada); false se o token não existe mais
+    public boolean liberar(String token) {
+        if (!estado.porToken.containsKey(token)) {
+            return false;
+        }
+        Reserva reserva = alterar(atual -> remover(atual, token));
+        if (reserva != null) {
+            publicar(reserva);
+        }
+        return reserva != null;
+    }
+
+    // Descarta as reservas vencidas e avisa o cache, mesmo sem nenhuma consulta ou alteração no meio
+    @Scheduled(fixedRate = MILIS_POR_TICK)
+    public void expirar() {
+        alterar(null);
+    }
+
+    public int quantidade() {
+        return (int) estado.porToken.values().stream().filter(reserva -> !reserva.isExpirada()).count();
+    }
+
+    // Sob a trava: avança a roda e aplica 'acao' (se houver) a uma cópia do estado, publicada em seguida.
+    // As reservas vencidas são avisadas já fora da trava
+    private <T> T alterar(Function<Estado, T> acao) {
+        List<Reserva> expiradas = new ArrayList<>();
+        try {
+            synchronized (this) {
+                List<String> vencidos = new ArrayList<>();
+                roda.avancar(tickAtual(), vencidos::add);
+                if (vencidos.isEmpty() && acao == null) {
+                    return null;
+                }
+                Estado novo = estado.copiar(LocalDate.now());
+                for (String token : vencidos) {
+                    Reserva reserva = remover(novo, token);
+                    if (reserva != null) {
+                        expiradas.add(reserva);
+                    }
+                }
+                try {
+                    return acao == null ? null : acao.apply(novo);
+                } finally {
+                    // A ação só falha antes de alterar a cópia, e as expirações já saíram da roda: publica mesmo assim
+                    estado = novo.publicado();
+                }
+            }
+        } finally {
+            expiradas.forEach(this::publicar);
+            if (!expiradas.isEmpty()) {
+                log.debug("{} reservas temporárias expiradas.", expiradas.size());
+            }
+        }
+    }
+
+    private static void verificar(Estado atual, Long colaboradorId, Long salaId, LocalDateTime inicio, LocalDateTime fim, String tokenIgnorado) {
+        // A própria reserva não conta como conflito
+        if (isOcupado(atual, false, colaboradorId, inicio, fim, tokenIgnorado)) {
+            throw new IllegalStateException("O horário está reservado para outro agendamento. Escolha outro horário.");
+        }
+        if (salaId != null && isOcupado(atual, true, salaId, inicio, fim, tokenIgnorado)) {
+            throw new IllegalStateException("A sala está reservada para outro agendamento neste horário.");
+        }
+    }
+
+    private static Reserva remover(Estado atual, String token) {
+        Reserva reserva = atual.porToken.remove(token);
+        if (reserva != null) {
+            marcar(atual, reserva, false);
+        }
+        return reserva;
+    }
+
+    private static void marcar(Estado atual, Reserva reserva, boolean ocupado) {
+        definir(atual.colaboradores, reserva.getIdColaborador(), reserva.getDataHoraInicio(), reserva.getDataHoraFim(), ocupado);
+        if (reserva.getIdSala() != null) {
+            definir(atual.salas, reserva.getIdSala(), reserva.getDataHoraInicio(), reserva.getDataHoraFim(), ocupado);
+        }
+    }
+
+    private static void definir(MapaOcupacao mapa, Long id, LocalDateTime inicio, LocalDateTime fim, boolean ocupado) {
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(fim.toLocalDate()); dia = dia.plusDays(1)) {
+            mapa.definir(MapaOcupacao.chave(id, dia), GradeOcupacao.granuloInicial(dia, inicio), GradeOcupacao.granuloFinal(dia, fim), ocupado);
+        }
+    }
+
+    private static boolean isOcupado(Estado atual, boolean sala, Long id, LocalDateTime inicio, LocalDateTime fim, String tokenIgnorado) {
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(fim.toLocalDate()); dia = dia.plusDays(1)) {
+            long[] reservado = grade(atual, sala, id, dia, tokenIgnorado);
+            if (reservado != null && !GradeOcupacao.isLivre(reservado,
+                    GradeOcupacao.granuloInicial(dia, inicio), GradeOcupacao.granuloFinal(dia, fim))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void somar(long[] reservado, long[] destino) {
+        if (reservado != null) {
+            GradeOcupacao.ou(destino, reservado);
+        }
+    }
+
+    // Horários reservados do colaborador (ou da sala) no dia, ou null se nenhum
+    private static long[] grade(Estado atual, boolean sala, Long id, LocalDate dia, String tokenIgnorado) {
+        long[] reservado = (sala ? atual.salas : atual.colaboradores).buscar(MapaOcupacao.chave(id, dia));
+        // Reservas vencidas e a própria reserva só acrescentam bits: sem grade no mapa, não há o que filtrar
+        if (reservado == null || !atual.isComVencidas() && (tokenIgnorado == null || !atual.porToken.containsKey(tokenIgnorado))) {
+            return reservado;
+        }
+        return gradeVigente(atual, sala, id, dia, tokenIgnorado);
+    }
+
+    // Refaz a grade do dia só com as reservas vigentes do recurso (raro: só entre o vencimento e o avanço da roda)
+    private static long[] gradeVigente(Estado atual, boolean sala, Long id, LocalDate dia, String tokenIgnorado) {
+        long[] grade = null;
+        for (Reserva reserva : atual.porToken.values()) {
+            if (reserva.getToken().equals(tokenIgnorado) || reserva.isExpirada()
+                    || !id.equals(sala ? reserva.getIdSala() : reserva.getIdColaborador())
+                    || dia.isBefore(reserva.getDataHoraInicio().toLocalDate()) || dia.isAfter(reserva.getDataHoraFim().toLocalDate())) {
+                continue;
+            }
+            if (grade == null) {
+                grade = GradeOcupacao.vazia();
+            }
+            GradeOcupacao.definir(grade, 0, GradeOcupacao.granuloInicial(dia, reserva.getDataHoraInicio()),
+                    GradeOcupacao.granuloFinal(dia, reserva.getDataHoraFim()), true);
+        }
+        return grade;
+    }
+
+    private long tickAtual() {
+        return (System.nanoTime() - origem) / 1_000_000 / MILIS_POR_TICK;
+    }
+
+    private void publicar(Reserva reserva) {
+        eventPublisher.publishEvent(new ReservaAlteradaEvent(reserva.getIdColaborador(), reserva.getIdUnidadeSaudeColaborador(),
+                reserva.getIdEspecialidade(), reserva.getIdSala() != null ? reserva.getIdUnidadeSaude() : null,
+                reserva.getDataHoraInicio(), reserva.getDataHoraFim()));
+    }
+
+    // Reservas e ocupação em um instante; alterado só antes de ser publicado no campo volátil
+    private static final class Estado {
+        private final Map<String, Reserva> porToken;
+        private final MapaOcupacao colaboradores;
+        private final MapaOcupacao salas;
+        private LocalDateTime primeiraExpiracao;
+
+        private Estado(Map<String, Reserva> porToken, MapaOcupacao colaboradores, MapaOcupacao salas) {
+            this.porToken = porToken;
+            this.colaboradores = colaboradores;
+            this.salas = salas;
+        }
+
+        // Cópia alterável, já sem os dias anteriores a 'hoje' nem os dias sem reserva
+        private Estado copiar(LocalDate hoje) {
+            return new Estado(new HashMap<>(porToken), colaboradores.aPartirDe(hoje), salas.aPartirDe(hoje));
+        }
+
+        private Estado publicado() {
+            primeiraExpiracao = porToken.values().stream().map(Reserva::getExpiraEm).min(LocalDateTime::compareTo).orElse(null);
+            return this;
+        }
+
+        // Alguma reserva do retrato já venceu e ainda não saiu da roda?
+        private boolean isComVencidas() {
+            return primeiraExpiracao != null && !LocalDateTime.now().isBefore(primeiraExpiracao);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.response.RespostaAgendamentoDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Resposta de um POST com Idempotency-Key; 'repetida' quando veio da primeira execução, sem agendar de novo
+@Getter
+@AllArgsConstructor
+public class RespostaIdempotente {
+    private final RespostaAgendamentoDto corpo;
+    private final boolean repetida;
+}
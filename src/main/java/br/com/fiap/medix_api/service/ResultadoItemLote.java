@@ -0,0 +1,20 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
+import br.com.fiap.medix_api.model.Agendamento;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Resultado de um item do lote: o agendamento criado ou o motivo da rejeição
+@Getter
+@AllArgsConstructor
+public class ResultadoItemLote {
+    private final int indice;
+    private final CadastrarAgendamentoDto item;
+    private final Agendamento agendamento;
+    private final String erro;
+
+    public boolean isCriado() {
+        return agendamento != null;
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.fiap.medix_api.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Roda de tempo (hashed timing wheel) para expirar itens sem varrer todos eles: cada item vai para a
+ * posição do tick em que expira, e a cada tick só a posição atual é visitada. Prazos maiores que uma volta
+ * completa ficam na posição e são ignorados até a volta certa. Agendar e expirar custam O(1) por item.
+ * Não é thread-safe: quem usa precisa sincronizar o acesso.
+ */
+final class RodaDeTempo<T> {
+
+    private final List<Entrada<T>>[] posicoes;
+    private final int mascara;
+    private long tickAtual;
+
+    @SuppressWarnings("unchecked")
+    RodaDeTempo(int quantidadePosicoes, long tickInicial) {
+        int tamanho = Integer.highestOneBit(Math.max(2, quantidadePosicoes) - 1) << 1;
+        this.posicoes = new List[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            posicoes[i] = new ArrayList<>();
+        }
+        this.mascara = tamanho - 1;
+        this.tickAtual = tickInicial;
+    }
+
+    // O item expira quando a roda alcançar o tick informado (ou no próximo avanço, se já passou)
+    void agendar(T item, long tickExpiracao) {
+        long tick = Math.max(tickExpiracao, tickAtual + 1);
+        posicoes[(int) (tick & mascara)].add(new Entrada<>(item, tick));
+    }
+
+    // Avança até 'ate', entregando os itens vencidos no caminho
+    void avancar(long ate, Consumer<T> expirado) {
+        // Uma volta completa já visita todas as posições
+        long inicio = Math.max(tickAtual + 1, ate - mascara);
+        for (long tick = inicio; tick <= ate; tick++) {
+            Iterator<Entrada<T>> entradas = posicoes[(int) (tick & mascara)].iterator();
+            while (entradas.hasNext()) {
+                Entrada<T> entrada = entradas.next();
+                if (entrada.tick <= ate) {
+                    entradas.remove();
+                    expirado.accept(entrada.item);
+                }
+            }
+        }
+        tickAtual = Math.max(tickAtual, ate);
+    }
+
+    private record Entrada<T>(T item, long tick) {
+    }
+}
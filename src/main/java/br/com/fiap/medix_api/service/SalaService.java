@@ -18,6 +18,7 @@ public class SalaService {
 
     private final SalaRepository salaRepository;
     private final UnidadeSaudeRepository unidadeSaudeRepository;
+    private final CacheReferencia cacheReferencia;
 
     @Transactional
     public Sala criar(CadastrarSalaDto dto) {
@@ -29,7 +30,9 @@ public class SalaService {
         sala.setTipo(dto.getTipo());
         sala.setUnidadeSaude(unidade);
 
-        return salaRepository.save(sala);
+        Sala salva = salaRepository.save(sala);
+        cacheReferencia.removerAposCommit(Sala.class, salva.getId()); // Invalida a lista de salas da unidade em cache
+        return salva;
     }
 
     public List<Sala> listarPorUnidade(Long idUnidade) {
@@ -44,5 +47,6 @@ public class SalaService {
     @Transactional
     public void excluir(Long id) {
         salaRepository.deleteById(id); // O @SQLDelete na entidade fará o soft delete
+        cacheReferencia.removerAposCommit(Sala.class, id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package br.com.fiap.medix_api.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Série criada: o código comum às ocorrências e o resultado de cada data
+@Getter
+@AllArgsConstructor
+public class SerieRegistrada {
+    private final String codigoSerie;
+    private final List<ResultadoItemLote> resultados;
+}
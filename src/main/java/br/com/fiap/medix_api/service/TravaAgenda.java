@@ -0,0 +1,114 @@
+package br.com.fiap.medix_api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Travas em memória por recurso da agenda (colaborador, paciente e sala), distribuídas em faixas:
+ * cada recurso cai sempre na mesma faixa, então dois agendamentos que disputam um recurso se enfileiram,
+ * enquanto agendamentos de recursos diferentes seguem em paralelo. As faixas de um agendamento são
+ * travadas em ordem crescente de índice, o que impede deadlock entre requisições que compartilham recursos.
+ * Vale para uma instância da aplicação; não substitui as verificações de conflito no banco.
+ */
+@Component
+public class TravaAgenda {
+
+    private static final int COLABORADOR = 1;
+    private static final int PACIENTE = 2;
+    private static final int SALA = 3;
+
+    private final ReentrantLock[] faixas;
+    private final int mascara;
+    private final long esperaMaximaMs;
+
+    public TravaAgenda(@Value("${medix.agenda.trava.faixas:1024}") int quantidade,
+                       @Value("${medix.agenda.trava.espera-maxima-ms:5000}") long esperaMaximaMs) {
+        // Potência de dois, para o índice sair de uma máscara
+        this.faixas = new ReentrantLock[quantidade <= 1 ? 1 : Integer.highestOneBit(quantidade - 1) << 1];
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+        this.mascara = faixas.length - 1;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    // Trava os recursos até o fim (commit ou rollback) da transação corrente; a sala é opcional
+    public void travarAteFimDaTransacao(Long colaboradorId, Long pacienteId, Long salaId) {
+        travarAteFimDaTransacao(List.of(colaboradorId), List.of(pacienteId), salaId == null ? List.of() : List.of(salaId));
+    }
+
+    // Mesmo contrato para vários agendamentos de uma vez (lote): todas as faixas, na mesma ordem global
+    public void travarAteFimDaTransacao(Collection<Long> colaboradores, Collection<Long> pacientes, Collection<Long> salas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A trava da agenda exige uma transação ativa.");
+        }
+        Liberacao liberacao = travar(colaboradores, pacientes, salas);
+        // afterCompletion roda na mesma thread que travou, como o ReentrantLock exige
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                liberacao.close();
+            }
+        });
+    }
+
+    // Trava os recursos e devolve quem os libera; usado diretamente fora de transações
+    Liberacao travar(Long colaboradorId, Long pacienteId, Long salaId) {
+        return travar(List.of(colaboradorId), List.of(pacienteId), salaId == null ? List.of() : List.of(salaId));
+    }
+
+    private Liberacao travar(Collection<Long> colaboradores, Collection<Long> pacientes, Collection<Long> salas) {
+        int[] indices = IntStream.concat(IntStream.concat(
+                        colaboradores.stream().mapToInt(id -> faixa(COLABORADOR, id)),
+                        pacientes.stream().mapToInt(id -> faixa(PACIENTE, id))),
+                        salas.stream().mapToInt(id -> faixa(SALA, id)))
+                .sorted()
+                .distinct()
+                .toArray();
+
+        int travadas = 0;
+        try {
+            for (int indice : indices) {
+                if (!faixas[indice].tryLock(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("A agenda está sendo alterada por outra requisição. Tente novamente.");
+                }
+                travadas++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Agendamento interrompido enquanto aguardava a agenda.");
+        } finally {
+            if (travadas < indices.length) {
+                liberar(indices, travadas);
+            }
+        }
+        return () -> liberar(indices, indices.length);
+    }
+
+    // Libera na ordem inversa da aquisição
+    private void liberar(int[] indices, int quantidade) {
+        for (int i = quantidade - 1; i >= 0; i--) {
+            faixas[indices[i]].unlock();
+        }
+    }
+
+    // Espalha (tipo, id) pelas faixas; ids sequenciais de tipos diferentes não colidem em sequência
+    private int faixa(int tipo, Long id) {
+        long h = (id * 0x9E3779B97F4A7C15L) ^ ((long) tipo * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 31;
+        return (int) h & mascara;
+    }
+
+    interface Liberacao extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -9,13 +9,13 @@ import lombok.AllArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.List;
 
 @Service
 @AllArgsConstructor
 public class UnidadeSaudeService {
 
     private UnidadeSaudeRepository unidadeSaudeRepository;
+    private CacheReferencia cacheReferencia;
 
     @Transactional
     public UnidadeSaude criar(CadastrarUnidadeSaudeDto cadastroDto) {
@@ -32,12 +32,11 @@ public class UnidadeSaudeService {
         return unidadeSaudeRepository.save(unidade);
     }
 
-    public List<UnidadeSaude> listar(String status) {
+    public Pagina<UnidadeSaude> listar(String status, String cursor, Integer tamanho) {
         // Retorna unidades ativas ou deletadas com base no parâmetro
-        if ("deletado".equalsIgnoreCase(status)) {
-            return unidadeSaudeRepository.findAllByDeletedIsOne();
-        }
-        return unidadeSaudeRepository.findAllByDeletedIsZero();
+        int deleted = "deletado".equalsIgnoreCase(status) ? 1 : 0;
+        int limite = Pagina.limitar(tamanho);
+        return Pagina.de(unidadeSaudeRepository.findPagina(deleted, Pagina.idDoCursor(cursor), limite + 1), limite, item -> Pagina.cursor(item.getId()));
     }
 
     public UnidadeSaude buscarPorId(Long id) {
@@ -64,6 +63,7 @@ public class UnidadeSaudeService {
             unidade.setTipoUnidade(atualizacaoDto.getTipoUnidade());
         }
 
+        cacheReferencia.removerAposCommit(UnidadeSaude.class, id);
         return unidadeSaudeRepository.save(unidade);
     }
 
@@ -73,6 +73,7 @@ public class UnidadeSaudeService {
         UnidadeSaude unidade = this.buscarPorId(id);
         unidade.setDeleted(1);
         unidadeSaudeRepository.save(unidade);
+        cacheReferencia.removerAposCommit(UnidadeSaude.class, id);
     }
 
     private void validarNovoCnpj(String cnpj) {
@@ -17,12 +17,12 @@ INSERT INTO TB_MEDI_ESPECIALIDADE (id_especialidade, nm_especialidade) VALUES (3
 
 -- ============================================================================
 -- USUÁRIOS (Senha padrão: 'senha123')
--- Hash BCrypt para 'senha123': $2a$10$6Ra0FhM5OIJ2RG8tfx3tWOtm0meVQsYbYr5CHra45/PMZkUGDMYN6
+-- Hash BCrypt para 'senha123': $2a$10$0jaBhLb90XS0HwtKK8a8keAsj.P1y1m0I.N5j3CRbOz67nn.dzhVO
 -- ============================================================================
 
 -- 4. COLABORADOR (ID 1) - Dr. Silva (Cardiologista)
 INSERT INTO TB_MEDI_USUARIO (id_usuario, deleted, dt_criacao, dt_atualizacao, nm_usuario, ds_email, ds_senha_hash, nr_cpf, tp_usuario)
-VALUES (1, 0, NOW(), NOW(), 'Dr. Silva (Admin)', 'admin@medix.com', '$2a$10$6Ra0FhM5OIJ2RG8tfx3tWOtm0meVQsYbYr5CHra45/PMZkUGDMYN6', '12345678901', 'COLABORADOR');
+VALUES (1, 0, NOW(), NOW(), 'Dr. Silva (Admin)', 'admin@medix.com', '$2a$10$0jaBhLb90XS0HwtKK8a8keAsj.P1y1m0I.N5j3CRbOz67nn.dzhVO', '12345678901', 'COLABORADOR');
 
 -- Vincula o colaborador à Unidade 1 e Especialidade 1 (Cardiologia)
 INSERT INTO TB_MEDI_COLABORADOR (id_usuario, id_unidade_saude, id_especialidade, ds_cargo, nr_registro_profissional, dt_admissao)
@@ -30,7 +30,7 @@ VALUES (1, 1, 1, 'Médico Cardiologista', 'CRM/SP 123456', '2023-01-10');
 
 -- 5. PACIENTE (ID 2)
 INSERT INTO TB_MEDI_USUARIO (id_usuario, deleted, dt_criacao, dt_atualizacao, nm_usuario, ds_email, ds_senha_hash, nr_cpf, tp_usuario)
-VALUES (2, 0, NOW(), NOW(), 'Paciente Exemplo', 'paciente@medix.com', '$2a$10$6Ra0FhM5OIJ2RG8tfx3tWOtm0meVQsYbYr5CHra45/PMZkUGDMYN6', '99999999999', 'PACIENTE');
+VALUES (2, 0, NOW(), NOW(), 'Paciente Exemplo', 'paciente@medix.com', '$2a$10$0jaBhLb90XS0HwtKK8a8keAsj.P1y1m0I.N5j3CRbOz67nn.dzhVO', '99999999999', 'PACIENTE');
 
 INSERT INTO TB_MEDI_PACIENTE (id_usuario, dt_nascimento, tp_sanguineo, ds_genero)
 VALUES (2, '1995-05-20', 'O_POSITIVO', 'MASCULINO');
@@ -38,7 +38,8 @@ VALUES (2, '1995-05-20', 'O_POSITIVO', 'MASCULINO');
 -- ============================================================================
 -- AJUSTE DE SEQUÊNCIAS (Evita erros ao criar novos registros)
 -- ============================================================================
-ALTER TABLE TB_MEDI_UNIDADE_SAUDE ALTER COLUMN id_unidade_saude RESTART WITH 2;
-ALTER TABLE TB_MEDI_SALA ALTER COLUMN id_sala RESTART WITH 2;
-ALTER TABLE TB_MEDI_ESPECIALIDADE ALTER COLUMN id_especialidade RESTART WITH 4;
-ALTER TABLE TB_MEDI_USUARIO ALTER COLUMN id_usuario RESTART WITH 3;
\ No newline at end of file
+-- Os ids vêm das sequências em blocos de 50 (o primeiro NEXTVAL cobre os 50 ids anteriores a ele)
+ALTER SEQUENCE SQ_MEDI_UNIDADE_SAUDE RESTART WITH 101;
+ALTER SEQUENCE SQ_MEDI_SALA RESTART WITH 101;
+ALTER SEQUENCE SQ_MEDI_ESPECIALIDADE RESTART WITH 101;
+ALTER SEQUENCE SQ_MEDI_USUARIO RESTART WITH 101;
\ No newline at end of file
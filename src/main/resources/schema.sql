@@ -0,0 +1,132 @@
+-- ============================================================================
+-- ALTERAÇÕES DE SCHEMA (ORACLE) - aplicar manualmente, as tabelas não são geradas pelo Hibernate
+-- ============================================================================
+
+-- 1. DISPONIBILIDADE MATERIALIZADA (um registro por colaborador e dia dentro do horizonte)
+CREATE SEQUENCE SQ_MEDI_DISPONIBILIDADE START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE TB_MEDI_DISPONIBILIDADE (
+    id_disponibilidade  NUMBER(19)    NOT NULL,
+    dt_atualizacao      TIMESTAMP,
+    id_colaborador      NUMBER(19)    NOT NULL,
+    id_unidade_saude    NUMBER(19)    NOT NULL,
+    id_especialidade    NUMBER(19)    NOT NULL,
+    dt_dia              DATE          NOT NULL,
+    ds_ocupacao         VARCHAR2(80)  NOT NULL,
+    qt_minutos_livres   NUMBER(5)     NOT NULL,
+    CONSTRAINT PK_MEDI_DISPONIBILIDADE PRIMARY KEY (id_disponibilidade),
+    CONSTRAINT UK_MEDI_DISPONIBILIDADE_DIA UNIQUE (id_colaborador, dt_dia)
+);
+
+-- Leitura por faixa dos passos de disponibilidade
+CREATE INDEX IX_MEDI_DISPONIBILIDADE_BUSCA ON TB_MEDI_DISPONIBILIDADE (id_unidade_saude, id_especialidade, dt_dia);
+
+-- 2. JORNADAS DE TRABALHO (modelos semanais por colaborador ou padrão da unidade) E EXCEÇÕES
+CREATE SEQUENCE SQ_MEDI_JORNADA START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE TB_MEDI_JORNADA (
+    id_jornada          NUMBER(19)    NOT NULL,
+    id_colaborador      NUMBER(19),
+    id_unidade_saude    NUMBER(19),
+    ds_dia_semana       VARCHAR2(10)  NOT NULL,
+    hr_inicio           DATE          NOT NULL,
+    hr_fim              DATE          NOT NULL,
+    CONSTRAINT PK_MEDI_JORNADA PRIMARY KEY (id_jornada),
+    CONSTRAINT CK_MEDI_JORNADA_DONO CHECK (id_colaborador IS NOT NULL OR id_unidade_saude IS NOT NULL)
+);
+
+CREATE INDEX IX_MEDI_JORNADA_COLABORADOR ON TB_MEDI_JORNADA (id_colaborador);
+CREATE INDEX IX_MEDI_JORNADA_UNIDADE ON TB_MEDI_JORNADA (id_unidade_saude);
+
+CREATE SEQUENCE SQ_MEDI_EXCECAO_JORNADA START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE TB_MEDI_EXCECAO_JORNADA (
+    id_excecao_jornada  NUMBER(19)    NOT NULL,
+    id_colaborador      NUMBER(19),
+    id_unidade_saude    NUMBER(19),
+    dt_inicio           DATE          NOT NULL,
+    dt_fim              DATE          NOT NULL,
+    hr_inicio           DATE,
+    hr_fim              DATE,
+    ds_excecao          VARCHAR2(100),
+    CONSTRAINT PK_MEDI_EXCECAO_JORNADA PRIMARY KEY (id_excecao_jornada)
+);
+
+-- Carga do calendário: somente exceções que ainda não terminaram
+CREATE INDEX IX_MEDI_EXCECAO_JORNADA_FIM ON TB_MEDI_EXCECAO_JORNADA (dt_fim);
+
+-- A grade de ocupação passou a cobrir o dia inteiro (5 palavras de 64 bits = 80 caracteres);
+-- para bancos criados antes desta alteração:
+-- ALTER TABLE TB_MEDI_DISPONIBILIDADE MODIFY ds_ocupacao VARCHAR2(80);
+
+-- 3. SEQUÊNCIA DE AGENDAMENTOS EM BLOCOS (allocationSize = 50 em Agendamento)
+ALTER SEQUENCE SQ_MEDI_AGENDAMENTO INCREMENT BY 50;
+
+-- 4. SÉRIES RECORRENTES (código comum às ocorrências; cancelamento da série em um único UPDATE)
+ALTER TABLE TB_MEDI_AGENDAMENTO ADD cd_serie VARCHAR2(36);
+
+CREATE INDEX IX_MEDI_AGENDAMENTO_SERIE ON TB_MEDI_AGENDAMENTO (cd_serie);
+
+-- 5. IDEMPOTENCY-KEY DO POST /agendamentos (medix.agenda.idempotencia.persistente = true)
+CREATE TABLE TB_MEDI_IDEMPOTENCIA (
+    ds_chave            VARCHAR2(200) NOT NULL,
+    ds_hash             VARCHAR2(64)  NOT NULL,
+    id_agendamento      NUMBER(19),
+    dt_criacao          TIMESTAMP     NOT NULL,
+    CONSTRAINT PK_MEDI_IDEMPOTENCIA PRIMARY KEY (ds_chave)
+);
+
+-- Limpeza periódica das chaves expiradas
+CREATE INDEX IX_MEDI_IDEMPOTENCIA_CRIACAO ON TB_MEDI_IDEMPOTENCIA (dt_criacao);
+
+-- 6. ENCERRAMENTO DOS AGENDAMENTOS PASSADOS (UPDATEs em blocos por status, tipo e fim)
+CREATE INDEX IX_MEDI_AGENDAMENTO_ENCERRAMENTO ON TB_MEDI_AGENDAMENTO (st_agendamento, tp_agendamento, dt_fim);
+
+-- 7. LISTA DE ESPERA (vagas liberadas por cancelamentos)
+CREATE SEQUENCE SQ_MEDI_LISTA_ESPERA START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE TB_MEDI_LISTA_ESPERA (
+    id_lista_espera             NUMBER(19)    NOT NULL,
+    dt_criacao                  TIMESTAMP,
+    id_paciente                 NUMBER(19)    NOT NULL,
+    id_especialidade            NUMBER(19)    NOT NULL,
+    id_unidade_saude            NUMBER(19),
+    dt_inicio                   DATE          NOT NULL,
+    dt_fim                      DATE          NOT NULL,
+    tp_agendamento              VARCHAR2(30)  NOT NULL,
+    fl_agendamento_automatico   NUMBER(1)     DEFAULT 0 NOT NULL,
+    st_lista_espera             VARCHAR2(20)  NOT NULL,
+    ds_token_reserva            VARCHAR2(36),
+    id_colaborador_oferta       NUMBER(19),
+    id_unidade_saude_oferta     NUMBER(19),
+    dt_inicio_oferta            TIMESTAMP,
+    dt_expiracao_oferta         TIMESTAMP,
+    id_agendamento              NUMBER(19),
+    CONSTRAINT PK_MEDI_LISTA_ESPERA PRIMARY KEY (id_lista_espera)
+);
+
+-- Listagem paginada do paciente (keyset no id)
+CREATE INDEX IX_MEDI_LISTA_ESPERA_PACIENTE ON TB_MEDI_LISTA_ESPERA (id_paciente, id_lista_espera);
+-- Carga da fila em memória (inscrições ativas)
+CREATE INDEX IX_MEDI_LISTA_ESPERA_STATUS ON TB_MEDI_LISTA_ESPERA (st_lista_espera, dt_fim);
+
+-- 8. VERSÃO OTIMISTA DO AGENDAMENTO (@Version; ETag/If-Match nas mudanças de status)
+ALTER TABLE TB_MEDI_AGENDAMENTO ADD nr_versao NUMBER(19) DEFAULT 0 NOT NULL;
+
+-- 9. DEMAIS SEQUÊNCIAS EM BLOCOS (allocationSize = 50 em todas as entidades)
+-- Aplicar ANTES de subir a versão com allocationSize = 50: o otimizador pooled usa o valor da sequência
+-- como topo do bloco (valor - 49 até valor), o que só é seguro depois que o incremento passa a ser 50.
+-- Instâncias antigas (allocationSize = 1) continuam funcionando depois do ALTER, apenas pulando ids.
+ALTER SEQUENCE SQ_MEDI_USUARIO INCREMENT BY 50;
+ALTER SEQUENCE SQ_MEDI_UNIDADE_SAUDE INCREMENT BY 50;
+ALTER SEQUENCE SQ_MEDI_ESPECIALIDADE INCREMENT BY 50;
+ALTER SEQUENCE SQ_MEDI_SALA INCREMENT BY 50;
+ALTER SEQUENCE SQ_MEDI_AVALIACAO INCREMENT BY 50;
+ALTER SEQUENCE SQ_MEDI_DISPONIBILIDADE INCREMENT BY 50;
+ALTER SEQUENCE SQ_MEDI_JORNADA INCREMENT BY 50;
+ALTER SEQUENCE SQ_MEDI_EXCECAO_JORNADA INCREMENT BY 50;
+ALTER SEQUENCE SQ_MEDI_LISTA_ESPERA INCREMENT BY 50;
+
+-- 10. PAGINAÇÃO POR CURSOR DOS HISTÓRICOS (keyset em início + id, por paciente e por colaborador)
+CREATE INDEX IX_MEDI_AGENDAMENTO_PACIENTE_INICIO ON TB_MEDI_AGENDAMENTO (id_paciente, dt_inicio, id_agendamento);
+CREATE INDEX IX_MEDI_AGENDAMENTO_COLABORADOR_INICIO ON TB_MEDI_AGENDAMENTO (id_colaborador, dt_inicio, id_agendamento);
@@ -0,0 +1,74 @@
+package br.com.fiap.medix_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoteamentoDataSourceTest {
+
+    private final LeituraPropria leituraPropria = new LeituraPropria(5000);
+    private final RoteamentoDataSource roteamento = new RoteamentoDataSource(new HikariDataSource(), new HikariDataSource(), leituraPropria);
+
+    @AfterEach
+    void limpar() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void somenteTransacoesReadOnlyVaoParaAReplica() {
+        assertEquals(RoteamentoDataSource.Rota.PRIMARIO, roteamento.rota()); // Fora de transação
+
+        transacao(false);
+        assertEquals(RoteamentoDataSource.Rota.PRIMARIO, roteamento.rota());
+
+        transacao(true);
+        assertEquals(RoteamentoDataSource.Rota.REPLICA, roteamento.rota());
+    }
+
+    @Test
+    void depoisDeUmaEscritaARequisicaoLeDoPrimario() throws Exception {
+        leituraPropria.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (req, resp) -> {
+            transacao(true);
+            assertEquals(RoteamentoDataSource.Rota.REPLICA, roteamento.rota());
+
+            leituraPropria.afterCommit(status(false), null);
+            assertEquals(RoteamentoDataSource.Rota.PRIMARIO, roteamento.rota());
+        });
+
+        // A marca não passa para a próxima requisição anônima nem para jobs fora de requisição
+        transacao(true);
+        assertEquals(RoteamentoDataSource.Rota.REPLICA, roteamento.rota());
+    }
+
+    @Test
+    void commitDeTransacaoReadOnlyNaoMudaARota() throws Exception {
+        leituraPropria.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (req, resp) -> {
+            leituraPropria.afterCommit(status(true), null);
+            transacao(true);
+            assertEquals(RoteamentoDataSource.Rota.REPLICA, roteamento.rota());
+        });
+    }
+
+    @Test
+    void semReplicaTudoVaiParaOPrimario() {
+        RoteamentoDataSource semReplica = new RoteamentoDataSource(new HikariDataSource(), null, leituraPropria);
+        transacao(true);
+        assertEquals(RoteamentoDataSource.Rota.PRIMARIO, semReplica.rota());
+        assertFalse(semReplica.estatisticas().isReplicaHabilitada());
+    }
+
+    private static void transacao(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static DefaultTransactionStatus status(boolean readOnly) {
+        return new DefaultTransactionStatus(null, new Object(), true, false, false, readOnly, false, null);
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto;
+import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AtribuicaoColaboradorTest {
+
+    private static final Long COLABORADOR = 10L;
+    private static final LocalDate AMANHA = LocalDate.now().plusDays(1);
+
+    @Test
+    void confirmacaoNaoContaDeNovoECancelamentoDescontaUmaVez() {
+        AtribuicaoColaborador atribuicao = carregada(List.of(intervalo(1L, AMANHA.atTime(9, 0))));
+
+        atribuicao.aoAlterarAgendamento(evento(2L, AMANHA.atTime(10, 0), StatusAgendamento.AGENDADO));
+        atribuicao.aoAlterarAgendamento(evento(2L, AMANHA.atTime(10, 0), StatusAgendamento.CONFIRMADO));
+        assertEquals(2, atribuicao.quantidade(COLABORADOR, AMANHA));
+
+        atribuicao.aoAlterarAgendamento(evento(1L, AMANHA.atTime(9, 0), StatusAgendamento.CANCELADO_PACIENTE));
+        atribuicao.aoAlterarAgendamento(evento(2L, AMANHA.atTime(10, 0), StatusAgendamento.CANCELADO_COLABORADOR));
+        atribuicao.aoAlterarAgendamento(evento(2L, AMANHA.atTime(10, 0), StatusAgendamento.CANCELADO_COLABORADOR));
+        assertEquals(0, atribuicao.quantidade(COLABORADOR, AMANHA));
+    }
+
+    @Test
+    void diasForaDoHorizonteNaoSaoContados() {
+        AtribuicaoColaborador atribuicao = carregada(List.of());
+        LocalDate depoisDoHorizonte = LocalDate.now().plusDays(8);
+
+        atribuicao.aoAlterarAgendamento(evento(3L, depoisDoHorizonte.atTime(9, 0), StatusAgendamento.AGENDADO));
+
+        assertEquals(0, atribuicao.quantidade(COLABORADOR, depoisDoHorizonte));
+    }
+
+    // Horizonte de 7 dias; a escolha (que usa a disponibilidade) não é exercitada aqui
+    private static AtribuicaoColaborador carregada(List<IntervaloAgendamentoDto> intervalos) {
+        AgendamentoRepository repositorio = mock(AgendamentoRepository.class);
+        when(repositorio.findIntervalosAtivosEntre(any(), any())).thenReturn(intervalos);
+        AtribuicaoColaborador atribuicao = new AtribuicaoColaborador(repositorio, null, AtribuicaoColaborador.Politica.MENOS_AGENDAMENTOS, 7);
+        atribuicao.carregar();
+        return atribuicao;
+    }
+
+    private static IntervaloAgendamentoDto intervalo(Long id, LocalDateTime inicio) {
+        return new IntervaloAgendamentoDto(id, COLABORADOR, inicio, inicio.plusMinutes(30));
+    }
+
+    private static AgendamentoAlteradoEvent evento(Long id, LocalDateTime inicio, StatusAgendamento status) {
+        return new AgendamentoAlteradoEvent(id, COLABORADOR, 20L, 30L, 20L, null, inicio, inicio.plusMinutes(30), status);
+    }
+}
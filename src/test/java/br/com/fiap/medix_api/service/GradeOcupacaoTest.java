@@ -0,0 +1,180 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeOcupacaoTest {
+
+    private static final LocalDate DIA = LocalDate.of(2026, 11, 3);
+
+    @Test
+    void marcaEDesmarcaIntervaloQueAtravessaPalavras() {
+        long[] ocupado = GradeOcupacao.vazia();
+        int de = GradeOcupacao.granuloInicial(DIA, LocalDateTime.of(DIA, LocalTime.of(12, 30)));
+        int ate = GradeOcupacao.granuloFinal(DIA, LocalDateTime.of(DIA, LocalTime.of(14, 0)));
+        GradeOcupacao.definir(ocupado, 0, de, ate, true);
+
+        assertFalse(GradeOcupacao.isLivre(ocupado, de, ate));
+        assertTrue(GradeOcupacao.isLivre(ocupado, 0, de));
+        assertTrue(GradeOcupacao.isLivre(ocupado, ate, GradeOcupacao.TOTAL_GRANULOS));
+
+        GradeOcupacao.definir(ocupado, 0, de, ate, false);
+        assertTrue(GradeOcupacao.isLivre(ocupado, 0, GradeOcupacao.TOTAL_GRANULOS));
+    }
+
+    @Test
+    void encontraJanelaLivreDeUmaHoraPorVarreduraDeBits() {
+        long[] ocupado = GradeOcupacao.vazia();
+        // Ocupado até as 11:00 e a partir das 11:30: só cabe 30 minutos entre eles
+        GradeOcupacao.definir(ocupado, 0, 0, g(11, 0), true);
+        GradeOcupacao.definir(ocupado, 0, g(11, 30), GradeOcupacao.TOTAL_GRANULOS, true);
+
+        assertEquals(-1, GradeOcupacao.proximoMarcado(inicios(ocupado, 60), 0));
+        int inicio = GradeOcupacao.proximoMarcado(inicios(ocupado, 30), 0);
+        assertEquals(LocalTime.of(11, 0), GradeOcupacao.horario(inicio));
+    }
+
+    @Test
+    void janelaNaoUltrapassaOFimDaJornada() {
+        // Jornada das 08:00 às 17:00: o que está fora dela chega como ocupado
+        long[] ocupado = GradeOcupacao.vazia();
+        GradeOcupacao.definir(ocupado, 0, 0, g(8, 0), true);
+        GradeOcupacao.definir(ocupado, 0, g(17, 0), GradeOcupacao.TOTAL_GRANULOS, true);
+
+        long[] inicios = inicios(ocupado, 120);
+        int ultimo = -1;
+        for (int g = GradeOcupacao.proximoMarcado(inicios, 0); g >= 0; g = GradeOcupacao.proximoMarcado(inicios, g + 1)) {
+            ultimo = g;
+        }
+        assertEquals(LocalTime.of(8, 0), GradeOcupacao.horario(GradeOcupacao.proximoMarcado(inicios, 0)));
+        assertEquals(LocalTime.of(15, 0), GradeOcupacao.horario(ultimo));
+    }
+
+    @Test
+    void marcaTodasAsLacunasOndeADuracaoCabe() {
+        long[] ocupado = GradeOcupacao.vazia();
+        // Lacunas: 00:00-09:00, 10:00-10:45 e 12:00-24:00; uma consulta de 60 minutos não cabe na segunda
+        GradeOcupacao.definir(ocupado, 0, g(9, 0), g(10, 0), true);
+        GradeOcupacao.definir(ocupado, 0, g(10, 45), g(12, 0), true);
+
+        long[] inicios = inicios(ocupado, 60);
+        assertTrue(GradeOcupacao.isMarcado(inicios, 0));
+        assertEquals(g(9, 0) - GradeOcupacao.granulos(60) + 1, GradeOcupacao.proximoDesmarcado(inicios, 0));
+        assertEquals(g(12, 0), GradeOcupacao.proximoMarcado(inicios, g(9, 0)));
+        assertEquals(GradeOcupacao.TOTAL_GRANULOS - GradeOcupacao.granulos(60) + 1, GradeOcupacao.proximoDesmarcado(inicios, g(12, 0)));
+    }
+
+    @Test
+    void mapaMantemEntradasAposRedimensionar() {
+        MapaOcupacao mapa = new MapaOcupacao(0);
+        for (long colaborador = 1; colaborador <= 500; colaborador++) {
+            mapa.definir(MapaOcupacao.chave(colaborador, DIA), 0, (int) (colaborador % 50) + 1, true);
+        }
+        assertEquals(500, mapa.tamanho());
+        for (long colaborador = 1; colaborador <= 500; colaborador++) {
+            long[] ocupado = mapa.buscar(MapaOcupacao.chave(colaborador, DIA));
+            int fim = (int) (colaborador % 50) + 1;
+            assertFalse(GradeOcupacao.isLivre(ocupado, 0, fim));
+            assertTrue(GradeOcupacao.isLivre(ocupado, fim, GradeOcupacao.TOTAL_GRANULOS));
+        }
+        assertNull(mapa.buscar(MapaOcupacao.chave(1, DIA.plusDays(1))));
+    }
+
+    @Test
+    void mapaAPartirDeDescartaDiasPassadosEVazios() {
+        MapaOcupacao mapa = new MapaOcupacao(0);
+        mapa.definir(MapaOcupacao.chave(1, DIA.minusDays(1)), 0, 12, true);
+        mapa.definir(MapaOcupacao.chave(1, DIA), 0, 12, true);
+        mapa.definir(MapaOcupacao.chave(2, DIA), 0, 12, true);
+        mapa.definir(MapaOcupacao.chave(2, DIA), 0, 12, false); // Cancelado: a entrada fica vazia
+
+        MapaOcupacao limpo = mapa.aPartirDe(DIA);
+
+        assertEquals(1, limpo.tamanho());
+        assertFalse(GradeOcupacao.isLivre(limpo.buscar(MapaOcupacao.chave(1, DIA)), 0, 12));
+        assertNull(limpo.buscar(MapaOcupacao.chave(1, DIA.minusDays(1))));
+        assertNull(limpo.buscar(MapaOcupacao.chave(2, DIA)));
+    }
+
+    @Test
+    void mapaMoveAJanelaOuGuardaODiaInteiro() {
+        MapaOcupacao mapa = new MapaOcupacao(0);
+        long tarde = MapaOcupacao.chave(1, DIA);
+        mapa.definir(tarde, g(16, 0), g(17, 0), true);
+        mapa.definir(tarde, g(8, 0), g(9, 0), true); // A janela volta para as 08:00 e ainda cobre as 16:00
+        long[] ocupado = mapa.buscar(tarde);
+        assertFalse(GradeOcupacao.isLivre(ocupado, g(8, 0), g(9, 0)));
+        assertTrue(GradeOcupacao.isLivre(ocupado, g(9, 0), g(16, 0)));
+        assertFalse(GradeOcupacao.isLivre(ocupado, g(16, 0), g(17, 0)));
+
+        long bloqueado = MapaOcupacao.chave(2, DIA);
+        mapa.definir(bloqueado, 0, GradeOcupacao.TOTAL_GRANULOS, true); // Maior que a janela
+        mapa.definir(bloqueado, g(12, 0), g(13, 0), false);
+        ocupado = mapa.buscar(bloqueado);
+        assertEquals(GradeOcupacao.TOTAL_GRANULOS - g(13, 0) + g(12, 0), GradeOcupacao.TOTAL_GRANULOS - GradeOcupacao.contarLivres(ocupado));
+        assertTrue(GradeOcupacao.isLivre(ocupado, g(12, 0), g(13, 0)));
+        assertEquals(2, mapa.aPartirDe(DIA).tamanho());
+    }
+
+    private static int g(int hora, int minuto) {
+        return GradeOcupacao.granulo(LocalTime.of(hora, minuto));
+    }
+
+    private static long[] inicios(long[] ocupado, int minutos) {
+        long[] inicios = GradeOcupacao.vazia();
+        GradeOcupacao.marcarInicios(ocupado, GradeOcupacao.granulos(minutos), inicios);
+        return inicios;
+    }
+
+    @Test
+    void agendamentosVizinhosNaoDividemGranuloEOCancelamentoPreservaOVizinho() {
+        long[] ocupado = GradeOcupacao.vazia();
+        LocalDateTime oito = LocalDateTime.of(DIA, LocalTime.of(8, 0));
+        marcar(ocupado, oito, oito.plusMinutes(15), true);                    // 08:00-08:15
+        marcar(ocupado, oito.plusMinutes(15), oito.plusMinutes(30), true);    // 08:15-08:30
+
+        marcar(ocupado, oito, oito.plusMinutes(15), false);                   // Cancela o primeiro
+        assertTrue(GradeOcupacao.isLivre(ocupado, granuloInicial(oito), granuloFinal(oito.plusMinutes(15))));
+        assertFalse(GradeOcupacao.isLivre(ocupado, granuloInicial(oito.plusMinutes(15)), granuloFinal(oito.plusMinutes(30))));
+    }
+
+    @Test
+    void inicioForaDoGranuloERejeitado() {
+        try (ValidatorFactory fabrica = Validation.buildDefaultValidatorFactory()) {
+            Validator validador = fabrica.getValidator();
+            CadastrarAgendamentoDto dto = new CadastrarAgendamentoDto();
+            dto.setIdPaciente(1L);
+            dto.setIdUnidadeSaude(1L);
+            dto.setTipo(TipoAgendamento.RETORNO);
+
+            // 08:02-08:17 e 08:17-08:32 dividiriam os grânulos de 08:00 e 08:15
+            dto.setDataHoraInicio(LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(8, 2)));
+            assertEquals(1, validador.validate(dto).size());
+
+            dto.setDataHoraInicio(LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(8, 5)));
+            assertTrue(validador.validate(dto).isEmpty());
+        }
+    }
+
+    private static void marcar(long[] ocupado, LocalDateTime inicio, LocalDateTime fim, boolean valor) {
+        GradeOcupacao.definir(ocupado, 0, granuloInicial(inicio), granuloFinal(fim), valor);
+    }
+
+    private static int granuloInicial(LocalDateTime instante) {
+        return GradeOcupacao.granuloInicial(DIA, instante);
+    }
+
+    private static int granuloFinal(LocalDateTime instante) {
+        return GradeOcupacao.granuloFinal(DIA, instante);
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.request.CadastrarAgendamentoDto;
+import br.com.fiap.medix_api.dto.response.RespostaAgendamentoDto;
+import br.com.fiap.medix_api.enums.TipoAgendamento;
+import br.com.fiap.medix_api.model.ChaveIdempotencia;
+import br.com.fiap.medix_api.repository.ChaveIdempotenciaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotenciaAgendamentoTest {
+
+    // Sem persistência o banco não é usado
+    private final IdempotenciaAgendamento idempotencia = new IdempotenciaAgendamento(null, null, false, 100, 60, 1000);
+
+    @Test
+    void repeticaoDevolveAPrimeiraRespostaSemAgendarDeNovo() {
+        AtomicInteger execucoes = new AtomicInteger();
+        CadastrarAgendamentoDto dto = dto(1L);
+
+        RespostaIdempotente primeira = idempotencia.executar("k1", dto, () -> resposta(execucoes.incrementAndGet()), id -> fail());
+        RespostaIdempotente repetida = idempotencia.executar("k1", dto(1L), () -> resposta(execucoes.incrementAndGet()), id -> fail());
+
+        assertFalse(primeira.isRepetida());
+        assertTrue(repetida.isRepetida());
+        assertSame(primeira.getCorpo(), repetida.getCorpo());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void mesmaChaveComOutroCorpoERejeitada() {
+        idempotencia.executar("k2", dto(1L), () -> resposta(1), id -> fail());
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencia.executar("k2", dto(2L), () -> resposta(2), id -> fail()));
+    }
+
+    @Test
+    void falhaNaoEGuardada() {
+        assertThrows(IllegalStateException.class, () -> idempotencia.executar("k3", dto(1L), () -> {
+            throw new IllegalStateException("O paciente já possui agendamento neste horário.");
+        }, id -> fail()));
+
+        RespostaIdempotente nova = idempotencia.executar("k3", dto(1L), () -> resposta(3), id -> fail());
+        assertFalse(nova.isRepetida());
+        assertEquals(3L, nova.getCorpo().getId());
+    }
+
+    @Test
+    void chaveGravadaPorOutraInstanciaDevolveARespostaDelaSemAgendar() {
+        // A leitura inicial não vê a chave; o INSERT dela falha na PK porque a outra instância gravou antes
+        List<String> transacoes = new CopyOnWriteArrayList<>();
+        ChaveIdempotencia daOutra = ChaveIdempotencia.builder().chave(":k4").idAgendamento(42L).build();
+        ChaveIdempotenciaRepository repositorio = mock(ChaveIdempotenciaRepository.class);
+        when(repositorio.findById(any())).thenReturn(Optional.empty(), Optional.of(daOutra));
+        when(repositorio.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("PK_MEDI_IDEMPOTENCIA"));
+        IdempotenciaAgendamento persistente = new IdempotenciaAgendamento(repositorio,
+                new TransactionTemplate(gerenciadorQueRegistra(transacoes)), true, 100, 60, 1000);
+        CadastrarAgendamentoDto dto = dto(1L);
+        daOutra.setHashRequisicao(IdempotenciaAgendamento.hash(dto));
+
+        RespostaIdempotente resposta = persistente.executar("k4", dto, () -> fail("Não deve agendar"), IdempotenciaAgendamentoTest::resposta);
+
+        assertTrue(resposta.isRepetida());
+        assertEquals(42L, resposta.getCorpo().getId());
+        assertEquals(List.of("rollback", "commit"), transacoes);
+    }
+
+    @Test
+    void hashDependeSoDosCamposDaRequisicao() {
+        assertEquals(IdempotenciaAgendamento.hash(dto(1L)), IdempotenciaAgendamento.hash(dto(1L)));
+
+        // Um separador dentro das observações não pode imitar outra divisão dos campos
+        CadastrarAgendamentoDto comObservacoes = dto(1L);
+        comObservacoes.setObservacoes("a|2:bc");
+        CadastrarAgendamentoDto outraObservacao = dto(1L);
+        outraObservacao.setObservacoes("a");
+        assertNotEquals(IdempotenciaAgendamento.hash(comObservacoes), IdempotenciaAgendamento.hash(outraObservacao));
+        assertNotEquals(IdempotenciaAgendamento.hash(dto(1L)), IdempotenciaAgendamento.hash(comObservacoes));
+    }
+
+    private static AbstractPlatformTransactionManager gerenciadorQueRegistra(List<String> transacoes) {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+                transacoes.add("commit");
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+                transacoes.add("rollback");
+            }
+        };
+    }
+
+    private static CadastrarAgendamentoDto dto(Long idPaciente) {
+        CadastrarAgendamentoDto dto = new CadastrarAgendamentoDto();
+        dto.setIdPaciente(idPaciente);
+        dto.setIdColaborador(10L);
+        dto.setIdUnidadeSaude(20L);
+        dto.setDataHoraInicio(LocalDateTime.of(2030, 1, 7, 9, 0));
+        dto.setTipo(TipoAgendamento.RETORNO);
+        return dto;
+    }
+
+    private static RespostaAgendamentoDto resposta(long id) {
+        RespostaAgendamentoDto dto = new RespostaAgendamentoDto();
+        dto.setId(id);
+        return dto;
+    }
+}
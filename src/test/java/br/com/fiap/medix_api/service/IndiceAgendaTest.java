@@ -0,0 +1,65 @@
+package br.com.fiap.medix_api.service;
+
+import br.com.fiap.medix_api.dto.projection.IntervaloAgendamentoDto;
+import br.com.fiap.medix_api.enums.StatusAgendamento;
+import br.com.fiap.medix_api.event.AgendamentoAlteradoEvent;
+import br.com.fiap.medix_api.repository.AgendamentoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceAgendaTest {
+
+    private static final Long COLABORADOR = 10L;
+    private static final LocalDateTime NOVE = LocalDateTime.of(2030, 1, 7, 9, 0);
+    private static final LocalDateTime DEZ = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private IndiceAgenda indice;
+
+    @Test
+    void eventosDuranteACargaSaoReaplicadosSobreOMapaCarregado() {
+        // A consulta ainda vê o agendamento das 9h ativo; enquanto ela roda, ele é cancelado e outro é marcado às 10h
+        indice = new IndiceAgenda(repositorio(() -> {
+            indice.aoAlterarAgendamento(evento(1L, NOVE, StatusAgendamento.CANCELADO_PACIENTE));
+            indice.aoAlterarAgendamento(evento(2L, DEZ, StatusAgendamento.AGENDADO));
+            return List.of(new IntervaloAgendamentoDto(1L, COLABORADOR, NOVE, NOVE.plusMinutes(30)));
+        }));
+        ReflectionTestUtils.setField(indice, "habilitado", true);
+
+        indice.carregar();
+
+        assertTrue(indice.isDisponivel());
+        assertFalse(indice.isOcupado(COLABORADOR, NOVE, NOVE.plusMinutes(30)));
+        assertTrue(indice.isOcupado(COLABORADOR, DEZ, DEZ.plusMinutes(30)));
+    }
+
+    @Test
+    void eventosDepoisDaCargaAtualizamOMapa() {
+        indice = new IndiceAgenda(repositorio(List::of));
+        ReflectionTestUtils.setField(indice, "habilitado", true);
+        indice.carregar();
+
+        indice.aoAlterarAgendamento(evento(3L, NOVE, StatusAgendamento.AGENDADO));
+
+        assertTrue(indice.isOcupado(COLABORADOR, NOVE, NOVE.plusMinutes(30)));
+    }
+
+    private static AgendamentoAlteradoEvent evento(Long id, LocalDateTime inicio, StatusAgendamento status) {
+        return new AgendamentoAlteradoEvent(id, COLABORADOR, 20L, 30L, 20L, null, inicio, inicio.plusMinutes(30), status);
+    }
+
+    // Só a consulta da carga é usada pelo índice
+    private static AgendamentoRepository repositorio(Supplier<List<IntervaloAgendamentoDto>> intervalos) {
+        AgendamentoRepository repositorio = mock(AgendamentoRepository.class);
+        when(repositorio.findIntervalosAtivosAPartirDe(any())).thenAnswer(invocacao -> intervalos.get());
+        return repositorio;
+    }
+}
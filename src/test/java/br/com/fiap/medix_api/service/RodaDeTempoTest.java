@@ -0,0 +1,41 @@
+package br.com.fiap.medix_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RodaDeTempoTest {
+
+    @Test
+    void expiraCadaItemNoSeuTickMesmoAlemDeUmaVolta() {
+        RodaDeTempo<String> roda = new RodaDeTempo<>(8, 0);
+        roda.agendar("curto", 3);
+        roda.agendar("longo", 11); // Mesma posição de "curto", uma volta depois
+
+        List<String> expirados = new ArrayList<>();
+        roda.avancar(3, expirados::add);
+        assertEquals(List.of("curto"), expirados);
+
+        roda.avancar(10, expirados::add);
+        assertEquals(List.of("curto"), expirados);
+
+        roda.avancar(11, expirados::add);
+        assertEquals(List.of("curto", "longo"), expirados);
+    }
+
+    @Test
+    void avancoAtrasadoEntregaTudoQueVenceu() {
+        RodaDeTempo<Integer> roda = new RodaDeTempo<>(4, 0);
+        for (int i = 1; i <= 20; i++) {
+            roda.agendar(i, i);
+        }
+        List<Integer> expirados = new ArrayList<>();
+        roda.avancar(15, expirados::add);
+
+        assertEquals(15, expirados.size());
+        assertFalse(expirados.contains(16));
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.fiap.medix_api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Comparação manual entre a trava global (uma faixa) e a trava por recurso. Não faz parte da suíte
+ * (depende do tempo de relógio da máquina); rodar pelo main na IDE.
+ */
+public class TravaAgendaBenchmark {
+
+    private static final int THREADS = 8;
+
+    public static void main(String[] args) throws Exception {
+        // Cada thread agenda para o seu colaborador; o trecho travado simula as idas ao banco
+        long global = medir(new TravaAgenda(1, 5000));
+        long porRecurso = medir(new TravaAgenda(1024, 5000));
+        System.out.printf("Trava global: %d ms | Trava por recurso: %d ms (%d threads)%n", global, porRecurso, THREADS);
+    }
+
+    private static long medir(TravaAgenda trava) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long recurso = t;
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 20; i++) {
+                    try (TravaAgenda.Liberacao ignored = trava.travar(recurso, recurso, null)) {
+                        Thread.sleep(2);
+                    }
+                }
+                return null;
+            }));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        executor.shutdown();
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+}
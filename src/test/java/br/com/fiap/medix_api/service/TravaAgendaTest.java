@@ -0,0 +1,96 @@
+package br.com.fiap.medix_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TravaAgendaTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void verificacaoEInsercaoSobATravaNaoDuplicaOHorario() throws Exception {
+        TravaAgenda trava = new TravaAgenda(1024, 5000);
+        Set<Long> ocupados = ConcurrentHashMap.newKeySet();
+        AtomicInteger agendados = new AtomicInteger();
+
+        // Todas as threads disputam o mesmo colaborador, com pacientes diferentes
+        executar(THREADS, 50, (thread, i) -> {
+            try (TravaAgenda.Liberacao ignored = trava.travar(1L, (long) thread * 1000 + i, null)) {
+                if (!ocupados.contains((long) i)) { // Verificação...
+                    Thread.yield();
+                    ocupados.add((long) i);          // ... e inserção
+                    agendados.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(50, agendados.get());
+    }
+
+    @Test
+    void recursosDiferentesSaoTravadosAoMesmoTempo() throws Exception {
+        TravaAgenda trava = new TravaAgenda(1024, 100);
+        try (TravaAgenda.Liberacao ignored = trava.travar(1L, 1L, null)) {
+            // Outra thread trava outro colaborador e outro paciente enquanto a primeira segura os seus
+            assertDoesNotThrow(() -> emOutraThread(() -> trava.travar(2L, 2L, null).close()));
+        }
+    }
+
+    @Test
+    void mesmoRecursoBloqueiaAteALiberacao() throws Exception {
+        TravaAgenda trava = new TravaAgenda(1024, 100);
+        try (TravaAgenda.Liberacao ignored = trava.travar(1L, 1L, null)) {
+            // Mesmo colaborador, outro paciente: espera a trava e desiste após a espera máxima
+            ExecutionException erro = assertThrows(ExecutionException.class,
+                    () -> emOutraThread(() -> trava.travar(1L, 2L, null).close()));
+            assertInstanceOf(IllegalStateException.class, erro.getCause());
+        }
+        assertDoesNotThrow(() -> emOutraThread(() -> trava.travar(1L, 2L, null).close()));
+    }
+
+    // A trava é reentrante, então a disputa precisa vir de outra thread
+    private static void emOutraThread(Runnable acao) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(acao).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void executar(int threads, int repeticoes, Tarefa tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < repeticoes; i++) {
+                    tarefa.executar(thread, i);
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        executor.shutdown();
+    }
+
+    private interface Tarefa {
+        void executar(int thread, int repeticao) throws Exception;
+    }
+}